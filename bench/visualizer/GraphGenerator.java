@@ -0,0 +1,171 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Synthetic undirected weighted graphs for benchmarks.
+//
+// Each generator aims for the requested number of undirected edges. Edges are returned as parallel arrays of
+// end point numbers and weights; vertex ids are "v" plus the vertex number.
+public class GraphGenerator {
+    public enum Shape {
+        // Uniformly random end points, average degree 8.
+        RANDOM,
+        // Square lattice, each vertex linked to its right and lower neighbors.
+        GRID,
+        // Barabasi-Albert preferential attachment, 4 edges per new vertex. Produces a few high degree hubs.
+        SCALE_FREE,
+        // Single chain. Worst case for recursion depth.
+        PATH
+    }
+
+    private static final int MAXIMUM_WEIGHT = 100;
+    private static final int SCALE_FREE_EDGES_PER_VERTEX = 4;
+
+    private final int vertexCount;
+    private final int[] from;
+    private final int[] to;
+    private final int[] weights;
+
+    private GraphGenerator(int vertexCount, int[] from, int[] to, int[] weights) {
+        this.vertexCount = vertexCount;
+        this.from = from;
+        this.to = to;
+        this.weights = weights;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return from.length;
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    public static String vertexId(int vertex) {
+        return "v" + vertex;
+    }
+
+    // Generate graph of given shape with about edgeCount undirected edges.
+    public static GraphGenerator generate(Shape shape, int edgeCount, long seed) {
+        Random random = new Random(seed);
+        return switch (shape) {
+            case RANDOM -> generateRandom(edgeCount, random);
+            case GRID -> generateGrid(edgeCount, random);
+            case SCALE_FREE -> generateScaleFree(edgeCount, random);
+            case PATH -> generatePath(edgeCount, random);
+        };
+    }
+
+    private static GraphGenerator generateRandom(int edgeCount, Random random) {
+        int vertexCount = Math.max(2, edgeCount / 4);
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            from[edge] = random.nextInt(vertexCount);
+            // Avoid self loops.
+            do {
+                to[edge] = random.nextInt(vertexCount);
+            } while (to[edge] == from[edge]);
+        }
+        return new GraphGenerator(vertexCount, from, to, randomWeights(edgeCount, random));
+    }
+
+    private static GraphGenerator generateGrid(int edgeCount, Random random) {
+        int side = Math.max(2, (int) Math.sqrt(edgeCount / 2.0));
+        int gridEdgeCount = 2 * side * (side - 1);
+        int[] from = new int[gridEdgeCount];
+        int[] to = new int[gridEdgeCount];
+        int edge = 0;
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int vertex = row * side + column;
+                if (column + 1 < side) {
+                    from[edge] = vertex;
+                    to[edge] = vertex + 1;
+                    edge++;
+                }
+                if (row + 1 < side) {
+                    from[edge] = vertex;
+                    to[edge] = vertex + side;
+                    edge++;
+                }
+            }
+        }
+        return new GraphGenerator(side * side, from, to, randomWeights(gridEdgeCount, random));
+    }
+
+    private static GraphGenerator generateScaleFree(int edgeCount, Random random) {
+        final int m = SCALE_FREE_EDGES_PER_VERTEX;
+        int vertexCount = Math.max(m + 1, edgeCount / m + 1);
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+
+        // Every edge end point is recorded, so picking a random recorded end point picks a vertex with
+        // probability proportional to its degree.
+        int[] endPoints = new int[2 * edgeCount];
+        int endPointCount = 0;
+        int edge = 0;
+
+        // Start from a small clique so early vertices have something to attach to.
+        for (int vertex = 1; (vertex <= m) && (edge < edgeCount); vertex++) {
+            for (int neighbor = 0; (neighbor < vertex) && (edge < edgeCount); neighbor++) {
+                from[edge] = vertex;
+                to[edge] = neighbor;
+                endPoints[endPointCount++] = vertex;
+                endPoints[endPointCount++] = neighbor;
+                edge++;
+            }
+        }
+        for (int vertex = m + 1; (vertex < vertexCount) && (edge < edgeCount); vertex++) {
+            for (int i = 0; (i < m) && (edge < edgeCount); i++) {
+                from[edge] = vertex;
+                to[edge] = endPoints[random.nextInt(endPointCount)];
+                edge++;
+            }
+            // Record end points after choosing, so a vertex never attaches to itself.
+            for (int i = edge - Math.min(m, edge); i < edge; i++) {
+                if (from[i] == vertex) {
+                    endPoints[endPointCount++] = vertex;
+                    endPoints[endPointCount++] = to[i];
+                }
+            }
+        }
+
+        if (edge < edgeCount) {
+            from = Arrays.copyOf(from, edge);
+            to = Arrays.copyOf(to, edge);
+        }
+        return new GraphGenerator(vertexCount, from, to, randomWeights(from.length, random));
+    }
+
+    private static GraphGenerator generatePath(int edgeCount, Random random) {
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            from[edge] = edge;
+            to[edge] = edge + 1;
+        }
+        return new GraphGenerator(edgeCount + 1, from, to, randomWeights(edgeCount, random));
+    }
+
+    private static int[] randomWeights(int edgeCount, Random random) {
+        int[] weights = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            weights[edge] = 1 + random.nextInt(MAXIMUM_WEIGHT);
+        }
+        return weights;
+    }
+}
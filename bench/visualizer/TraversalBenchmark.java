@@ -0,0 +1,248 @@
+package visualizer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+// Benchmark for the Traversal algorithms on synthetic graphs.
+//
+// For every graph shape and size it loads a fresh Traversal engine, then times each algorithm from vertex v0
+// and reports throughput, latency percentiles, bytes allocated per operation, allocation rate and garbage
+// collector activity. Edge churn (remove and re-add an existing edge) is measured the same way.
+//
+// Usage:
+//   java -cp out visualizer.TraversalBenchmark [options]
+//
+// Options:
+//   --shapes random,grid,scale_free,path
+//   --sizes 1000,10000,100000,1000000      (undirected edge counts, up to 10000000)
+//   --benchmarks dfs,bfs,parallel_bfs,dijkstra,dijkstra_delta,prim,msf_boruvka,msf_kruskal,churn
+//   --warmup 5 --iterations 10 --churn-operations 10000 --seed 1
+public class TraversalBenchmark {
+    private static final String START_VERTEX_ID = GraphGenerator.vertexId(0);
+
+    // Results are folded in here so the JIT cannot drop the work that produced them.
+    private static volatile long sink;
+
+    private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private List<GraphGenerator.Shape> shapes = List.of(GraphGenerator.Shape.values());
+    private int[] sizes = {1_000, 10_000, 100_000, 1_000_000};
+    private List<String> benchmarks = List.of("dfs", "bfs", "parallel_bfs", "dijkstra", "dijkstra_delta", "prim", "msf_boruvka", "msf_kruskal", "churn");
+    private int warmupIterations = 5;
+    private int measuredIterations = 10;
+    private int churnOperations = 10_000;
+    private long seed = 1;
+
+    public static void main(String[] args) {
+        TraversalBenchmark benchmark = new TraversalBenchmark();
+        benchmark.parseArguments(args);
+        benchmark.run();
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--shapes" -> shapes = Arrays.stream(value.split(","))
+                        .map(shape -> GraphGenerator.Shape.valueOf(shape.trim().toUpperCase(Locale.ROOT)))
+                        .toList();
+                case "--sizes" -> sizes = Arrays.stream(value.split(",")).mapToInt(size -> Integer.parseInt(size.trim())).toArray();
+                case "--benchmarks" -> benchmarks = Arrays.stream(value.split(",")).map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+                case "--warmup" -> warmupIterations = Integer.parseInt(value);
+                case "--iterations" -> measuredIterations = Integer.parseInt(value);
+                case "--churn-operations" -> churnOperations = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private void run() {
+        System.out.printf("%-10s %10s %-14s %12s %12s %12s %12s %14s %10s %6s %8s%n",
+                "shape", "edges", "benchmark", "ops/s", "avg ms", "p50 ms", "p99 ms", "alloc B/op", "alloc MB/s", "gc", "gc ms");
+        for (GraphGenerator.Shape shape : shapes) {
+            for (int size : sizes) {
+                GraphGenerator generator = GraphGenerator.generate(shape, size, seed);
+                Traversal traversal = load(generator);
+                for (String benchmark : benchmarks) {
+                    Measurement measurement = switch (benchmark) {
+                        case "dfs" -> measure(() -> traversal.getDepthFirstSearchOrder("DFS", START_VERTEX_ID).length());
+                        case "bfs" -> measure(() -> traversal.getBreadthFirstSearchOrder("BFS", START_VERTEX_ID).length());
+                        case "parallel_bfs" -> measure(() -> traversal.getBreadthFirstSearchTree(START_VERTEX_ID).getReachedVertexCount());
+                        case "dijkstra" -> measure(() -> traversal.getDijkstrasAlgorithmCostPairs(START_VERTEX_ID).length());
+                        case "dijkstra_delta" -> measureDeltaStepping(traversal);
+                        case "prim" -> measure(() -> traversal.getPrimsAlgorithmChildParentPairs(START_VERTEX_ID).length());
+                        case "msf_boruvka" -> measure(() -> traversal.getMinimumSpanningForest(Traversal.SpanningForestEngine.BORUVKA).getEdgeCount());
+                        case "msf_kruskal" -> measure(() -> traversal.getMinimumSpanningForest(Traversal.SpanningForestEngine.KRUSKAL).getEdgeCount());
+                        case "churn" -> measureChurn(traversal, generator);
+                        default -> throw new IllegalArgumentException("Unknown benchmark " + benchmark);
+                    };
+                    System.out.printf(Locale.ROOT, "%-10s %10d %-14s %12.1f %12.3f %12.3f %12.3f %14d %10.1f %6d %8d%n",
+                            shape.name().toLowerCase(Locale.ROOT), generator.getEdgeCount(), benchmark, measurement.operationsPerSecond(),
+                            measurement.averageMilliseconds(), measurement.percentileMilliseconds(50), measurement.percentileMilliseconds(99),
+                            measurement.bytesPerOperation(), measurement.allocationMegabytesPerSecond(), measurement.gcCount, measurement.gcMilliseconds);
+                }
+            }
+        }
+    }
+
+    // Load generated graph into a new engine, adding each undirected edge in both directions like the graph
+    // panel does. The result cache is turned off, or every measured query would be a cache hit.
+    private static Traversal load(GraphGenerator generator) {
+        Traversal traversal = new Traversal(0);
+        for (int edge = 0; edge < generator.getEdgeCount(); edge++) {
+            String fromVertexId = GraphGenerator.vertexId(generator.getFrom(edge));
+            String toVertexId = GraphGenerator.vertexId(generator.getTo(edge));
+            traversal.addAdjacentVertex(fromVertexId, toVertexId, generator.getWeight(edge));
+            traversal.addAdjacentVertex(toVertexId, fromVertexId, generator.getWeight(edge));
+        }
+        // Compact once up front so the first measured query does not pay for it.
+        traversal.getSnapshot();
+        return traversal;
+    }
+
+    // Time Dijkstra's Algorithm run by delta-stepping with automatic delta, then switch engine back.
+    private Measurement measureDeltaStepping(Traversal traversal) {
+        traversal.setShortestPathEngine(Traversal.ShortestPathEngine.DELTA_STEPPING, 0);
+        try {
+            return measure(() -> traversal.getDijkstrasAlgorithmCostPairs(START_VERTEX_ID).length());
+        } finally {
+            traversal.setShortestPathEngine(Traversal.ShortestPathEngine.HEAP, 0);
+        }
+    }
+
+    private Measurement measure(IntSupplier operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink += operation.getAsInt();
+        }
+
+        Measurement measurement = new Measurement(measuredIterations, 1);
+        measurement.start();
+        for (int i = 0; i < measuredIterations; i++) {
+            long startTime = System.nanoTime();
+            sink += operation.getAsInt();
+            measurement.latencies[i] = System.nanoTime() - startTime;
+        }
+        measurement.stop();
+        return measurement;
+    }
+
+    // Each operation removes a random existing edge in both directions and adds it back. Every iteration ends
+    // with a snapshot so the edit overlay gets merged the way a query after edits would.
+    private Measurement measureChurn(Traversal traversal, GraphGenerator generator) {
+        // Only churn edges whose vertex pair occurs once, so removing the lightest edge between the pair always
+        // removes the edge being re-added.
+        HashSet<Long> seenPairs = new HashSet<>();
+        HashSet<Long> repeatedPairs = new HashSet<>();
+        for (int edge = 0; edge < generator.getEdgeCount(); edge++) {
+            long pair = pairKey(generator.getFrom(edge), generator.getTo(edge));
+            if (!seenPairs.add(pair)) {
+                repeatedPairs.add(pair);
+            }
+        }
+        int[] churnEdges = IntStream.range(0, generator.getEdgeCount())
+                .filter(edge -> !repeatedPairs.contains(pairKey(generator.getFrom(edge), generator.getTo(edge))))
+                .toArray();
+
+        Random random = new Random(seed);
+        Runnable churn = () -> {
+            int edge = churnEdges[random.nextInt(churnEdges.length)];
+            String fromVertexId = GraphGenerator.vertexId(generator.getFrom(edge));
+            String toVertexId = GraphGenerator.vertexId(generator.getTo(edge));
+            traversal.removeAdjacentVertex(fromVertexId, toVertexId);
+            traversal.removeAdjacentVertex(toVertexId, fromVertexId);
+            traversal.addAdjacentVertex(fromVertexId, toVertexId, generator.getWeight(edge));
+            traversal.addAdjacentVertex(toVertexId, fromVertexId, generator.getWeight(edge));
+        };
+
+        for (int i = 0; i < warmupIterations; i++) {
+            for (int operation = 0; operation < churnOperations; operation++) {
+                churn.run();
+            }
+            sink += traversal.getSnapshot().getEdgeCount();
+        }
+
+        Measurement measurement = new Measurement(measuredIterations, churnOperations);
+        measurement.start();
+        for (int i = 0; i < measuredIterations; i++) {
+            long startTime = System.nanoTime();
+            for (int operation = 0; operation < churnOperations; operation++) {
+                churn.run();
+            }
+            sink += traversal.getSnapshot().getEdgeCount();
+            measurement.latencies[i] = (System.nanoTime() - startTime) / churnOperations;
+        }
+        measurement.stop();
+        return measurement;
+    }
+
+    private static long pairKey(int vertex1, int vertex2) {
+        return ((long) Math.min(vertex1, vertex2) << 32) | Math.max(vertex1, vertex2);
+    }
+
+    // Timings and allocation counters for one benchmark.
+    private class Measurement {
+        private final long[] latencies;
+        private final int operationsPerIteration;
+        private long elapsedNanoseconds;
+        private long allocatedBytes;
+        private long gcCount;
+        private long gcMilliseconds;
+
+        private Measurement(int iterations, int operationsPerIteration) {
+            this.latencies = new long[iterations];
+            this.operationsPerIteration = operationsPerIteration;
+        }
+
+        private void start() {
+            elapsedNanoseconds = System.nanoTime();
+            allocatedBytes = threadBean.getCurrentThreadAllocatedBytes();
+            for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount -= Math.max(0, gcBean.getCollectionCount());
+                gcMilliseconds -= Math.max(0, gcBean.getCollectionTime());
+            }
+        }
+
+        private void stop() {
+            elapsedNanoseconds = System.nanoTime() - elapsedNanoseconds;
+            allocatedBytes = threadBean.getCurrentThreadAllocatedBytes() - allocatedBytes;
+            for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gcBean.getCollectionCount());
+                gcMilliseconds += Math.max(0, gcBean.getCollectionTime());
+            }
+            Arrays.sort(latencies);
+        }
+
+        private long operationCount() {
+            return (long) latencies.length * operationsPerIteration;
+        }
+
+        private double operationsPerSecond() {
+            return operationCount() / (elapsedNanoseconds / 1e9);
+        }
+
+        private double averageMilliseconds() {
+            return elapsedNanoseconds / 1e6 / operationCount();
+        }
+
+        private double percentileMilliseconds(int percentile) {
+            int position = Math.min(latencies.length - 1, (int) Math.ceil(percentile / 100.0 * latencies.length) - 1);
+            return latencies[Math.max(0, position)] / 1e6;
+        }
+
+        private long bytesPerOperation() {
+            return allocatedBytes / operationCount();
+        }
+
+        private double allocationMegabytesPerSecond() {
+            return allocatedBytes / 1e6 / (elapsedNanoseconds / 1e9);
+        }
+    }
+}
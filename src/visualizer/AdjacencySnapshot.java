@@ -0,0 +1,127 @@
+package visualizer;
+
+import java.util.Arrays;
+
+// Read-only compressed sparse row view of an adjacency store.
+//
+// Vertices are numbered densely in the order they were first seen. Edges of vertex v live in slots
+// getEdgeStart(v) to getEdgeEnd(v) of the targets and weights arrays, sorted by weight and then by neighbor
+// vertex id. Vertex ranks give the position of each vertex in vertex id order.
+public class AdjacencySnapshot {
+    private final String[] vertexIds;
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] vertexOrder;
+    private final int[] vertexRanks;
+
+    // Snapshot with every edge reversed, or null until it is first asked for.
+    private AdjacencySnapshot transpose;
+
+    AdjacencySnapshot(String[] vertexIds, int vertexCount, int[] offsets, int[] targets, int[] weights, int[] vertexOrder, int[] vertexRanks) {
+        this.vertexIds = vertexIds;
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.vertexOrder = vertexOrder;
+        this.vertexRanks = vertexRanks;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return offsets[vertexCount];
+    }
+
+    public String getVertexId(int vertex) {
+        return vertexIds[vertex];
+    }
+
+    // Get vertex id array shared with the store. Entries past the vertex count do not belong to the snapshot.
+    String[] getVertexIds() {
+        return vertexIds;
+    }
+
+    public int getEdgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    public int getEdgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    public int getTarget(int slot) {
+        return targets[slot];
+    }
+
+    public int getWeight(int slot) {
+        return weights[slot];
+    }
+
+    // Get vertex at given position in vertex id order.
+    public int getVertexByRank(int rank) {
+        return vertexOrder[rank];
+    }
+
+    // Get position of vertex in vertex id order.
+    public int getRank(int vertex) {
+        return vertexRanks[vertex];
+    }
+
+    // Get vertex number for vertex id, or -1 if vertex is not in snapshot.
+    public int indexOf(String vertexId) {
+        // Binary search vertex id order.
+        int low = 0;
+        int high = vertexCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = vertexIds[vertexOrder[middle]].compareTo(vertexId);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return vertexOrder[middle];
+            }
+        }
+        return -1;
+    }
+
+    // Get snapshot with every edge reversed, building it on first use. Its rows are in neighbor vertex id order
+    // rather than weight order.
+    public synchronized AdjacencySnapshot getTranspose() {
+        if (transpose != null) {
+            return transpose;
+        }
+
+        // Count incoming edges of each vertex.
+        int[] transposeOffsets = new int[vertexCount + 1];
+        for (int slot = 0; slot < offsets[vertexCount]; slot++) {
+            transposeOffsets[targets[slot] + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            transposeOffsets[vertex + 1] += transposeOffsets[vertex];
+        }
+
+        // Scatter edges, visiting their start vertices in vertex id order.
+        int[] transposeTargets = new int[offsets[vertexCount]];
+        int[] transposeWeights = new int[offsets[vertexCount]];
+        int[] nextSlots = Arrays.copyOf(transposeOffsets, vertexCount);
+        for (int rank = 0; rank < vertexCount; rank++) {
+            int vertex = vertexOrder[rank];
+            for (int slot = offsets[vertex]; slot < offsets[vertex + 1]; slot++) {
+                int transposeSlot = nextSlots[targets[slot]]++;
+                transposeTargets[transposeSlot] = vertex;
+                transposeWeights[transposeSlot] = weights[slot];
+            }
+        }
+
+        transpose = new AdjacencySnapshot(vertexIds, vertexCount, transposeOffsets, transposeTargets, transposeWeights, vertexOrder, vertexRanks);
+        transpose.transpose = this;
+        return transpose;
+    }
+}
@@ -0,0 +1,598 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+// Adjacency list kept as primitive arrays.
+//
+// Vertex ids are interned to dense integers. Edges live in compressed sparse row arrays that are rebuilt
+// (compacted) only when a snapshot is requested. Edits made since the last compaction are kept in an overlay:
+// added edges in small per-vertex arrays and removed edges as tombstones over the compacted slots.
+//
+// Like the sorted sets it replaces, a vertex holds at most one edge per (neighbor, weight) pair.
+//
+// Edits look up the edge to a neighbor by scanning the edges of the vertex. Vertices with more than
+// INDEXED_DEGREE edges get a neighbor index instead, built on first edit, which tells where the edge to each
+// neighbor is stored. Removing an edge is then O(1), so removing all edges of a vertex is O(degree) rather
+// than O(degree^2). Compaction moves edges around, so it drops all neighbor indexes.
+//
+// The store is not thread safe. Snapshots never change once taken and can be shared between threads.
+public class AdjacencyStore {
+    private static final int INITIAL_VERTEX_CAPACITY = 16;
+    private static final int INITIAL_OVERLAY_CAPACITY = 4;
+    private static final int ID_PREFIX_LENGTH = 4;
+    private static final int ID_MERGE_SORT_LENGTH = 16;
+    private static final int INDEXED_DEGREE = 16;
+
+    // Neighbor index location for a neighbor with several edges, of different weights. Those are scanned for.
+    private static final int SEVERAL_EDGES = Integer.MIN_VALUE + 1;
+
+    // Vertex id interning. The map is left out by bulk loading and built on first use.
+    private HashMap<String, Integer> vertexIndexMap = new HashMap<>();
+    private String[] vertexIds = new String[INITIAL_VERTEX_CAPACITY];
+    private int vertexCount;
+
+    // Compacted edges. Covers vertices below compactedVertexCount.
+    private int compactedVertexCount;
+    private int[] offsets = new int[1];
+    private int[] targets = new int[0];
+    private int[] weights = new int[0];
+
+    // Vertex id order as of last compaction.
+    private int[] vertexOrder = new int[0];
+    private int[] vertexRanks = new int[0];
+
+    // Overlay of edits since last compaction. Added edges are packed as weight in the high half and target
+    // vertex in the low half.
+    private long[][] addedEdges = new long[INITIAL_VERTEX_CAPACITY][];
+    private int[] addedEdgeCounts = new int[INITIAL_VERTEX_CAPACITY];
+    private int addedEdgeCount;
+    private final BitSet removedSlots = new BitSet();
+    private int removedSlotCount;
+
+    // Neighbor index of each vertex, or null if it has none yet. Locations are compacted slots, or overlay
+    // positions stored inverted (~position).
+    private NeighborIndex[] neighborIndexes = new NeighborIndex[INITIAL_VERTEX_CAPACITY];
+
+    private AdjacencySnapshot snapshot;
+
+    // Build store from edge list in one pass, without going through the overlay. Edges are added in both
+    // directions if undirected is set. The vertex id array is taken over by the store.
+    public static AdjacencyStore fromEdgeList(String[] vertexIds, int vertexCount, int[] from, int[] to, int[] weights, int edgeCount,
+                                              boolean undirected) {
+        AdjacencyStore store = withVertexIds(vertexIds, vertexCount);
+        store.rankVertices();
+
+        // Throw exception if slots no longer fit in an array.
+        long slotCount = undirected ? 2L * edgeCount : edgeCount;
+        if (slotCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Edge list has too many edges.");
+        }
+
+        // Count edges of each vertex, then turn counts into row offsets.
+        int[] newOffsets = new int[vertexCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            newOffsets[from[edge] + 1]++;
+            if (undirected) {
+                newOffsets[to[edge] + 1]++;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            newOffsets[vertex + 1] += newOffsets[vertex];
+        }
+
+        // Scatter edges into their rows.
+        int[] newTargets = new int[(int) slotCount];
+        int[] newWeights = new int[(int) slotCount];
+        int[] rowEnds = Arrays.copyOf(newOffsets, vertexCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int slot = rowEnds[from[edge]]++;
+            newTargets[slot] = to[edge];
+            newWeights[slot] = weights[edge];
+            if (undirected) {
+                slot = rowEnds[to[edge]]++;
+                newTargets[slot] = from[edge];
+                newWeights[slot] = weights[edge];
+            }
+        }
+
+        // Sort each row by weight and neighbor vertex id, dropping repeated edges. Rows only ever move left, so
+        // this can be done in place.
+        long[] sortBuffer = new long[0];
+        int newSlot = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int rowStart = newOffsets[vertex];
+            int rowLength = newOffsets[vertex + 1] - rowStart;
+            newOffsets[vertex] = newSlot;
+            if (sortBuffer.length < rowLength) {
+                sortBuffer = new long[Math.max(rowLength, sortBuffer.length * 2)];
+            }
+            for (int i = 0; i < rowLength; i++) {
+                sortBuffer[i] = packEdge(newWeights[rowStart + i], store.vertexRanks[newTargets[rowStart + i]]);
+            }
+            Arrays.sort(sortBuffer, 0, rowLength);
+            for (int i = 0; i < rowLength; i++) {
+                if ((i > 0) && (sortBuffer[i] == sortBuffer[i - 1])) {
+                    continue;
+                }
+                newTargets[newSlot] = store.vertexOrder[unpackTarget(sortBuffer[i])];
+                newWeights[newSlot] = unpackWeight(sortBuffer[i]);
+                newSlot++;
+            }
+        }
+        newOffsets[vertexCount] = newSlot;
+
+        store.compactedVertexCount = vertexCount;
+        store.offsets = newOffsets;
+        store.targets = (newSlot == slotCount) ? newTargets : Arrays.copyOf(newTargets, newSlot);
+        store.weights = (newSlot == slotCount) ? newWeights : Arrays.copyOf(newWeights, newSlot);
+        return store;
+    }
+
+    // Build store straight from compacted arrays, as saved from an earlier snapshot. The arrays are taken over by
+    // the store.
+    static AdjacencyStore fromCompactedArrays(String[] vertexIds, int vertexCount, int[] offsets, int[] targets, int[] weights,
+                                              int[] vertexOrder) {
+        AdjacencyStore store = withVertexIds(vertexIds, vertexCount);
+
+        store.compactedVertexCount = vertexCount;
+        store.offsets = offsets;
+        store.targets = targets;
+        store.weights = weights;
+        store.vertexOrder = vertexOrder;
+        store.vertexRanks = new int[vertexCount];
+        for (int rank = 0; rank < vertexCount; rank++) {
+            store.vertexRanks[vertexOrder[rank]] = rank;
+        }
+        return store;
+    }
+
+    // Create empty store holding given vertices. The id to vertex map is built on first use.
+    private static AdjacencyStore withVertexIds(String[] vertexIds, int vertexCount) {
+        AdjacencyStore store = new AdjacencyStore();
+        store.vertexIds = (vertexIds.length > vertexCount) ? vertexIds : Arrays.copyOf(vertexIds, Math.max(INITIAL_VERTEX_CAPACITY, vertexCount + 1));
+        store.vertexCount = vertexCount;
+        store.vertexIndexMap = null;
+        store.addedEdges = new long[store.vertexIds.length][];
+        store.addedEdgeCounts = new int[store.vertexIds.length];
+        store.neighborIndexes = new NeighborIndex[store.vertexIds.length];
+        return store;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return offsets[compactedVertexCount] - removedSlotCount + addedEdgeCount;
+    }
+
+    public String getVertexId(int vertex) {
+        return vertexIds[vertex];
+    }
+
+    // Get vertex number for vertex id, or -1 if vertex is not in store.
+    public int indexOf(String vertexId) {
+        Integer vertex = getVertexIndexMap().get(vertexId);
+        return (vertex != null) ? vertex : -1;
+    }
+
+    // Get vertex number for vertex id, adding vertex if it does not yet exist.
+    public int internVertex(String vertexId) {
+        HashMap<String, Integer> vertexIndexMap = getVertexIndexMap();
+        Integer vertex = vertexIndexMap.get(vertexId);
+        if (vertex != null) {
+            return vertex;
+        }
+
+        // Grow vertex arrays if they are full.
+        if (vertexCount == vertexIds.length) {
+            int capacity = vertexIds.length * 2;
+            vertexIds = Arrays.copyOf(vertexIds, capacity);
+            addedEdges = Arrays.copyOf(addedEdges, capacity);
+            addedEdgeCounts = Arrays.copyOf(addedEdgeCounts, capacity);
+            neighborIndexes = Arrays.copyOf(neighborIndexes, capacity);
+        }
+
+        vertexIds[vertexCount] = vertexId;
+        vertexIndexMap.put(vertexId, vertexCount);
+        snapshot = null;
+        return vertexCount++;
+    }
+
+    // Add edge. Returns false if an edge with the same neighbor and weight is already there.
+    public boolean addEdge(String fromVertexId, String toVertexId, int weight) {
+        int fromVertex = internVertex(fromVertexId);
+        int toVertex = internVertex(toVertexId);
+
+        // Exit if edge already exists. Scan for it unless neighbor index knows the only edge to neighbor.
+        NeighborIndex neighborIndex = getNeighborIndex(fromVertex);
+        int location = (neighborIndex != null) ? neighborIndex.get(toVertex) : SEVERAL_EDGES;
+        if (location == SEVERAL_EDGES) {
+            if ((findCompactedSlot(fromVertex, toVertex, weight, true) != -1) || (findAddedEdge(fromVertex, toVertex, weight, true) != -1)) {
+                return false;
+            }
+        } else if ((location != NeighborIndex.ABSENT) && (getWeight(fromVertex, location) == weight)) {
+            return false;
+        }
+
+        // Add edge to overlay.
+        long[] vertexAddedEdges = addedEdges[fromVertex];
+        if (vertexAddedEdges == null) {
+            vertexAddedEdges = new long[INITIAL_OVERLAY_CAPACITY];
+            addedEdges[fromVertex] = vertexAddedEdges;
+        } else if (addedEdgeCounts[fromVertex] == vertexAddedEdges.length) {
+            vertexAddedEdges = Arrays.copyOf(vertexAddedEdges, vertexAddedEdges.length * 2);
+            addedEdges[fromVertex] = vertexAddedEdges;
+        }
+        int position = addedEdgeCounts[fromVertex]++;
+        vertexAddedEdges[position] = packEdge(weight, toVertex);
+        addedEdgeCount++;
+        if (neighborIndex != null) {
+            neighborIndex.put(toVertex, (location == NeighborIndex.ABSENT) ? ~position : SEVERAL_EDGES);
+        }
+        snapshot = null;
+        return true;
+    }
+
+    // Remove lightest edge between vertices. Returns its weight.
+    public int removeEdge(String fromVertexId, String toVertexId) {
+        // Throw exception if from vertex is not in store.
+        int fromVertex = indexOf(fromVertexId);
+        if (fromVertex == -1) {
+            throw new IllegalArgumentException("From vertex id is not in adjacency list.");
+        }
+        int toVertex = indexOf(toVertexId);
+
+        // Find lightest matching edge in compacted slots and overlay. Scan for it unless neighbor index knows the
+        // only edge to neighbor.
+        NeighborIndex neighborIndex = (toVertex != -1) ? getNeighborIndex(fromVertex) : null;
+        int location = (neighborIndex != null) ? neighborIndex.get(toVertex) : SEVERAL_EDGES;
+        int slot = -1;
+        int addedEdgePosition = -1;
+        if (location == SEVERAL_EDGES) {
+            slot = (toVertex != -1) ? findCompactedSlot(fromVertex, toVertex, 0, false) : -1;
+            addedEdgePosition = (toVertex != -1) ? findAddedEdge(fromVertex, toVertex, 0, false) : -1;
+        } else if (location >= 0) {
+            slot = location;
+        } else if (location != NeighborIndex.ABSENT) {
+            addedEdgePosition = ~location;
+        }
+
+        // Throw exception if to vertex is not in from vertex list.
+        if ((slot == -1) && (addedEdgePosition == -1)) {
+            throw new IllegalArgumentException("To vertex id is not in from vertex list.");
+        }
+
+        // Remove whichever edge is lighter.
+        int weight;
+        if ((addedEdgePosition == -1) || ((slot != -1) && (weights[slot] <= unpackWeight(addedEdges[fromVertex][addedEdgePosition])))) {
+            weight = weights[slot];
+            removedSlots.set(slot);
+            removedSlotCount++;
+        } else {
+            // Swap last added edge into removed position.
+            weight = unpackWeight(addedEdges[fromVertex][addedEdgePosition]);
+            int lastPosition = --addedEdgeCounts[fromVertex];
+            long movedEdge = addedEdges[fromVertex][lastPosition];
+            addedEdges[fromVertex][addedEdgePosition] = movedEdge;
+            addedEdgeCount--;
+
+            // Let neighbor index know where moved edge went.
+            if ((neighborIndex != null) && (neighborIndex.get(unpackTarget(movedEdge)) == ~lastPosition)) {
+                neighborIndex.put(unpackTarget(movedEdge), ~addedEdgePosition);
+            }
+        }
+
+        // Update neighbor index, looking for the edge left over if there were several.
+        if (neighborIndex != null) {
+            if (location != SEVERAL_EDGES) {
+                neighborIndex.remove(toVertex);
+            } else {
+                neighborIndex.put(toVertex, findOnlyEdge(fromVertex, toVertex));
+            }
+        }
+        snapshot = null;
+        return weight;
+    }
+
+    // Get read-only view of store, compacting pending edits first.
+    public AdjacencySnapshot snapshot() {
+        if (snapshot == null) {
+            compact();
+            snapshot = new AdjacencySnapshot(vertexIds, vertexCount, offsets, targets, weights, vertexOrder, vertexRanks);
+        }
+        return snapshot;
+    }
+
+    // Get neighbor index of vertex, building it if vertex has too many edges to scan. Returns null if vertex has
+    // few enough edges.
+    private NeighborIndex getNeighborIndex(int vertex) {
+        if (neighborIndexes[vertex] != null) {
+            return neighborIndexes[vertex];
+        }
+
+        // Exit if edges are quick to scan.
+        int rowStart = (vertex < compactedVertexCount) ? offsets[vertex] : 0;
+        int rowEnd = (vertex < compactedVertexCount) ? offsets[vertex + 1] : 0;
+        if (rowEnd - rowStart + addedEdgeCounts[vertex] <= INDEXED_DEGREE) {
+            return null;
+        }
+
+        // Index compacted edges, then overlay.
+        NeighborIndex neighborIndex = new NeighborIndex(rowEnd - rowStart + addedEdgeCounts[vertex]);
+        for (int slot = rowStart; slot < rowEnd; slot++) {
+            if (!removedSlots.get(slot)) {
+                indexNeighbor(neighborIndex, targets[slot], slot);
+            }
+        }
+        for (int position = 0; position < addedEdgeCounts[vertex]; position++) {
+            indexNeighbor(neighborIndex, unpackTarget(addedEdges[vertex][position]), ~position);
+        }
+        neighborIndexes[vertex] = neighborIndex;
+        return neighborIndex;
+    }
+
+    private static void indexNeighbor(NeighborIndex neighborIndex, int neighbor, int location) {
+        neighborIndex.put(neighbor, (neighborIndex.get(neighbor) == NeighborIndex.ABSENT) ? location : SEVERAL_EDGES);
+    }
+
+    // Get weight of edge at neighbor index location.
+    private int getWeight(int vertex, int location) {
+        return (location >= 0) ? weights[location] : unpackWeight(addedEdges[vertex][~location]);
+    }
+
+    // Get neighbor index location of edge to vertex if it is the only one, SEVERAL_EDGES if there are more.
+    private int findOnlyEdge(int fromVertex, int toVertex) {
+        int location = NeighborIndex.ABSENT;
+        if (fromVertex < compactedVertexCount) {
+            for (int slot = offsets[fromVertex]; slot < offsets[fromVertex + 1]; slot++) {
+                if ((targets[slot] == toVertex) && !removedSlots.get(slot)) {
+                    location = (location == NeighborIndex.ABSENT) ? slot : SEVERAL_EDGES;
+                }
+            }
+        }
+        for (int position = 0; position < addedEdgeCounts[fromVertex]; position++) {
+            if (unpackTarget(addedEdges[fromVertex][position]) == toVertex) {
+                location = (location == NeighborIndex.ABSENT) ? ~position : SEVERAL_EDGES;
+            }
+        }
+        return location;
+    }
+
+    private HashMap<String, Integer> getVertexIndexMap() {
+        if (vertexIndexMap == null) {
+            vertexIndexMap = new HashMap<>(vertexCount * 2);
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                vertexIndexMap.put(vertexIds[vertex], vertex);
+            }
+        }
+        return vertexIndexMap;
+    }
+
+    // Find compacted slot holding edge to vertex. Matches any weight, taking the lightest, unless matchWeight
+    // is set.
+    private int findCompactedSlot(int fromVertex, int toVertex, int weight, boolean matchWeight) {
+        if (fromVertex >= compactedVertexCount) {
+            return -1;
+        }
+        for (int slot = offsets[fromVertex]; slot < offsets[fromVertex + 1]; slot++) {
+            if ((targets[slot] == toVertex) && !removedSlots.get(slot) && (!matchWeight || (weights[slot] == weight))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Find overlay position holding edge to vertex. Matches any weight, taking the lightest, unless
+    // matchWeight is set.
+    private int findAddedEdge(int fromVertex, int toVertex, int weight, boolean matchWeight) {
+        int foundPosition = -1;
+        for (int position = 0; position < addedEdgeCounts[fromVertex]; position++) {
+            long edge = addedEdges[fromVertex][position];
+            if (unpackTarget(edge) != toVertex) {
+                continue;
+            }
+            if (matchWeight) {
+                if (unpackWeight(edge) == weight) {
+                    return position;
+                }
+            } else if ((foundPosition == -1) || (unpackWeight(edge) < unpackWeight(addedEdges[fromVertex][foundPosition]))) {
+                foundPosition = position;
+            }
+        }
+        return foundPosition;
+    }
+
+    // Merge overlay into compacted arrays.
+    private void compact() {
+        // Re-rank vertices by id if new vertices were added.
+        if (vertexOrder.length != vertexCount) {
+            rankVertices();
+        }
+
+        // Exit if there is nothing to merge.
+        if ((compactedVertexCount == vertexCount) && (addedEdgeCount == 0) && (removedSlotCount == 0)) {
+            return;
+        }
+
+        int edgeCount = getEdgeCount();
+        int[] newOffsets = new int[vertexCount + 1];
+        int[] newTargets = new int[edgeCount];
+        int[] newWeights = new int[edgeCount];
+        long[] sortBuffer = new long[0];
+
+        int newSlot = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            newOffsets[vertex] = newSlot;
+
+            // Copy surviving compacted edges. They are already in order.
+            if (vertex < compactedVertexCount) {
+                for (int slot = offsets[vertex]; slot < offsets[vertex + 1]; slot++) {
+                    if (!removedSlots.get(slot)) {
+                        newTargets[newSlot] = targets[slot];
+                        newWeights[newSlot] = weights[slot];
+                        newSlot++;
+                    }
+                }
+            }
+
+            // Merge added edges and re-sort vertex edges by weight and neighbor vertex id.
+            int vertexAddedEdgeCount = addedEdgeCounts[vertex];
+            if (vertexAddedEdgeCount > 0) {
+                int sliceLength = newSlot - newOffsets[vertex] + vertexAddedEdgeCount;
+                if (sortBuffer.length < sliceLength) {
+                    sortBuffer = new long[sliceLength];
+                }
+                int position = 0;
+                for (int slot = newOffsets[vertex]; slot < newSlot; slot++) {
+                    sortBuffer[position++] = packEdge(newWeights[slot], vertexRanks[newTargets[slot]]);
+                }
+                for (int i = 0; i < vertexAddedEdgeCount; i++) {
+                    long edge = addedEdges[vertex][i];
+                    sortBuffer[position++] = packEdge(unpackWeight(edge), vertexRanks[unpackTarget(edge)]);
+                }
+                Arrays.sort(sortBuffer, 0, sliceLength);
+                newSlot = newOffsets[vertex];
+                for (int i = 0; i < sliceLength; i++) {
+                    newTargets[newSlot] = vertexOrder[unpackTarget(sortBuffer[i])];
+                    newWeights[newSlot] = unpackWeight(sortBuffer[i]);
+                    newSlot++;
+                }
+
+                // Clear overlay for vertex.
+                addedEdges[vertex] = null;
+                addedEdgeCounts[vertex] = 0;
+            }
+        }
+        newOffsets[vertexCount] = newSlot;
+
+        compactedVertexCount = vertexCount;
+        offsets = newOffsets;
+        targets = newTargets;
+        weights = newWeights;
+        addedEdgeCount = 0;
+        removedSlots.clear();
+        removedSlotCount = 0;
+        Arrays.fill(neighborIndexes, null);
+    }
+
+    // Work out vertex id order without boxed keys.
+    private void rankVertices() {
+        int[] order = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            order[vertex] = vertex;
+        }
+        sortByVertexId(order, new long[vertexCount], new int[vertexCount], 0, vertexCount, 0);
+
+        vertexOrder = order;
+        vertexRanks = new int[vertexCount];
+        for (int rank = 0; rank < vertexCount; rank++) {
+            vertexRanks[order[rank]] = rank;
+        }
+    }
+
+    // Sort vertices in given range of order by their ids, all of which agree up to the given character. Vertices
+    // are sorted as primitives by the next few id characters, and each run sharing those characters is then
+    // sorted by the characters after them. Short runs are merge sorted by full id.
+    private void sortByVertexId(int[] order, long[] prefixKeys, int[] mergeBuffer, int low, int high, int idStart) {
+        if (high - low <= ID_MERGE_SORT_LENGTH) {
+            mergeSortByVertexId(order, mergeBuffer, low, high);
+            return;
+        }
+
+        for (int position = low; position < high; position++) {
+            // Flip sign bit so signed order of keys matches unsigned order of prefixes.
+            prefixKeys[position] = ((getIdPrefix(vertexIds[order[position]], idStart) << 32) | order[position]) ^ Long.MIN_VALUE;
+        }
+        Arrays.sort(prefixKeys, low, high);
+        for (int position = low; position < high; position++) {
+            order[position] = (int) prefixKeys[position];
+        }
+
+        int runStart = low;
+        while (runStart < high) {
+            // Find run of vertices sharing prefix.
+            long runPrefix = (prefixKeys[runStart] ^ Long.MIN_VALUE) >>> 32;
+            int runEnd = runStart + 1;
+            while ((runEnd < high) && (((prefixKeys[runEnd] ^ Long.MIN_VALUE) >>> 32) == runPrefix)) {
+                runEnd++;
+            }
+
+            // Carry on with next characters if prefix holds them exactly, otherwise compare full ids.
+            if (runEnd - runStart > 1) {
+                if (isExactIdPrefix(runPrefix)) {
+                    sortByVertexId(order, prefixKeys, mergeBuffer, runStart, runEnd, idStart + ID_PREFIX_LENGTH);
+                } else {
+                    mergeSortByVertexId(order, mergeBuffer, runStart, runEnd);
+                }
+            }
+            runStart = runEnd;
+        }
+    }
+
+    // Get id characters from given position packed so that prefixes compare like the ids do. Missing characters
+    // are zero. A character past the low byte is clamped and ends the prefix, since characters after it can no
+    // longer be trusted to decide the order; ids sharing such a prefix are left to the full id comparison.
+    private static long getIdPrefix(String vertexId, int idStart) {
+        long prefix = 0;
+        boolean clamped = false;
+        for (int i = idStart; i < idStart + ID_PREFIX_LENGTH; i++) {
+            int character = 0;
+            if (!clamped && (i < vertexId.length())) {
+                character = Math.min(vertexId.charAt(i), 0xFF);
+                clamped = (character == 0xFF);
+            }
+            prefix = (prefix << 8) | character;
+        }
+        return prefix;
+    }
+
+    // Does prefix hold its characters exactly, without missing or clamped ones?
+    private static boolean isExactIdPrefix(long prefix) {
+        for (int i = 0; i < ID_PREFIX_LENGTH; i++) {
+            long character = (prefix >>> (8 * i)) & 0xFF;
+            if ((character == 0) || (character == 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Merge sort vertices in given range of order by their ids.
+    private void mergeSortByVertexId(int[] order, int[] mergeBuffer, int low, int high) {
+        for (int width = 1; width < high - low; width *= 2) {
+            for (int runLow = low; runLow < high - width; runLow += 2 * width) {
+                int middle = runLow + width;
+                int runHigh = Math.min(runLow + 2 * width, high);
+                // Skip runs that are already in order.
+                if (vertexIds[order[middle - 1]].compareTo(vertexIds[order[middle]]) <= 0) {
+                    continue;
+                }
+                System.arraycopy(order, runLow, mergeBuffer, runLow, runHigh - runLow);
+                int left = runLow;
+                int right = middle;
+                for (int position = runLow; position < runHigh; position++) {
+                    if ((right == runHigh) || ((left < middle) && (vertexIds[mergeBuffer[left]].compareTo(vertexIds[mergeBuffer[right]]) <= 0))) {
+                        order[position] = mergeBuffer[left++];
+                    } else {
+                        order[position] = mergeBuffer[right++];
+                    }
+                }
+            }
+        }
+    }
+
+    private static long packEdge(int weight, int target) {
+        return ((long) weight << 32) | target;
+    }
+
+    private static int unpackWeight(long edge) {
+        return (int) (edge >> 32);
+    }
+
+    private static int unpackTarget(long edge) {
+        return (int) edge;
+    }
+}
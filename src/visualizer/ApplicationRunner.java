@@ -6,6 +6,12 @@ public class ApplicationRunner {
     public static final Logger logger = System.getLogger(ApplicationRunner.class.getName());
 
     public static void main(String[] args) {
+        // Run headless batch mode if there are command line arguments.
+        if (args.length > 0) {
+            System.setProperty("java.awt.headless", "true");
+            System.exit(BatchRunner.run(args, System.out, System.err));
+        }
+
         // Initialize main frame.
         new MainFrame();
     }
@@ -0,0 +1,280 @@
+package visualizer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Headless batch mode: load a graph file, run one traversal algorithm from one or many start vertices and
+// stream the results.
+//
+// Nothing here touches Swing or AWT, so the JVM never loads a toolkit. Each result goes out on its own line as
+// start vertex id, a tab and the same text the graph panel would display. Dijkstra's Algorithm runs from
+// several start vertices at once on a pool of worker threads, and can write a distance matrix instead.
+public class BatchRunner {
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = """
+            Usage: java visualizer.ApplicationRunner --graph <file> --algorithm <dfs|bfs|dijkstra|prim|msf> [options]
+
+            Options:
+              --graph <file>          Graph to load: edge list, .csv, DIMACS .gr or .graph snapshot.
+              --format <format>       Read graph as edge-list, csv, dimacs or snapshot instead of guessing from
+                                      the file name.
+              --algorithm <name>      Algorithm to run: dfs, bfs, dijkstra, prim or msf. A minimum spanning
+                                      forest needs no start vertex and is written as one line.
+              --source <ids>          Comma separated start vertex ids.
+              --sources-file <file>   File with one start vertex id per line.
+              --all-sources           Start from every vertex, in vertex id order.
+              --threads <count>       Worker threads for Dijkstra's Algorithm. Defaults to one per core.
+              --matrix                Write Dijkstra's Algorithm results as a CSV distance matrix.
+              --delta <width>         Run Dijkstra's Algorithm by parallel delta-stepping with given bucket
+                                      width, or 0 to pick one from the weights.
+              --output <file>         Write results to file instead of standard output.
+              --help                  Show this message.
+            """;
+
+    private Path graphPath;
+    private String format;
+    private MainFrame.Algorithm algorithm;
+    private final List<String> sourceVertexIds = new ArrayList<>();
+    private Path sourcesPath;
+    private boolean allSources;
+    private Path outputPath;
+    private int deltaSteppingDelta = -1;
+    private int workerCount = Runtime.getRuntime().availableProcessors();
+    private boolean distanceMatrix;
+
+    // Run batch mode with given command line arguments. Returns process exit code.
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            if (!runner.parseArguments(args)) {
+                out.print(USAGE);
+                return EXIT_SUCCESS;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            runner.runAlgorithm(out);
+            return EXIT_SUCCESS;
+        } catch (NoSuchFileException e) {
+            err.println(String.format("Could not find %s.", e.getFile()));
+            return EXIT_FAILURE;
+        } catch (IOException | IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILURE;
+        } catch (OutOfMemoryError e) {
+            err.println("Not enough memory.");
+            return EXIT_FAILURE;
+        } catch (RuntimeException e) {
+            err.println(String.format("Could not run algorithm. %s", e));
+            return EXIT_FAILURE;
+        }
+    }
+
+    // Parse command line arguments. Returns false if only help was asked for.
+    private boolean parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                return false;
+            } else if (option.equals("--all-sources")) {
+                allSources = true;
+                continue;
+            } else if (option.equals("--matrix")) {
+                distanceMatrix = true;
+                continue;
+            }
+
+            // Throw exception if option value is missing.
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(String.format("Option %s needs a value.", option));
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--graph" -> graphPath = Path.of(value);
+                case "--format" -> format = parseFormat(value);
+                case "--algorithm" -> algorithm = parseAlgorithm(value);
+                case "--source" -> {
+                    for (String sourceVertexId : value.split(",")) {
+                        if (!sourceVertexId.isBlank()) {
+                            sourceVertexIds.add(sourceVertexId.trim());
+                        }
+                    }
+                }
+                case "--sources-file" -> sourcesPath = Path.of(value);
+                case "--output" -> outputPath = Path.of(value);
+                case "--delta" -> deltaSteppingDelta = parseDelta(value);
+                case "--threads" -> workerCount = parseWorkerCount(value);
+                default -> throw new IllegalArgumentException(String.format("Unknown option %s.", option));
+            }
+        }
+
+        // Throw exception if something required was left out.
+        if (graphPath == null) {
+            throw new IllegalArgumentException("Graph file is missing.");
+        } else if (algorithm == null) {
+            throw new IllegalArgumentException("Algorithm is missing.");
+        } else if (sourceVertexIds.isEmpty() && (sourcesPath == null) && !allSources
+                && (algorithm != MainFrame.Algorithm.MINIMUM_SPANNING_FOREST)) {
+            throw new IllegalArgumentException("Start vertex is missing.");
+        } else if (distanceMatrix && (algorithm != MainFrame.Algorithm.DIJKSTRAS_ALGORITHM)) {
+            throw new IllegalArgumentException("Distance matrix needs Dijkstra's Algorithm.");
+        } else if (distanceMatrix && (deltaSteppingDelta != -1)) {
+            throw new IllegalArgumentException("Distance matrix cannot be combined with delta-stepping.");
+        }
+        return true;
+    }
+
+    private static String parseFormat(String name) {
+        String format = name.toLowerCase(Locale.ROOT);
+        if (!List.of("edge-list", "csv", "dimacs", "snapshot").contains(format)) {
+            throw new IllegalArgumentException(String.format("Unknown format %s.", name));
+        }
+        return format;
+    }
+
+    private static int parseDelta(String value) {
+        try {
+            int delta = Integer.parseInt(value);
+            if (delta >= 0) {
+                return delta;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to exception below.
+        }
+        throw new IllegalArgumentException(String.format("Delta %s is not a whole number of zero or more.", value));
+    }
+
+    private static int parseWorkerCount(String value) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= 1) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to exception below.
+        }
+        throw new IllegalArgumentException(String.format("Thread count %s is not a whole number of one or more.", value));
+    }
+
+    private static MainFrame.Algorithm parseAlgorithm(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "dfs" -> MainFrame.Algorithm.DEPTH_FIRST_SEARCH;
+            case "bfs" -> MainFrame.Algorithm.BREADTH_FIRST_SEARCH;
+            case "dijkstra" -> MainFrame.Algorithm.DIJKSTRAS_ALGORITHM;
+            case "prim" -> MainFrame.Algorithm.PRIMS_ALGORITHM;
+            case "msf" -> MainFrame.Algorithm.MINIMUM_SPANNING_FOREST;
+            default -> throw new IllegalArgumentException(String.format("Unknown algorithm %s.", name));
+        };
+    }
+
+    // Load graph, then run algorithm from each start vertex and write results as they come.
+    private void runAlgorithm(PrintStream out) throws IOException {
+        // Each result is written once, so caching results would only hold on to memory.
+        Traversal traversal = new Traversal(0);
+        if (deltaSteppingDelta != -1) {
+            traversal.setShortestPathEngine(Traversal.ShortestPathEngine.DELTA_STEPPING, deltaSteppingDelta);
+        }
+        traversal.replaceAdjacencyList(loadGraph());
+
+        // Gather start vertices.
+        if (sourcesPath != null) {
+            for (String line : Files.readAllLines(sourcesPath, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    sourceVertexIds.add(line.trim());
+                }
+            }
+        }
+        if (allSources) {
+            sourceVertexIds.addAll(ShortestPathsBatch.getAllVertexIds(traversal.getSnapshot()));
+        }
+
+        // Throw exception if a start vertex is not in graph, before any results are written. Its results could
+        // not be told apart from those of a vertex without edges.
+        AdjacencySnapshot snapshot = traversal.getSnapshot();
+        for (String sourceVertexId : sourceVertexIds) {
+            if (snapshot.indexOf(sourceVertexId) == -1) {
+                throw new IllegalArgumentException(String.format("Start vertex %s is not in graph.", sourceVertexId));
+            }
+        }
+
+        try (Writer writer = (outputPath != null) ? Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            // Minimum spanning forest covers whole graph, so it is found once.
+            if (algorithm == MainFrame.Algorithm.MINIMUM_SPANNING_FOREST) {
+                traversal.getMinimumSpanningForestResult(TraversalMonitor.NONE).writeLine(writer);
+                writer.write(System.lineSeparator());
+                return;
+            }
+
+            // Run Dijkstra's Algorithm from many start vertices at once, unless each run is parallel already.
+            if ((algorithm == MainFrame.Algorithm.DIJKSTRAS_ALGORITHM) && (deltaSteppingDelta == -1)) {
+                traversal.writeShortestPaths(sourceVertexIds, distanceMatrix ? ShortestPathsBatch.Format.DISTANCE_MATRIX
+                        : ShortestPathsBatch.Format.COST_PAIRS, workerCount, writer, TraversalMonitor.NONE);
+                return;
+            }
+
+            // Run algorithm before starting its line, so a failure leaves no partial line behind.
+            for (String sourceVertexId : sourceVertexIds) {
+                TraversalResult results = runAlgorithm(traversal, sourceVertexId);
+                writer.write(sourceVertexId);
+                writer.write('\t');
+                results.writeLine(writer);
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    // Run algorithm from start vertex. Results are written straight from the result, never built as one string.
+    private TraversalResult runAlgorithm(Traversal traversal, String sourceVertexId) {
+        TraversalMonitor monitor = TraversalMonitor.NONE;
+        return switch (algorithm) {
+            case DEPTH_FIRST_SEARCH -> traversal.getDepthFirstSearchResult(algorithm.abbreviation, sourceVertexId, monitor);
+            case BREADTH_FIRST_SEARCH -> traversal.getBreadthFirstSearchResult(algorithm.abbreviation, sourceVertexId, monitor);
+            case DIJKSTRAS_ALGORITHM -> traversal.getDijkstrasAlgorithmResult(sourceVertexId, monitor);
+            case PRIMS_ALGORITHM -> traversal.getPrimsAlgorithmResult(sourceVertexId, monitor);
+            case MINIMUM_SPANNING_FOREST -> traversal.getMinimumSpanningForestResult(monitor);
+            case NONE -> throw new IllegalArgumentException("No algorithm was chosen.");
+        };
+    }
+
+    // Load graph file in requested format, or in the one its name suggests.
+    private AdjacencyStore loadGraph() throws IOException {
+        String fileName = graphPath.getFileName().toString();
+        String graphFormat = format;
+        if ((graphFormat == null) && fileName.toLowerCase(Locale.ROOT).endsWith("." + GraphSnapshotFile.FILE_EXTENSION)) {
+            graphFormat = "snapshot";
+        }
+        if ("snapshot".equals(graphFormat)) {
+            return GraphSnapshotFile.read(graphPath, TraversalMonitor.NONE).getAdjacencyList();
+        }
+
+        GraphFileReader.Format readerFormat;
+        if (graphFormat == null) {
+            readerFormat = GraphFileReader.Format.forFileName(fileName);
+        } else if (graphFormat.equals("csv")) {
+            readerFormat = GraphFileReader.Format.CSV;
+        } else if (graphFormat.equals("dimacs")) {
+            readerFormat = GraphFileReader.Format.DIMACS;
+        } else {
+            readerFormat = GraphFileReader.Format.EDGE_LIST;
+        }
+        return GraphFileReader.read(graphPath, readerFormat, TraversalMonitor.NONE).toAdjacencyStore();
+    }
+}
@@ -0,0 +1,121 @@
+package visualizer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// Boruvka's algorithm for a minimum spanning forest, with the cheapest edge search run on the common fork/join
+// pool.
+//
+// Every round, each component picks the cheapest edge leaving it, and all picked edges join their components.
+// Workers take chunks of vertices and lower the cheapest edge of both components an edge touches with a
+// compare-and-set, so directed edges count for either side. Joining happens on the calling thread with a
+// union-find, after which component labels are refreshed in parallel. Each round at least halves the number
+// of components that can still grow, so there are at most log2(vertex count) rounds.
+class BoruvkaMinimumSpanningForest {
+    private static final int CHUNK_SIZE = 1024;
+    private static final long NO_EDGE = Long.MAX_VALUE;
+
+    private final AdjacencySnapshot snapshot;
+    private final int vertexCount;
+    private final int[] componentLabels;
+    private final AtomicLongArray cheapestEdgeKeys;
+    private final UnionFind components;
+
+    private BoruvkaMinimumSpanningForest(AdjacencySnapshot snapshot) {
+        this.snapshot = snapshot;
+        vertexCount = snapshot.getVertexCount();
+        componentLabels = new int[vertexCount];
+        cheapestEdgeKeys = new AtomicLongArray(vertexCount);
+        components = new UnionFind(vertexCount);
+    }
+
+    static MinimumSpanningForest search(AdjacencySnapshot snapshot, TraversalMonitor monitor) {
+        return new BoruvkaMinimumSpanningForest(snapshot).search(monitor);
+    }
+
+    private MinimumSpanningForest search(TraversalMonitor monitor) {
+        int[] fromVertices = new int[Math.max(0, vertexCount - 1)];
+        int[] toVertices = new int[fromVertices.length];
+        int[] weights = new int[fromVertices.length];
+        int edgeCount = 0;
+
+        // Start with every vertex on its own.
+        int chunkCount = (vertexCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunkCount).parallel().forEach(this::resetChunk);
+
+        // Join components along their cheapest edges until no component has an edge leaving it.
+        boolean joined = true;
+        while (joined) {
+            monitor.updateNow(edgeCount, vertexCount);
+            IntStream.range(0, chunkCount).parallel().forEach(this::findCheapestEdges);
+
+            joined = false;
+            for (int component = 0; component < vertexCount; component++) {
+                long edgeKey = cheapestEdgeKeys.get(component);
+                if (edgeKey == NO_EDGE) {
+                    continue;
+                }
+
+                // Both components may have picked the same edge. Only the first pick joins them.
+                int slot = (int) edgeKey;
+                int fromVertex = MinimumSpanningForest.getSlotSource(snapshot, slot);
+                int toVertex = snapshot.getTarget(slot);
+                if (components.union(fromVertex, toVertex)) {
+                    fromVertices[edgeCount] = fromVertex;
+                    toVertices[edgeCount] = toVertex;
+                    weights[edgeCount] = snapshot.getWeight(slot);
+                    edgeCount++;
+                    joined = true;
+                }
+            }
+
+            IntStream.range(0, chunkCount).parallel().forEach(this::relabelChunk);
+        }
+        return new MinimumSpanningForest(snapshot, fromVertices, toVertices, weights, edgeCount);
+    }
+
+    private void resetChunk(int chunk) {
+        int chunkEnd = Math.min(vertexCount, (chunk + 1) * CHUNK_SIZE);
+        for (int vertex = chunk * CHUNK_SIZE; vertex < chunkEnd; vertex++) {
+            componentLabels[vertex] = vertex;
+            cheapestEdgeKeys.set(vertex, NO_EDGE);
+        }
+    }
+
+    private void findCheapestEdges(int chunk) {
+        int chunkEnd = Math.min(vertexCount, (chunk + 1) * CHUNK_SIZE);
+        for (int vertex = chunk * CHUNK_SIZE; vertex < chunkEnd; vertex++) {
+            int component = componentLabels[vertex];
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                // Is edge leaving component?
+                int neighborComponent = componentLabels[snapshot.getTarget(slot)];
+                if (neighborComponent == component) {
+                    continue;
+                }
+
+                long edgeKey = MinimumSpanningForest.getEdgeKey(snapshot, slot);
+                lowerCheapestEdgeKey(component, edgeKey);
+                lowerCheapestEdgeKey(neighborComponent, edgeKey);
+            }
+        }
+    }
+
+    private void lowerCheapestEdgeKey(int component, long edgeKey) {
+        long cheapestEdgeKey = cheapestEdgeKeys.get(component);
+        while (edgeKey < cheapestEdgeKey) {
+            if (cheapestEdgeKeys.compareAndSet(component, cheapestEdgeKey, edgeKey)) {
+                return;
+            }
+            cheapestEdgeKey = cheapestEdgeKeys.get(component);
+        }
+    }
+
+    // Point vertices at root of their component and forget last round's cheapest edges.
+    private void relabelChunk(int chunk) {
+        int chunkEnd = Math.min(vertexCount, (chunk + 1) * CHUNK_SIZE);
+        for (int vertex = chunk * CHUNK_SIZE; vertex < chunkEnd; vertex++) {
+            componentLabels[vertex] = components.findWithoutCompressing(vertex);
+            cheapestEdgeKeys.set(vertex, NO_EDGE);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package visualizer;
+
+// Levels and parents found by a breadth first search. Vertices are numbered like in the snapshot searched.
+//
+// The level of a vertex is its number of edges from the start vertex. Its parent is a vertex one level up with
+// an edge to it. When several vertices qualify, which one becomes parent is not defined.
+public class BreadthFirstSearchTree {
+    private final AdjacencySnapshot snapshot;
+    private final int startVertex;
+    private final int[] levels;
+    private final int[] parentVertices;
+    private final int reachedVertexCount;
+    private final int depth;
+
+    BreadthFirstSearchTree(AdjacencySnapshot snapshot, int startVertex, int[] levels, int[] parentVertices, int reachedVertexCount, int depth) {
+        this.snapshot = snapshot;
+        this.startVertex = startVertex;
+        this.levels = levels;
+        this.parentVertices = parentVertices;
+        this.reachedVertexCount = reachedVertexCount;
+        this.depth = depth;
+    }
+
+    public AdjacencySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Get start vertex, or -1 if start vertex id is not in snapshot.
+    public int getStartVertex() {
+        return startVertex;
+    }
+
+    // Get level of vertex, or -1 if it was not reached.
+    public int getLevel(int vertex) {
+        return levels[vertex];
+    }
+
+    // Get parent of vertex, or -1 for start vertex and vertices that were not reached.
+    public int getParent(int vertex) {
+        return parentVertices[vertex];
+    }
+
+    // Get number of vertices reached, start vertex included.
+    public int getReachedVertexCount() {
+        return reachedVertexCount;
+    }
+
+    // Get highest level reached.
+    public int getDepth() {
+        return depth;
+    }
+}
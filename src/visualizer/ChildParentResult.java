@@ -0,0 +1,82 @@
+package visualizer;
+
+// Spanning tree or forest result: parent of every vertex that has one, in vertex id order.
+public class ChildParentResult extends TraversalResult {
+    private final int[] rowVertices;
+    private final int[] rowParentVertices;
+
+    private ChildParentResult(String[] vertexIds, int[] rowVertices, int[] rowParentVertices) {
+        super(vertexIds);
+        this.rowVertices = rowVertices;
+        this.rowParentVertices = rowParentVertices;
+    }
+
+    // Create result from parent array of snapshot, where roots have -1.
+    static ChildParentResult of(AdjacencySnapshot snapshot, int[] parentVertices) {
+        // Count rows. Roots have no row.
+        int rowCount = 0;
+        for (int vertex = 0; vertex < snapshot.getVertexCount(); vertex++) {
+            if (!(parentVertices[vertex] == -1)) {
+                rowCount++;
+            }
+        }
+
+        // Lay out rows in vertex id order.
+        int[] rowVertices = new int[rowCount];
+        int[] rowParentVertices = new int[rowCount];
+        int row = 0;
+        for (int rank = 0; rank < snapshot.getVertexCount(); rank++) {
+            int vertex = snapshot.getVertexByRank(rank);
+            if (!(parentVertices[vertex] == -1)) {
+                rowVertices[row] = vertex;
+                rowParentVertices[row] = parentVertices[vertex];
+                row++;
+            }
+        }
+        return new ChildParentResult(snapshot.getVertexIds(), rowVertices, rowParentVertices);
+    }
+
+    public String getParentVertexId(int row) {
+        return getVertexId(rowParentVertices[row]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowVertices.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return (column == 0) ? "Vertex" : "Parent";
+    }
+
+    @Override
+    public String getValue(int row, int column) {
+        return (column == 0) ? getRowVertexId(row) : getParentVertexId(row);
+    }
+
+    @Override
+    public String getRowVertexId(int row) {
+        return getVertexId(rowVertices[row]);
+    }
+
+    @Override
+    long getRetainedSize() {
+        return 2L * rowVertices.length;
+    }
+
+    @Override
+    String getSeparator() {
+        return ", ";
+    }
+
+    @Override
+    void appendRow(StringBuilder results, int row) {
+        results.append(getRowVertexId(row)).append('=').append(getParentVertexId(row));
+    }
+}
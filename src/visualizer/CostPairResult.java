@@ -0,0 +1,84 @@
+package visualizer;
+
+// Dijkstra's Algorithm result: distance to start vertex for every other vertex, in vertex id order. Vertices
+// that cannot be reached get Integer.MAX_VALUE.
+public class CostPairResult extends TraversalResult {
+    private final int[] rowVertices;
+    private final long[] rowDistances;
+
+    // Create result from rows already laid out in vertex id order.
+    CostPairResult(String[] vertexIds, int[] rowVertices, long[] rowDistances) {
+        super(vertexIds);
+        this.rowVertices = rowVertices;
+        this.rowDistances = rowDistances;
+    }
+
+    // Create result from distance to source array of snapshot.
+    static CostPairResult of(AdjacencySnapshot snapshot, int[] vertexDistances) {
+        // Count rows. Start vertex has no row.
+        int rowCount = 0;
+        for (int vertex = 0; vertex < snapshot.getVertexCount(); vertex++) {
+            if (!(vertexDistances[vertex] == 0)) {
+                rowCount++;
+            }
+        }
+
+        // Lay out rows in vertex id order.
+        int[] rowVertices = new int[rowCount];
+        long[] rowDistances = new long[rowCount];
+        int row = 0;
+        for (int rank = 0; rank < snapshot.getVertexCount(); rank++) {
+            int vertex = snapshot.getVertexByRank(rank);
+            if (!(vertexDistances[vertex] == 0)) {
+                rowVertices[row] = vertex;
+                rowDistances[row] = vertexDistances[vertex];
+                row++;
+            }
+        }
+        return new CostPairResult(snapshot.getVertexIds(), rowVertices, rowDistances);
+    }
+
+    public long getDistance(int row) {
+        return rowDistances[row];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowVertices.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return (column == 0) ? "Vertex" : "Cost";
+    }
+
+    @Override
+    public String getValue(int row, int column) {
+        return (column == 0) ? getRowVertexId(row) : String.valueOf(rowDistances[row]);
+    }
+
+    @Override
+    public String getRowVertexId(int row) {
+        return getVertexId(rowVertices[row]);
+    }
+
+    @Override
+    long getRetainedSize() {
+        return 3L * rowVertices.length;
+    }
+
+    @Override
+    String getSeparator() {
+        return ", ";
+    }
+
+    @Override
+    void appendRow(StringBuilder results, int row) {
+        results.append(getRowVertexId(row)).append('=').append(rowDistances[row]);
+    }
+}
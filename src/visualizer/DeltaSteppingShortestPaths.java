@@ -0,0 +1,226 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+// Delta-stepping single source shortest paths (Meyer and Sanders), run on the common fork/join pool.
+//
+// Vertices wait in buckets of distance width delta. The lowest bucket is emptied in phases: each phase takes
+// the bucket's vertices and relaxes their light edges (weight up to delta) in parallel, which may drop
+// vertices back into the same bucket for the next phase. Once the bucket stays empty, the heavy edges of every
+// vertex it held are relaxed in parallel in one go. Workers lower distances with a compare-and-set, and each
+// collects the vertices it improved so they can be put into buckets between phases.
+//
+// Snapshot rows are sorted by weight, so the light edges of a vertex are a prefix of its row.
+//
+// Distances match Dijkstra's Algorithm for non-negative weights. search() returns null if there are negative
+// weights, so the caller can run Dijkstra's Algorithm instead.
+class DeltaSteppingShortestPaths {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int CHUNK_SIZE = 256;
+    private static final int INITIAL_BUFFER_CAPACITY = 64;
+    private static final int MAXIMUM_BUCKET_COUNT = 1 << 16;
+
+    private final AdjacencySnapshot snapshot;
+    private final int delta;
+    private final AtomicIntegerArray distances;
+
+    // Buckets, reused in a ring. Every distance found while emptying one bucket lands at most
+    // maximumWeight / delta + 1 buckets further, so one bucket more than that is enough.
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private int bucketedVertexCount;
+
+    // Vertices of bucket being emptied: those taken in current phase and all taken since bucket was started.
+    private int[] phaseVertices;
+    private int phaseVertexCount;
+    private int[] bucketVertices;
+    private int bucketVertexCount;
+    private final int[] phaseMarks;
+    private final int[] bucketMarks;
+    private int phase;
+
+    // Vertices improved during a parallel step. Workers add theirs under the search's lock.
+    private int[] improvedVertices;
+    private int improvedVertexCount;
+
+    private DeltaSteppingShortestPaths(AdjacencySnapshot snapshot, int delta, int maximumWeight) {
+        this.snapshot = snapshot;
+        this.delta = delta;
+        int vertexCount = snapshot.getVertexCount();
+        distances = new AtomicIntegerArray(vertexCount);
+        int bucketCount = maximumWeight / delta + 2;
+        buckets = new int[bucketCount][];
+        bucketSizes = new int[bucketCount];
+        phaseVertices = new int[INITIAL_BUFFER_CAPACITY];
+        bucketVertices = new int[INITIAL_BUFFER_CAPACITY];
+        phaseMarks = new int[vertexCount];
+        bucketMarks = new int[vertexCount];
+        improvedVertices = new int[INITIAL_BUFFER_CAPACITY];
+    }
+
+    // Get distance of each vertex from start vertex, or null if any weight is negative. Unreachable vertices
+    // get Integer.MAX_VALUE. A delta of zero picks one from the weights and the average degree. Delta is raised
+    // if the weights would otherwise need more than MAXIMUM_BUCKET_COUNT buckets.
+    static int[] search(AdjacencySnapshot snapshot, int startVertex, int delta, TraversalMonitor monitor) {
+        // Find largest weight. Exit if a weight is negative.
+        int maximumWeight = 0;
+        for (int slot = 0; slot < snapshot.getEdgeCount(); slot++) {
+            int weight = snapshot.getWeight(slot);
+            if (weight < 0) {
+                return null;
+            }
+            maximumWeight = Math.max(maximumWeight, weight);
+        }
+
+        if (delta == 0) {
+            int averageDegree = Math.max(1, snapshot.getEdgeCount() / Math.max(1, snapshot.getVertexCount()));
+            delta = Math.max(1, maximumWeight / averageDegree);
+        }
+        delta = Math.max(delta, maximumWeight / (MAXIMUM_BUCKET_COUNT - 2) + 1);
+        return new DeltaSteppingShortestPaths(snapshot, delta, maximumWeight).search(startVertex, monitor);
+    }
+
+    private int[] search(int startVertex, TraversalMonitor monitor) {
+        int vertexCount = snapshot.getVertexCount();
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            distances.set(vertex, UNREACHABLE);
+        }
+        if (startVertex != -1) {
+            distances.set(startVertex, 0);
+            addToBucket(startVertex);
+        }
+
+        // Empty buckets in distance order.
+        int settledVertexCount = 0;
+        for (int bucketIndex = 0; bucketedVertexCount > 0; bucketIndex++) {
+            int bucket = bucketIndex % buckets.length;
+            if (bucketSizes[bucket] == 0) {
+                continue;
+            }
+
+            // Relax light edges until bucket stays empty.
+            bucketVertexCount = 0;
+            while (takeBucket(bucket, bucketIndex)) {
+                relaxEdges(phaseVertices, phaseVertexCount, true);
+                addImprovedVerticesToBuckets();
+            }
+
+            // Relax heavy edges of every vertex bucket held.
+            relaxEdges(bucketVertices, bucketVertexCount, false);
+            addImprovedVerticesToBuckets();
+
+            settledVertexCount += bucketVertexCount;
+            monitor.updateNow(settledVertexCount, vertexCount);
+        }
+
+        int[] vertexDistances = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            vertexDistances[vertex] = distances.get(vertex);
+        }
+        return vertexDistances;
+    }
+
+    // Move vertices still belonging to bucket into current phase, dropping stale and repeated entries. Returns
+    // false if there were none.
+    private boolean takeBucket(int bucket, int bucketIndex) {
+        phase++;
+        phaseVertexCount = 0;
+        int[] bucketEntries = buckets[bucket];
+        int bucketEntryCount = bucketSizes[bucket];
+        bucketSizes[bucket] = 0;
+        bucketedVertexCount -= bucketEntryCount;
+
+        for (int position = 0; position < bucketEntryCount; position++) {
+            int vertex = bucketEntries[position];
+            if ((distances.get(vertex) / delta != bucketIndex) || (phaseMarks[vertex] == phase)) {
+                continue;
+            }
+            phaseMarks[vertex] = phase;
+            phaseVertices = append(phaseVertices, phaseVertexCount++, vertex);
+
+            // Remember vertex for heavy edges, once per bucket.
+            if (bucketMarks[vertex] != bucketIndex + 1) {
+                bucketMarks[vertex] = bucketIndex + 1;
+                bucketVertices = append(bucketVertices, bucketVertexCount++, vertex);
+            }
+        }
+        return phaseVertexCount > 0;
+    }
+
+    // Relax light or heavy edges of given vertices in parallel, collecting improved vertices.
+    private void relaxEdges(int[] vertices, int vertexCount, boolean light) {
+        improvedVertexCount = 0;
+        int chunkCount = (vertexCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> relaxEdges(vertices, vertexCount, light, chunk));
+    }
+
+    private void relaxEdges(int[] vertices, int vertexCount, boolean light, int chunk) {
+        int[] foundVertices = new int[INITIAL_BUFFER_CAPACITY];
+        int foundVertexCount = 0;
+
+        int chunkEnd = Math.min(vertexCount, (chunk + 1) * CHUNK_SIZE);
+        for (int position = chunk * CHUNK_SIZE; position < chunkEnd; position++) {
+            int vertex = vertices[position];
+            int distance = distances.get(vertex);
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                // Light edges come first in row. Stop at first heavy one, or skip light ones.
+                int weight = snapshot.getWeight(slot);
+                if ((weight <= delta) != light) {
+                    if (light) {
+                        break;
+                    }
+                    continue;
+                }
+
+                // Lower neighbor distance unless another worker got it lower already. Distances past the
+                // largest int are left unreachable, as the heap does.
+                int neighborVertex = snapshot.getTarget(slot);
+                long neighborDistance = (long) distance + weight;
+                int currentDistance = distances.get(neighborVertex);
+                while (neighborDistance < currentDistance) {
+                    if (distances.compareAndSet(neighborVertex, currentDistance, (int) neighborDistance)) {
+                        foundVertices = append(foundVertices, foundVertexCount++, neighborVertex);
+                        break;
+                    }
+                    currentDistance = distances.get(neighborVertex);
+                }
+            }
+        }
+
+        addImprovedVertices(foundVertices, foundVertexCount);
+    }
+
+    // Copy vertices one worker improved into shared list in one block.
+    private synchronized void addImprovedVertices(int[] foundVertices, int foundVertexCount) {
+        if (improvedVertexCount + foundVertexCount > improvedVertices.length) {
+            improvedVertices = Arrays.copyOf(improvedVertices, Math.max(improvedVertices.length * 2, improvedVertexCount + foundVertexCount));
+        }
+        System.arraycopy(foundVertices, 0, improvedVertices, improvedVertexCount, foundVertexCount);
+        improvedVertexCount += foundVertexCount;
+    }
+
+    private void addImprovedVerticesToBuckets() {
+        for (int position = 0; position < improvedVertexCount; position++) {
+            addToBucket(improvedVertices[position]);
+        }
+    }
+
+    private void addToBucket(int vertex) {
+        int bucket = (distances.get(vertex) / delta) % buckets.length;
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new int[INITIAL_BUFFER_CAPACITY];
+        }
+        buckets[bucket] = append(buckets[bucket], bucketSizes[bucket]++, vertex);
+        bucketedVertexCount++;
+    }
+
+    private static int[] append(int[] vertices, int vertexCount, int vertex) {
+        if (vertexCount == vertices.length) {
+            vertices = Arrays.copyOf(vertices, vertices.length * 2);
+        }
+        vertices[vertexCount] = vertex;
+        return vertices;
+    }
+}
@@ -0,0 +1,351 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Shortest path tree from one start vertex, kept up to date while edges are added and removed.
+//
+// Vertices are numbered like in the adjacency store. The tree keeps its own copy of the edges, in both
+// directions, so edits can be repaired without a snapshot. An added edge only lowers distances, so Dijkstra's
+// Algorithm is run from its end vertex alone. A removed edge matters only if it was a tree edge. Then the
+// subtree hanging off it is cut loose, each of its vertices is seeded with its best distance through an edge
+// from outside the subtree, and Dijkstra's Algorithm is run over the subtree alone. Either way the work is
+// proportional to the part of the tree that changed, in the spirit of Ramalingam and Reps.
+//
+// Negative weights break both repairs. While any edge has one, repairs are skipped and hasNegativeWeights()
+// tells callers to run the full algorithm instead. Once the last one is removed, the tree is rebuilt.
+//
+// The tree is not thread safe. Traversal guards it with its own lock.
+class DynamicShortestPaths {
+    private static final int INITIAL_VERTEX_CAPACITY = 16;
+    private static final int INITIAL_EDGE_CAPACITY = 4;
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final String startVertexId;
+    private int startVertex;
+
+    // Vertices, with their order by vertex id.
+    private String[] vertexIds;
+    private int[] vertexOrder;
+    private int vertexCount;
+
+    // Outgoing and incoming edges of each vertex, packed as weight in the high half and neighbor vertex in the
+    // low half.
+    private long[][] outgoingEdges;
+    private int[] outgoingEdgeCounts;
+    private long[][] incomingEdges;
+    private int[] incomingEdgeCounts;
+    private int negativeEdgeCount;
+
+    // Shortest path tree.
+    private long[] distances;
+    private int[] parentVertices;
+
+    // Scratch state for repairs.
+    private IndexedMinHeap unprocessedVerticesHeap;
+    private int[] affectedVertices;
+    private final BitSet affectedVerticesList = new BitSet();
+
+    // Build tree for start vertex on snapshot of graph.
+    DynamicShortestPaths(AdjacencySnapshot snapshot, String startVertexId, TraversalMonitor monitor) {
+        this.startVertexId = startVertexId;
+        vertexCount = snapshot.getVertexCount();
+        allocateVertices(Math.max(INITIAL_VERTEX_CAPACITY, vertexCount));
+
+        // Copy vertices and outgoing edges, counting incoming edges on the way.
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            vertexIds[vertex] = snapshot.getVertexId(vertex);
+            vertexOrder[vertex] = snapshot.getVertexByRank(vertex);
+
+            int edgeStart = snapshot.getEdgeStart(vertex);
+            int edgeCount = snapshot.getEdgeEnd(vertex) - edgeStart;
+            outgoingEdges[vertex] = new long[Math.max(INITIAL_EDGE_CAPACITY, edgeCount)];
+            outgoingEdgeCounts[vertex] = edgeCount;
+            for (int edge = 0; edge < edgeCount; edge++) {
+                int slot = edgeStart + edge;
+                outgoingEdges[vertex][edge] = packEdge(snapshot.getWeight(slot), snapshot.getTarget(slot));
+                incomingEdgeCounts[snapshot.getTarget(slot)]++;
+                if (snapshot.getWeight(slot) < 0) {
+                    negativeEdgeCount++;
+                }
+            }
+        }
+
+        // Copy incoming edges.
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            incomingEdges[vertex] = new long[Math.max(INITIAL_EDGE_CAPACITY, incomingEdgeCounts[vertex])];
+            incomingEdgeCounts[vertex] = 0;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int edge = 0; edge < outgoingEdgeCounts[vertex]; edge++) {
+                long outgoingEdge = outgoingEdges[vertex][edge];
+                int neighborVertex = unpackNeighbor(outgoingEdge);
+                incomingEdges[neighborVertex][incomingEdgeCounts[neighborVertex]++] = packEdge(unpackWeight(outgoingEdge), vertex);
+            }
+        }
+
+        startVertex = snapshot.indexOf(startVertexId);
+        if (!hasNegativeWeights()) {
+            rebuild(monitor);
+        }
+    }
+
+    String getStartVertexId() {
+        return startVertexId;
+    }
+
+    int getVertexCount() {
+        return vertexCount;
+    }
+
+    // Does any edge have a negative weight? Distances are not kept up to date then.
+    boolean hasNegativeWeights() {
+        return negativeEdgeCount > 0;
+    }
+
+    // Add vertex that was added to adjacency store. It is numbered next.
+    void addVertex(String vertexId) {
+        // Grow vertex arrays if they are full.
+        if (vertexCount == vertexIds.length) {
+            int capacity = vertexIds.length * 2;
+            vertexIds = Arrays.copyOf(vertexIds, capacity);
+            vertexOrder = Arrays.copyOf(vertexOrder, capacity);
+            outgoingEdges = Arrays.copyOf(outgoingEdges, capacity);
+            outgoingEdgeCounts = Arrays.copyOf(outgoingEdgeCounts, capacity);
+            incomingEdges = Arrays.copyOf(incomingEdges, capacity);
+            incomingEdgeCounts = Arrays.copyOf(incomingEdgeCounts, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            parentVertices = Arrays.copyOf(parentVertices, capacity);
+            unprocessedVerticesHeap = new IndexedMinHeap(capacity);
+            affectedVertices = new int[capacity];
+        }
+
+        // Slot vertex into vertex id order.
+        int vertex = vertexCount;
+        int low = 0;
+        int high = vertexCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (vertexIds[vertexOrder[middle]].compareTo(vertexId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        System.arraycopy(vertexOrder, low, vertexOrder, low + 1, vertexCount - low);
+        vertexOrder[low] = vertex;
+
+        vertexIds[vertex] = vertexId;
+        outgoingEdges[vertex] = new long[INITIAL_EDGE_CAPACITY];
+        incomingEdges[vertex] = new long[INITIAL_EDGE_CAPACITY];
+        distances[vertex] = UNREACHABLE;
+        parentVertices[vertex] = -1;
+        vertexCount++;
+
+        // Is this the start vertex showing up at last?
+        if ((startVertex == -1) && vertexId.equals(startVertexId)) {
+            startVertex = vertex;
+            distances[vertex] = 0;
+        }
+    }
+
+    // Add edge that was added to adjacency store, lowering distances it offers a shortcut to.
+    void addEdge(int fromVertex, int toVertex, int weight) {
+        long edge = packEdge(weight, toVertex);
+        outgoingEdges[fromVertex] = appendEdge(outgoingEdges[fromVertex], outgoingEdgeCounts[fromVertex]++, edge);
+        incomingEdges[toVertex] = appendEdge(incomingEdges[toVertex], incomingEdgeCounts[toVertex]++, packEdge(weight, fromVertex));
+        if (weight < 0) {
+            negativeEdgeCount++;
+        }
+
+        // Exit if distances are not being kept.
+        if (hasNegativeWeights()) {
+            return;
+        }
+
+        // Does edge offer a shorter distance to its end vertex? Pass it on.
+        if ((distances[fromVertex] != UNREACHABLE) && (distances[fromVertex] + weight < distances[toVertex])) {
+            distances[toVertex] = distances[fromVertex] + weight;
+            parentVertices[toVertex] = fromVertex;
+            unprocessedVerticesHeap.insert(toVertex, distances[toVertex]);
+            processVertices(TraversalMonitor.NONE);
+        }
+    }
+
+    // Remove edge that was removed from adjacency store, repairing distances that went through it.
+    void removeEdge(int fromVertex, int toVertex, int weight) {
+        removeEdge(outgoingEdges[fromVertex], outgoingEdgeCounts[fromVertex]--, packEdge(weight, toVertex));
+        removeEdge(incomingEdges[toVertex], incomingEdgeCounts[toVertex]--, packEdge(weight, fromVertex));
+
+        // Rebuild tree if last negative weight is gone.
+        if (weight < 0) {
+            negativeEdgeCount--;
+            if (!hasNegativeWeights()) {
+                rebuild(TraversalMonitor.NONE);
+            }
+            return;
+        }
+
+        // Exit if distances are not being kept.
+        if (hasNegativeWeights()) {
+            return;
+        }
+
+        // Was edge in tree? (Store removes lightest edge between vertices, so no lighter parallel edge is left.)
+        if ((parentVertices[toVertex] == fromVertex) && (distances[fromVertex] + weight == distances[toVertex])) {
+            repairSubtree(toVertex);
+        }
+    }
+
+    // Get cost pairs in the same form as Traversal.getDijkstrasAlgorithmResult.
+    CostPairResult getCostPairs() {
+        // Count rows. Start vertex has no row.
+        int rowCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (!(distances[vertex] == 0)) {
+                rowCount++;
+            }
+        }
+
+        // Lay out rows in vertex id order.
+        int[] rowVertices = new int[rowCount];
+        long[] rowDistances = new long[rowCount];
+        int row = 0;
+        for (int rank = 0; rank < vertexCount; rank++) {
+            int vertex = vertexOrder[rank];
+            long distance = distances[vertex];
+            if (!(distance == 0)) {
+                rowVertices[row] = vertex;
+                // Distances past the largest int count as unreachable, as in the other engines.
+                rowDistances[row] = (distance >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : distance;
+                row++;
+            }
+        }
+        return new CostPairResult(vertexIds, rowVertices, rowDistances);
+    }
+
+    private void allocateVertices(int capacity) {
+        vertexIds = new String[capacity];
+        vertexOrder = new int[capacity];
+        outgoingEdges = new long[capacity][];
+        outgoingEdgeCounts = new int[capacity];
+        incomingEdges = new long[capacity][];
+        incomingEdgeCounts = new int[capacity];
+        distances = new long[capacity];
+        parentVertices = new int[capacity];
+        unprocessedVerticesHeap = new IndexedMinHeap(capacity);
+        affectedVertices = new int[capacity];
+    }
+
+    // Compute whole tree from scratch.
+    private void rebuild(TraversalMonitor monitor) {
+        Arrays.fill(distances, 0, vertexCount, UNREACHABLE);
+        Arrays.fill(parentVertices, 0, vertexCount, -1);
+        if (startVertex != -1) {
+            distances[startVertex] = 0;
+            unprocessedVerticesHeap.insert(startVertex, 0);
+        }
+        processVertices(monitor);
+    }
+
+    // Cut subtree below vertex loose from tree and reconnect it along its new shortest paths.
+    private void repairSubtree(int rootVertex) {
+        // Gather subtree.
+        int affectedVertexCount = 0;
+        affectedVertices[affectedVertexCount++] = rootVertex;
+        affectedVerticesList.set(rootVertex);
+        for (int position = 0; position < affectedVertexCount; position++) {
+            int vertex = affectedVertices[position];
+            for (int edge = 0; edge < outgoingEdgeCounts[vertex]; edge++) {
+                int childVertex = unpackNeighbor(outgoingEdges[vertex][edge]);
+                if ((parentVertices[childVertex] == vertex) && !affectedVerticesList.get(childVertex)) {
+                    affectedVertices[affectedVertexCount++] = childVertex;
+                    affectedVerticesList.set(childVertex);
+                }
+            }
+        }
+        for (int position = 0; position < affectedVertexCount; position++) {
+            distances[affectedVertices[position]] = UNREACHABLE;
+            parentVertices[affectedVertices[position]] = -1;
+        }
+
+        // Seed each subtree vertex with its best distance through an edge from outside subtree.
+        for (int position = 0; position < affectedVertexCount; position++) {
+            int vertex = affectedVertices[position];
+            for (int edge = 0; edge < incomingEdgeCounts[vertex]; edge++) {
+                long incomingEdge = incomingEdges[vertex][edge];
+                int neighborVertex = unpackNeighbor(incomingEdge);
+                if (affectedVerticesList.get(neighborVertex) || (distances[neighborVertex] == UNREACHABLE)) {
+                    continue;
+                }
+                long distance = distances[neighborVertex] + unpackWeight(incomingEdge);
+                if (distance < distances[vertex]) {
+                    distances[vertex] = distance;
+                    parentVertices[vertex] = neighborVertex;
+                }
+            }
+            if (distances[vertex] != UNREACHABLE) {
+                unprocessedVerticesHeap.insert(vertex, distances[vertex]);
+            }
+        }
+        for (int position = 0; position < affectedVertexCount; position++) {
+            affectedVerticesList.clear(affectedVertices[position]);
+        }
+
+        // Settle subtree. Vertices outside it already have their shortest distances and are never lowered.
+        processVertices(TraversalMonitor.NONE);
+    }
+
+    // Run Dijkstra's Algorithm from vertices in heap until no distance can be lowered.
+    private void processVertices(TraversalMonitor monitor) {
+        int processedVertexCount = 0;
+        while (!unprocessedVerticesHeap.isEmpty()) {
+            // Take unprocessed vertex with smallest distance.
+            int vertex = unprocessedVerticesHeap.removeMin();
+            monitor.update(++processedVertexCount, vertexCount);
+
+            // Lower neighbor distances that vertex offers a shortcut to.
+            for (int edge = 0; edge < outgoingEdgeCounts[vertex]; edge++) {
+                long outgoingEdge = outgoingEdges[vertex][edge];
+                int neighborVertex = unpackNeighbor(outgoingEdge);
+                long distance = distances[vertex] + unpackWeight(outgoingEdge);
+                if (distance < distances[neighborVertex]) {
+                    distances[neighborVertex] = distance;
+                    parentVertices[neighborVertex] = vertex;
+                    unprocessedVerticesHeap.insertOrDecreaseKey(neighborVertex, distance);
+                }
+            }
+        }
+    }
+
+    private static long[] appendEdge(long[] edges, int edgeCount, long edge) {
+        if (edgeCount == edges.length) {
+            edges = Arrays.copyOf(edges, edges.length * 2);
+        }
+        edges[edgeCount] = edge;
+        return edges;
+    }
+
+    // Remove edge by swapping last edge into its position.
+    private static void removeEdge(long[] edges, int edgeCount, long edge) {
+        for (int position = 0; position < edgeCount; position++) {
+            if (edges[position] == edge) {
+                edges[position] = edges[edgeCount - 1];
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Edge is not in shortest path tree.");
+    }
+
+    private static long packEdge(int weight, int neighbor) {
+        return ((long) weight << 32) | (neighbor & 0xFFFFFFFFL);
+    }
+
+    private static int unpackWeight(long edge) {
+        return (int) (edge >> 32);
+    }
+
+    private static int unpackNeighbor(long edge) {
+        return (int) edge;
+    }
+}
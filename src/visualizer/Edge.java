@@ -1,26 +1,28 @@
 package visualizer;
 
-import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.Line2D;
 
-import static java.awt.geom.Line2D.ptLineDistSq;
+import static java.awt.geom.Line2D.ptSegDistSq;
+
+// Undirected edge of the graph scene. Holds end points and weight only; drawing is done either by the graph
+// panel directly or by EdgeComponents and a weight label.
+public class Edge {
+    public static final int CLICK_DISTANCE = 4;
+
+    private static final int LABEL_WIDTH = 40;
+    private static final int LABEL_HEIGHT = 15;
 
-public class Edge extends JComponent {
     private final Vertex start;
     private final Vertex end;
     private final int weight;
-    private Edge reverseEdge;
-    private JLabel label;
+    private Color color;
 
     public Edge(Vertex start, Vertex end, int weight) {
         this.start = start;
         this.end = end;
         this.weight = weight;
-
-        setName(String.format("Edge <%s -> %s>", start.getVertexId(), end.getVertexId()));
-        //setSize(MainFrame.APP_WIDTH, MainFrame.GRAPH_HEIGHT); // Uncomment this line and comment next line to see graph lines.
-        setBounds(getMiddleX() - 1, getMiddleY() - 1, 2, 2); // Give testing robot an area over the graph line to click. It was missing otherwise...
+        setColorNormal();
     }
 
     public String getEdgeId() {
@@ -39,20 +41,22 @@ public class Edge extends JComponent {
         return weight;
     }
 
-    public Edge getReverseEdge() {
-        return reverseEdge;
+    public Color getColor() {
+        return color;
     }
 
-    public void setReverseEdge(Edge reverseEdge) {
-        this.reverseEdge = reverseEdge;
+    public void setColorNormal() {
+        this.color = Color.WHITE;
     }
 
-    public JLabel getLabel() {
-        return label;
+    // Color edge as tried by a playing traversal.
+    public void setColorRelaxed() {
+        this.color = Color.GRAY;
     }
 
-    public void setLabel(JLabel label) {
-        this.label = label;
+    // Color edge as part of tree a playing traversal is growing.
+    public void setColorTree() {
+        this.color = Color.ORANGE;
     }
 
     public int getMiddleX() {
@@ -96,23 +100,67 @@ public class Edge extends JComponent {
         return Math.toDegrees(Math.atan2(dy, dx));
     }
 
+    // Get line between vertex centers.
+    public Line2D getLine() {
+        return new Line2D.Double(start.getCenterX(), start.getCenterY(), end.getCenterX(), end.getCenterY());
+    }
+
+    // Get area of weight label next to middle of edge.
+    public Rectangle getLabelBounds() {
+        // TODO: Could use fine tuning.
+        final int range = 20;
+        int xOffset = 0;
+        int yOffset = 0;
+        Double edgeAngle = getEdgeAngle();
+        // Is line pretty horizontal? (Put label above line.)
+        if ((edgeAngle > -range) && (edgeAngle < range)) {
+            yOffset = -20;
+        } else if ((edgeAngle < -180 + range) || (edgeAngle > 180 - range)) {
+            yOffset = -20;
+        }
+        // Is line pretty vertical? (Put label to right of line.)
+        else if ((edgeAngle > -90 - range) && (edgeAngle < -90 + range)) {
+            xOffset = 10;
+        } else if ((edgeAngle < 90 + range) && (edgeAngle > 90 - range)) {
+            xOffset = 10;
+        }
+        // Line is somewhere in between. (Wing it a little.)
+        else {
+            xOffset = 12;
+            yOffset = -12;
+        }
+
+        return new Rectangle(getMiddleX() + xOffset, getMiddleY() + yOffset, LABEL_WIDTH, LABEL_HEIGHT);
+    }
+
     // Does edge include point?
     public boolean includesPoint(int x, int y) {
-        // Calculate distance between point and nearest point on line.
-        double distance = Math.sqrt(ptLineDistSq(start.getCenterX(), start.getCenterY(), end.getCenterX(), end.getCenterY(), x, y));
+        // Calculate distance between point and nearest point on line segment.
+        double distance = Math.sqrt(ptSegDistSq(start.getCenterX(), start.getCenterY(), end.getCenterX(), end.getCenterY(), x, y));
         // Is distance within an acceptable amount?
-        return (distance <= 4.0);
+        return (distance <= CLICK_DISTANCE);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+    // Draw edge line in world coordinates.
+    public void draw(Graphics2D g2d) {
+        g2d.setColor(color);
+        g2d.setStroke(new BasicStroke(2.0F));
+        g2d.draw(getLine());
+    }
 
-        Line2D line = new Line2D.Double(start.getCenterX(), start.getCenterY(), end.getCenterX(), end.getCenterY());
+    // Draw edge as a one pixel line in screen coordinates of viewport, for when it is zoomed out too far for
+    // its stroke.
+    public void drawThin(Graphics2D g2d, Viewport viewport) {
+        g2d.setColor(color);
+        g2d.drawLine((int) viewport.toScreenX(start.getCenterX()), (int) viewport.toScreenY(start.getCenterY()),
+                (int) viewport.toScreenX(end.getCenterX()), (int) viewport.toScreenY(end.getCenterY()));
+    }
 
-        Graphics2D g2d = (Graphics2D) g;
+    // Draw weight label in world coordinates.
+    public void drawLabel(Graphics2D g2d) {
+        Rectangle labelBounds = getLabelBounds();
+        FontMetrics fontMetrics = g2d.getFontMetrics();
         g2d.setColor(Color.WHITE);
-        g2d.setStroke(new BasicStroke(2.0F));
-        g2d.draw(line);
+        g2d.drawString(String.valueOf(weight), labelBounds.x, labelBounds.y + (labelBounds.height + fontMetrics.getAscent() - fontMetrics.getDescent()) / 2);
     }
 }
@@ -0,0 +1,41 @@
+package visualizer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Line2D;
+
+// Named Swing component for one direction of an edge, used when the graph panel renders with one component
+// per vertex and edge. The testing robot finds edges by these component names, and expects one for each
+// direction.
+public class EdgeComponent extends JComponent {
+    private final Edge edge;
+    private final Vertex start;
+    private final Vertex end;
+
+    public EdgeComponent(Edge edge, boolean reversed) {
+        this.edge = edge;
+        this.start = reversed ? edge.getEnd() : edge.getStart();
+        this.end = reversed ? edge.getStart() : edge.getEnd();
+
+        setName(String.format("Edge <%s -> %s>", start.getVertexId(), end.getVertexId()));
+        //setSize(MainFrame.APP_WIDTH, MainFrame.GRAPH_HEIGHT); // Uncomment this line and comment next line to see graph lines.
+        setBounds(getClickBounds(edge)); // Give testing robot an area over the graph line to click. It was missing otherwise...
+    }
+
+    // Get area over middle of edge line.
+    public static Rectangle getClickBounds(Edge edge) {
+        return new Rectangle(edge.getMiddleX() - 1, edge.getMiddleY() - 1, 2, 2);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        Line2D line = new Line2D.Double(start.getCenterX(), start.getCenterY(), end.getCenterX(), end.getCenterY());
+
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setColor(edge.getColor());
+        g2d.setStroke(new BasicStroke(2.0F));
+        g2d.draw(line);
+    }
+}
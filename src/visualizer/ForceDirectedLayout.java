@@ -0,0 +1,514 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+// Multilevel force-directed layout in the style of Fruchterman and Reingold, with Barnes-Hut repulsion.
+//
+// Every vertex pushes every other away and edges pull their ends together. Each iteration files all vertices
+// into a quadtree holding the mass and center of mass of every square, so a vertex feels a far away square as
+// one body and repulsion costs O(n log n) instead of O(n^2). Forces are summed for chunks of vertices on the
+// common fork/join pool, each worker reading the positions of the last iteration and writing only positions of
+// its own chunk. Steps are capped by a temperature that cools every iteration.
+//
+// Forces alone fold large graphs over themselves, so the graph is first coarsened by merging each vertex with a
+// neighbor until only a few vertices are left. The coarsest graph is laid out from scratch; every finer graph
+// starts with its vertices next to the vertex they were merged into and only needs a short cool down. Copies
+// of the positions are handed out every so often, vertices of coarse levels sharing the position of the vertex
+// they were merged into.
+class ForceDirectedLayout {
+    // Preferred edge length.
+    static final double SPRING_LENGTH = 2 * Vertex.VERTEX_DIAMETER;
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final int COARSEST_VERTEX_COUNT = 100;
+    // Coarsening stops once a level keeps more than this share of the vertices of the level below.
+    private static final double MINIMUM_COARSENING = 0.8;
+
+    private static final int MAXIMUM_COARSEST_ITERATIONS = 300;
+    private static final double COARSEST_COOLING = 0.95;
+    private static final int MAXIMUM_REFINING_ITERATIONS = 30;
+    private static final double REFINING_COOLING = 0.85;
+    private static final double FINAL_TEMPERATURE = SPRING_LENGTH / 100;
+
+    // Squares seen at an angle narrower than this count as one body.
+    private static final double OPENING_ANGLE = 1.0;
+
+    // Depth after which coincident vertices share one square instead of splitting it further.
+    private static final int MAXIMUM_DEPTH = 40;
+
+    private static final int MINIMUM_PUBLISH_MILLISECONDS = 100;
+    private static final int PUBLISH_TIME_SHARE = 4;
+
+    // Graph of each level, finest first, with edges as offsets into target lists. Parents map vertices of a
+    // level to the vertex of the next coarser level they were merged into.
+    private final int[] levelVertexCounts;
+    private final int[][] levelOffsets;
+    private final int[][] levelTargets;
+    private final int[][] levelParents;
+
+    // Level being laid out, and positions of its vertices.
+    private int level;
+    private int vertexCount;
+    private int[] offsets;
+    private int[] targets;
+    private float[] xs;
+    private float[] ys;
+    private float[] nextXs;
+    private float[] nextYs;
+    private double temperature;
+
+    // Total distance vertices moved in last iteration, per chunk.
+    private double[] chunkMovements;
+
+    // Quadtree as flat arrays. Each split square has four consecutive children starting at firstChild; others
+    // have -1 there and hold one vertex, or none if their mass is zero.
+    private int nodeCount;
+    private int[] firstChild;
+    private int[] nodeVertex;
+    private int[] mass;
+    private double[] massX;
+    private double[] massY;
+    private double[] nodeCenterX;
+    private double[] nodeCenterY;
+    private double[] nodeHalfSize;
+
+    private final float[] startXs;
+    private final float[] startYs;
+    private long nextPublishTime;
+
+    // Prepare layout of snapshot vertices from given positions, indexed by vertex number. Positions are copied.
+    ForceDirectedLayout(AdjacencySnapshot snapshot, float[] xs, float[] ys) {
+        int snapshotVertexCount = snapshot.getVertexCount();
+        if ((xs.length < snapshotVertexCount) || (ys.length < snapshotVertexCount)) {
+            throw new IllegalArgumentException("Every vertex needs a position.");
+        }
+        startXs = Arrays.copyOf(xs, snapshotVertexCount);
+        startYs = Arrays.copyOf(ys, snapshotVertexCount);
+
+        // Copy snapshot edges without self loops as finest level.
+        int[] finestOffsets = new int[snapshotVertexCount + 1];
+        int[] finestTargets = new int[snapshot.getEdgeCount()];
+        int slotCount = 0;
+        for (int vertex = 0; vertex < snapshotVertexCount; vertex++) {
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                if (snapshot.getTarget(slot) != vertex) {
+                    finestTargets[slotCount++] = snapshot.getTarget(slot);
+                }
+            }
+            finestOffsets[vertex + 1] = slotCount;
+        }
+
+        // Coarsen until few vertices are left or merging stops paying off.
+        int[] vertexCounts = new int[64];
+        int[][] offsetLists = new int[64][];
+        int[][] targetLists = new int[64][];
+        int[][] parentLists = new int[64][];
+        vertexCounts[0] = snapshotVertexCount;
+        offsetLists[0] = finestOffsets;
+        targetLists[0] = finestTargets;
+        int levelCount = 1;
+        while ((vertexCounts[levelCount - 1] > COARSEST_VERTEX_COUNT) && (levelCount < vertexCounts.length)) {
+            int fineLevel = levelCount - 1;
+            int[] parents = new int[vertexCounts[fineLevel]];
+            int coarseVertexCount = matchNeighbors(vertexCounts[fineLevel], offsetLists[fineLevel], targetLists[fineLevel], parents);
+            if (coarseVertexCount > MINIMUM_COARSENING * vertexCounts[fineLevel]) {
+                break;
+            }
+            parentLists[fineLevel] = parents;
+            vertexCounts[levelCount] = coarseVertexCount;
+            offsetLists[levelCount] = new int[coarseVertexCount + 1];
+            targetLists[levelCount] = mergeEdges(vertexCounts[fineLevel], offsetLists[fineLevel], targetLists[fineLevel], parents,
+                    coarseVertexCount, offsetLists[levelCount]);
+            levelCount++;
+        }
+        levelVertexCounts = Arrays.copyOf(vertexCounts, levelCount);
+        levelOffsets = Arrays.copyOf(offsetLists, levelCount);
+        levelTargets = Arrays.copyOf(targetLists, levelCount);
+        levelParents = Arrays.copyOf(parentLists, levelCount);
+
+        int nodeCapacity = Math.max(16, 2 * snapshotVertexCount);
+        firstChild = new int[nodeCapacity];
+        nodeVertex = new int[nodeCapacity];
+        mass = new int[nodeCapacity];
+        massX = new double[nodeCapacity];
+        massY = new double[nodeCapacity];
+        nodeCenterX = new double[nodeCapacity];
+        nodeCenterY = new double[nodeCapacity];
+        nodeHalfSize = new double[nodeCapacity];
+    }
+
+    // Get number of graphs laid out in turn, original graph included.
+    int getLevelCount() {
+        return levelVertexCounts.length;
+    }
+
+    // Run layout from coarsest level to original graph. Copies of positions go to publisher now and then and
+    // once at the end, on this thread, with the time spent publishing kept to a fraction of the time spent
+    // laying out. Throws CancellationException if monitor is cancelled.
+    void run(BiConsumer<float[], float[]> publisher, TraversalMonitor monitor) {
+        nextPublishTime = System.nanoTime() + MINIMUM_PUBLISH_MILLISECONDS * 1_000_000L;
+
+        // Start coarsest level from centers of given positions of vertices merged into each of its vertices,
+        // shrunk to the area its number of vertices needs.
+        startLevel(levelVertexCounts.length - 1);
+        float[] vertexMasses = new float[vertexCount];
+        for (int vertex = 0; vertex < startXs.length; vertex++) {
+            int coarseVertex = getAncestor(vertex, level);
+            xs[coarseVertex] += startXs[vertex];
+            ys[coarseVertex] += startYs[vertex];
+            vertexMasses[coarseVertex]++;
+        }
+        double shrink = Math.sqrt((double) vertexCount / Math.max(1, startXs.length));
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            xs[vertex] = (float) (xs[vertex] / Math.max(1, vertexMasses[vertex]) * shrink);
+            ys[vertex] = (float) (ys[vertex] / Math.max(1, vertexMasses[vertex]) * shrink);
+        }
+        spreadCoincidentVertices();
+        temperature = Math.max(SPRING_LENGTH, SPRING_LENGTH * Math.sqrt(vertexCount));
+        coolDown(MAXIMUM_COARSEST_ITERATIONS, COARSEST_COOLING, publisher, monitor);
+
+        // Place vertices of each finer level at vertex they were merged into, leaving each level's layout the
+        // area its number of vertices needs, and refine.
+        while (level > 0) {
+            float[] coarseXs = xs;
+            float[] coarseYs = ys;
+            int[] parents = levelParents[level - 1];
+            double spread = Math.sqrt((double) levelVertexCounts[level - 1] / levelVertexCounts[level]);
+            startLevel(level - 1);
+            SplittableRandom random = new SplittableRandom(level);
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                xs[vertex] = (float) (coarseXs[parents[vertex]] * spread + (random.nextDouble() - 0.5) * SPRING_LENGTH / 2);
+                ys[vertex] = (float) (coarseYs[parents[vertex]] * spread + (random.nextDouble() - 0.5) * SPRING_LENGTH / 2);
+            }
+            temperature = SPRING_LENGTH;
+            coolDown(MAXIMUM_REFINING_ITERATIONS, REFINING_COOLING, publisher, monitor);
+        }
+        publisher.accept(xs.clone(), ys.clone());
+    }
+
+    private void startLevel(int level) {
+        this.level = level;
+        vertexCount = levelVertexCounts[level];
+        offsets = levelOffsets[level];
+        targets = levelTargets[level];
+        xs = new float[vertexCount];
+        ys = new float[vertexCount];
+        nextXs = new float[vertexCount];
+        nextYs = new float[vertexCount];
+        chunkMovements = new double[(vertexCount + CHUNK_SIZE - 1) / CHUNK_SIZE];
+    }
+
+    // Move vertices of current level until cold or until they hardly move.
+    private void coolDown(int maximumIterations, double cooling, BiConsumer<float[], float[]> publisher, TraversalMonitor monitor) {
+        int levelCount = levelVertexCounts.length;
+        for (int iteration = 0; (iteration < maximumIterations) && (temperature > FINAL_TEMPERATURE); iteration++) {
+            monitor.updateNow((levelCount - 1 - level) * maximumIterations + iteration, levelCount * maximumIterations);
+            double movement = step();
+            temperature *= cooling;
+            if (movement < FINAL_TEMPERATURE * vertexCount) {
+                break;
+            }
+
+            if (System.nanoTime() >= nextPublishTime) {
+                long publishStart = System.nanoTime();
+                publish(publisher);
+                long publishTime = System.nanoTime() - publishStart;
+                nextPublishTime = System.nanoTime() + Math.max(MINIMUM_PUBLISH_MILLISECONDS * 1_000_000L, PUBLISH_TIME_SHARE * publishTime);
+            }
+        }
+    }
+
+    // Hand out positions of original vertices, each at vertex of current level it was merged into. Coarse
+    // levels are spread to the area of the original graph.
+    private void publish(BiConsumer<float[], float[]> publisher) {
+        double spread = Math.sqrt((double) levelVertexCounts[0] / vertexCount);
+        float[] publishedXs = new float[levelVertexCounts[0]];
+        float[] publishedYs = new float[levelVertexCounts[0]];
+        for (int vertex = 0; vertex < publishedXs.length; vertex++) {
+            int ancestor = getAncestor(vertex, level);
+            publishedXs[vertex] = (float) (xs[ancestor] * spread);
+            publishedYs[vertex] = (float) (ys[ancestor] * spread);
+        }
+        publisher.accept(publishedXs, publishedYs);
+    }
+
+    // Get vertex of given level that original vertex was merged into.
+    private int getAncestor(int vertex, int level) {
+        for (int ancestorLevel = 0; ancestorLevel < level; ancestorLevel++) {
+            vertex = levelParents[ancestorLevel][vertex];
+        }
+        return vertex;
+    }
+
+    // Move vertices sharing a position apart, which forces alone cannot do.
+    private void spreadCoincidentVertices() {
+        SplittableRandom random = new SplittableRandom(0);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            xs[vertex] += (float) ((random.nextDouble() - 0.5) * SPRING_LENGTH);
+            ys[vertex] += (float) ((random.nextDouble() - 0.5) * SPRING_LENGTH);
+        }
+    }
+
+    // Merge each vertex with a neighbor not merged yet, preferring neighbors with fewest edges so hubs do not
+    // swallow their surroundings. Vertices whose neighbors are all taken join the merged vertex of one of them,
+    // and vertices without edges are merged in pairs, so stars and scattered vertices coarsen too. Fills in
+    // parent of every vertex and returns number of merged vertices.
+    private static int matchNeighbors(int vertexCount, int[] offsets, int[] targets, int[] parents) {
+        Arrays.fill(parents, -1);
+        int coarseVertexCount = 0;
+        int unpairedVertex = -1;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (parents[vertex] != -1) {
+                continue;
+            }
+            int partner = -1;
+            int takenNeighbor = -1;
+            for (int slot = offsets[vertex]; slot < offsets[vertex + 1]; slot++) {
+                int target = targets[slot];
+                if (target == vertex) {
+                    continue;
+                }
+                if (parents[target] != -1) {
+                    takenNeighbor = target;
+                } else if ((partner == -1) || (offsets[target + 1] - offsets[target] < offsets[partner + 1] - offsets[partner])) {
+                    partner = target;
+                }
+            }
+
+            if (partner != -1) {
+                parents[vertex] = coarseVertexCount;
+                parents[partner] = coarseVertexCount++;
+            } else if (takenNeighbor != -1) {
+                parents[vertex] = parents[takenNeighbor];
+            } else if (unpairedVertex != -1) {
+                parents[vertex] = parents[unpairedVertex];
+                unpairedVertex = -1;
+            } else {
+                parents[vertex] = coarseVertexCount++;
+                unpairedVertex = vertex;
+            }
+        }
+        return coarseVertexCount;
+    }
+
+    // Get edges between merged vertices, dropping edges inside one merged vertex and repeated edges. Fills in
+    // coarse offsets and returns coarse targets.
+    private static int[] mergeEdges(int vertexCount, int[] offsets, int[] targets, int[] parents, int coarseVertexCount, int[] coarseOffsets) {
+        // Collect edges of each merged vertex.
+        int[] slotCounts = new int[coarseVertexCount + 1];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int slot = offsets[vertex]; slot < offsets[vertex + 1]; slot++) {
+                if (parents[targets[slot]] != parents[vertex]) {
+                    slotCounts[parents[vertex] + 1]++;
+                }
+            }
+        }
+        for (int coarseVertex = 0; coarseVertex < coarseVertexCount; coarseVertex++) {
+            slotCounts[coarseVertex + 1] += slotCounts[coarseVertex];
+        }
+        int[] mergedTargets = new int[slotCounts[coarseVertexCount]];
+        int[] fillPositions = Arrays.copyOf(slotCounts, coarseVertexCount);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int slot = offsets[vertex]; slot < offsets[vertex + 1]; slot++) {
+                if (parents[targets[slot]] != parents[vertex]) {
+                    mergedTargets[fillPositions[parents[vertex]]++] = parents[targets[slot]];
+                }
+            }
+        }
+
+        // Drop repeats.
+        int slotCount = 0;
+        for (int coarseVertex = 0; coarseVertex < coarseVertexCount; coarseVertex++) {
+            Arrays.sort(mergedTargets, slotCounts[coarseVertex], slotCounts[coarseVertex + 1]);
+            coarseOffsets[coarseVertex] = slotCount;
+            for (int slot = slotCounts[coarseVertex]; slot < slotCounts[coarseVertex + 1]; slot++) {
+                if ((slot == slotCounts[coarseVertex]) || (mergedTargets[slot] != mergedTargets[slot - 1])) {
+                    mergedTargets[slotCount++] = mergedTargets[slot];
+                }
+            }
+        }
+        coarseOffsets[coarseVertexCount] = slotCount;
+        return Arrays.copyOf(mergedTargets, slotCount);
+    }
+
+    // Move every vertex of current level once. Returns total distance moved.
+    private double step() {
+        buildQuadtree();
+        IntStream.range(0, chunkMovements.length).parallel().forEach(this::moveChunk);
+
+        float[] swappedXs = xs;
+        float[] swappedYs = ys;
+        xs = nextXs;
+        ys = nextYs;
+        nextXs = swappedXs;
+        nextYs = swappedYs;
+
+        double movement = 0;
+        for (double chunkMovement : chunkMovements) {
+            movement += chunkMovement;
+        }
+        return movement;
+    }
+
+    // Sum forces on vertices of chunk and step each along its force, no further than temperature allows.
+    private void moveChunk(int chunk) {
+        final double springLengthSquared = SPRING_LENGTH * SPRING_LENGTH;
+        int[] stack = new int[3 * MAXIMUM_DEPTH + 4];
+        double chunkMovement = 0;
+        int chunkEnd = Math.min(vertexCount, (chunk + 1) * CHUNK_SIZE);
+        for (int vertex = chunk * CHUNK_SIZE; vertex < chunkEnd; vertex++) {
+            double x = xs[vertex];
+            double y = ys[vertex];
+            double forceX = 0;
+            double forceY = 0;
+
+            // Repulsion falls off with distance: mass * springLength^2 / distance.
+            int stackSize = 0;
+            stack[stackSize++] = 0;
+            while (stackSize > 0) {
+                int node = stack[--stackSize];
+                if ((mass[node] == 0) || (nodeVertex[node] == vertex)) {
+                    continue;
+                }
+                double dx = x - massX[node];
+                double dy = y - massY[node];
+                double distanceSquared = dx * dx + dy * dy;
+                double size = 2 * nodeHalfSize[node];
+                if ((firstChild[node] == -1) || (size * size < OPENING_ANGLE * OPENING_ANGLE * distanceSquared)) {
+                    if (distanceSquared > 0) {
+                        double push = mass[node] * springLengthSquared / distanceSquared;
+                        forceX += push * dx;
+                        forceY += push * dy;
+                    }
+                } else {
+                    for (int child = firstChild[node]; child < firstChild[node] + 4; child++) {
+                        stack[stackSize++] = child;
+                    }
+                }
+            }
+
+            // Attraction grows with distance: distance^2 / springLength.
+            for (int slot = offsets[vertex]; slot < offsets[vertex + 1]; slot++) {
+                int target = targets[slot];
+                double dx = xs[target] - x;
+                double dy = ys[target] - y;
+                double pull = Math.sqrt(dx * dx + dy * dy) / SPRING_LENGTH;
+                forceX += pull * dx;
+                forceY += pull * dy;
+            }
+
+            // Step along force, no further than temperature.
+            double force = Math.sqrt(forceX * forceX + forceY * forceY);
+            double stepLength = Math.min(force, temperature);
+            if (force > 0) {
+                x += forceX / force * stepLength;
+                y += forceY / force * stepLength;
+            }
+            nextXs[vertex] = (float) x;
+            nextYs[vertex] = (float) y;
+            chunkMovement += stepLength;
+        }
+        chunkMovements[chunk] = chunkMovement;
+    }
+
+    // File every vertex of current level into a fresh quadtree over their bounding square.
+    private void buildQuadtree() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            minX = Math.min(minX, xs[vertex]);
+            minY = Math.min(minY, ys[vertex]);
+            maxX = Math.max(maxX, xs[vertex]);
+            maxY = Math.max(maxY, ys[vertex]);
+        }
+
+        nodeCount = 0;
+        int root = addNode((minX + maxX) / 2, (minY + maxY) / 2, Math.max(Math.max(maxX - minX, maxY - minY), 1) / 2);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            insert(root, vertex);
+        }
+
+        // Turn mass weighted sums into centers of mass.
+        for (int node = 0; node < nodeCount; node++) {
+            if (mass[node] > 0) {
+                massX[node] /= mass[node];
+                massY[node] /= mass[node];
+            }
+        }
+    }
+
+    private void insert(int root, int vertex) {
+        double x = xs[vertex];
+        double y = ys[vertex];
+        int node = root;
+        for (int depth = 0; ; depth++) {
+            mass[node]++;
+            massX[node] += x;
+            massY[node] += y;
+            if (firstChild[node] == -1) {
+                // Take vertex into empty square.
+                if (mass[node] == 1) {
+                    nodeVertex[node] = vertex;
+                    return;
+                }
+                // Keep coincident vertices together once square is tiny.
+                if (depth == MAXIMUM_DEPTH) {
+                    nodeVertex[node] = -1;
+                    return;
+                }
+
+                // Split square and move vertex it held into its child.
+                int heldVertex = nodeVertex[node];
+                nodeVertex[node] = -1;
+                split(node);
+                int heldChild = getChild(node, xs[heldVertex], ys[heldVertex]);
+                mass[heldChild] = 1;
+                massX[heldChild] = xs[heldVertex];
+                massY[heldChild] = ys[heldVertex];
+                nodeVertex[heldChild] = heldVertex;
+            }
+            node = getChild(node, x, y);
+        }
+    }
+
+    private void split(int node) {
+        double halfSize = nodeHalfSize[node] / 2;
+        firstChild[node] = addNode(nodeCenterX[node] - halfSize, nodeCenterY[node] - halfSize, halfSize);
+        addNode(nodeCenterX[node] + halfSize, nodeCenterY[node] - halfSize, halfSize);
+        addNode(nodeCenterX[node] - halfSize, nodeCenterY[node] + halfSize, halfSize);
+        addNode(nodeCenterX[node] + halfSize, nodeCenterY[node] + halfSize, halfSize);
+    }
+
+    private int getChild(int node, double x, double y) {
+        return firstChild[node] + ((x >= nodeCenterX[node]) ? 1 : 0) + ((y >= nodeCenterY[node]) ? 2 : 0);
+    }
+
+    private int addNode(double centerX, double centerY, double halfSize) {
+        if (nodeCount == firstChild.length) {
+            int nodeCapacity = 2 * nodeCount;
+            firstChild = Arrays.copyOf(firstChild, nodeCapacity);
+            nodeVertex = Arrays.copyOf(nodeVertex, nodeCapacity);
+            mass = Arrays.copyOf(mass, nodeCapacity);
+            massX = Arrays.copyOf(massX, nodeCapacity);
+            massY = Arrays.copyOf(massY, nodeCapacity);
+            nodeCenterX = Arrays.copyOf(nodeCenterX, nodeCapacity);
+            nodeCenterY = Arrays.copyOf(nodeCenterY, nodeCapacity);
+            nodeHalfSize = Arrays.copyOf(nodeHalfSize, nodeCapacity);
+        }
+        int node = nodeCount++;
+        firstChild[node] = -1;
+        nodeVertex[node] = -1;
+        mass[node] = 0;
+        massX[node] = 0;
+        massY[node] = 0;
+        nodeCenterX[node] = centerX;
+        nodeCenterY[node] = centerY;
+        nodeHalfSize[node] = halfSize;
+        return node;
+    }
+}
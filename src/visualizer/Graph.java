@@ -2,22 +2,89 @@ package visualizer;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Graph extends JPanel {
+    public enum RenderMode {
+        // One named Swing component per vertex, edge direction and weight label. Needed by the testing robot.
+        COMPONENTS,
+        // Everything drawn by the graph panel in one paint pass from the scene model.
+        CANVAS
+    }
+
+    private static final int DRAMATIC_PAUSE_MILLISECONDS = 1000;
+    private static final int SPATIAL_GRID_CELL_SIZE = 64;
+    private static final int EDGE_STROKE_REACH = 2;
+    private static final int EDGE_LABEL_REACH = 60;
+    private static final int MAXIMUM_DRAWN_IMPORT_VERTICES = 50;
+    private static final int DEFAULT_PLAYBACK_FRAME_RATE = 10;
+    private static final double ZOOM_STEP = 1.25;
+    private static final int FIT_MARGIN = Vertex.VERTEX_DIAMETER;
+
     private final MainFrame mainFrame;
 
+    private final Traversal traversal = new Traversal();
+
+    // Background threads for traversal algorithms and imports. Only touched from event dispatch thread.
+    private final ExecutorService algorithmExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Traversal");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> runningAlgorithm;
+    private TraversalMonitor runningAlgorithmMonitor;
+
+    // Monitor of running task if it is a full run of Dijkstra's Algorithm for live shortest paths.
+    private TraversalMonitor liveShortestPathsRefreshMonitor;
+
     private HashMap<String, Vertex> vertexList = new HashMap<>();
     private HashMap<String, Edge> edgeList = new HashMap<>();
+    private final SpatialGrid<Vertex> vertexGrid = new SpatialGrid<>(SPATIAL_GRID_CELL_SIZE);
+    private final SpatialGrid<Edge> edgeGrid = new SpatialGrid<>(SPATIAL_GRID_CELL_SIZE);
     private String firstEdgeVertexId;
     private String secondEdgeVertexId;
 
+    private RenderMode renderMode = RenderMode.COMPONENTS;
+
+    // Is adjacency list holding an imported graph too large to draw with a Vertex and Edge per element?
+    private boolean sceneOmitted;
+
+    // Drawing of omitted scene, or null if scene is not omitted.
+    private LargeGraphScene largeScene;
+
+    // World to screen transform of panel. Zooming and panning are part of single canvas rendering; named
+    // components always sit one to one, through unscaledViewport. Large scenes are always drawn through
+    // viewport, fitted to the panel when they are loaded.
+    private final Viewport viewport = new Viewport();
+    private final Viewport unscaledViewport = new Viewport();
+    private Point dragPoint;
+
+    // Should next large scene published by running layout be fitted to panel?
+    private boolean layoutFitPending;
+
+    // Named components of each vertex and edge in component render mode.
+    private final HashMap<Object, JComponent[]> namedComponents = new HashMap<>();
+
+    // Area waiting to be repainted, or null if nothing is pending.
+    private Rectangle damagedRegion;
+
+    // Traversal being played back on scene, or null if scene shows no traversal.
+    private TraversalPlayback playback;
+    private int playbackFrameRate = DEFAULT_PLAYBACK_FRAME_RATE;
+
     public Graph(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
 
@@ -26,30 +93,124 @@ public class Graph extends JPanel {
         setBackground(Color.BLACK);
         setLayout(null);
 
-        addMouseListener(new GraphPanelClickListener());
+        GraphPanelClickListener clickListener = new GraphPanelClickListener();
+        addMouseListener(clickListener);
+        addMouseMotionListener(clickListener);
+        addMouseWheelListener(clickListener);
     }
 
     // Reset graph panel.
     public void resetPanel() {
+        cancelAlgorithm();
         vertexList = new HashMap<>();
         edgeList = new HashMap<>();
+        vertexGrid.clear();
+        edgeGrid.clear();
         resetEdgeVertices();
         removeAll();
+        namedComponents.clear();
+        sceneOmitted = false;
+        largeScene = null;
+        viewport.reset();
+        repaintPanel();
+
+        // Reset vertex adjacency list.
+        traversal.resetAdjacencyList();
+    }
+
+    // Is graph too large to be drawn? Algorithms then need their starting vertex id typed in.
+    public boolean isSceneOmitted() {
+        return sceneOmitted;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    // Switch render mode, rebuilding named components as needed.
+    public void setRenderMode(RenderMode renderMode) {
+        if (this.renderMode == renderMode) {
+            return;
+        }
+        this.renderMode = renderMode;
+
+        // Drop named components and recreate them if they are wanted.
+        removeAll();
+        namedComponents.clear();
+        if (renderMode == RenderMode.COMPONENTS) {
+            for (Vertex vertex : vertexList.values()) {
+                addVertexComponents(vertex);
+            }
+            for (Edge edge : edgeList.values()) {
+                addEdgeComponents(edge);
+            }
+        }
         repaintPanel();
     }
 
+    // Go back to showing the whole large scene, or to drawing the scene one to one.
+    public void resetZoom() {
+        if (largeScene != null) {
+            viewport.fit(largeScene.getBounds(), getWidth(), getHeight(), FIT_MARGIN);
+        } else {
+            viewport.reset();
+        }
+        repaintPanel();
+    }
+
+    // Get transform of scene as drawn in current render mode.
+    private Viewport getSceneViewport() {
+        return (renderMode == RenderMode.CANVAS) ? viewport : unscaledViewport;
+    }
+
+    // Can scene be zoomed and panned in current render mode?
+    private boolean isZoomable() {
+        return (renderMode == RenderMode.CANVAS) || (largeScene != null);
+    }
+
     // Reset edge vertices.
     public void resetEdgeVertices() {
         firstEdgeVertexId = null;
         secondEdgeVertexId = null;
     }
 
-    // Handle graph panel mouse clicks.
+    // Handle graph panel mouse clicks, and zooming and panning with wheel and drags.
     private class GraphPanelClickListener extends MouseAdapter {
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            if (isZoomable()) {
+                viewport.zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+                repaintPanel();
+            }
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            dragPoint = e.getPoint();
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            if (isZoomable() && (dragPoint != null)) {
+                viewport.pan(e.getX() - dragPoint.x, e.getY() - dragPoint.y);
+                dragPoint = e.getPoint();
+                repaintPanel();
+            }
+        }
+
         @Override
         public void mouseClicked(MouseEvent e) {
+            // Clear traversal played back on scene before editing it.
+            if ((mainFrame.getCurrentAlgorithm() == MainFrame.Algorithm.NONE) && (mainFrame.getCurrentMode() != MainFrame.Mode.NONE)) {
+                stopPlayback();
+            }
+
+            // Find clicked point of scene.
+            int x = (int) Math.floor(getSceneViewport().toWorldX(e.getX()));
+            int y = (int) Math.floor(getSceneViewport().toWorldY(e.getY()));
+
             // Was vertex clicked?
-            String clickedVertexId = getClickedVertex(e.getX(), e.getY());
+            String clickedVertexId = getClickedVertex(x, y);
             if (clickedVertexId != null) {
                 // Are we in an algorithm mode?
                 MainFrame.Algorithm algorithm = mainFrame.getCurrentAlgorithm();
@@ -61,27 +222,28 @@ public class Graph extends JPanel {
                     if (mainFrame.getCurrentMode() == MainFrame.Mode.ADD_EDGE) {
                         // Add new edge.
                         addEdge(clickedVertexId);
+                        refreshLiveShortestPaths();
                     }
                     // Are we in remove vertex mode?
                     else if (mainFrame.getCurrentMode() == MainFrame.Mode.REMOVE_VERTEX) {
                         // Remove vertex.
                         Vertex vertex = vertexList.get(clickedVertexId);
                         removeVertex(vertex);
-                        repaintPanel();
+                        refreshLiveShortestPaths();
                     }
                 }
                 return;
             }
 
             // Was edge clicked?
-            String clickedEdgeId = getClickedEdge(e.getX(), e.getY());
+            String clickedEdgeId = getClickedEdge(x, y);
             if (clickedEdgeId != null) {
                 // Are we in remove edge mode?
                 if (mainFrame.getCurrentMode() == MainFrame.Mode.REMOVE_EDGE) {
                     // Remove edge.
                     Edge edge = edgeList.get(clickedEdgeId);
                     removeEdge(edge);
-                    repaintPanel();
+                    refreshLiveShortestPaths();
                 }
                 return;
             }
@@ -91,27 +253,26 @@ public class Graph extends JPanel {
             // Are we in add vertex mode?
             if (mainFrame.getCurrentMode() == MainFrame.Mode.ADD_VERTEX) {
                 // Add new vertex.
-                addVertex(e);
+                addVertex(x, y);
             }
         }
     }
 
     // Get clicked vertex.
     private String getClickedVertex(int x, int y) {
-        // Loop through vertices.
-        for (Map.Entry<String, Vertex> vertexEntry : vertexList.entrySet()) {
+        // Loop through vertices near point.
+        for (Vertex vertex : vertexGrid.getCandidates(x, y)) {
             // Does vertex include point?
-            Vertex vertex = vertexEntry.getValue();
             if (vertex.includesPoint(x, y)) {
-                return vertexEntry.getKey();
+                return vertex.getVertexId();
             }
         }
 
         return null;
     }
 
-    // Add new vertex.
-    private void addVertex(MouseEvent e) {
+    // Add new vertex at scene point.
+    private void addVertex(int x, int y) {
         // Ask user for vertex id.
         String vertexId;
         do {
@@ -125,12 +286,19 @@ public class Graph extends JPanel {
         } while (vertexId.trim().length() != 1);
 
         // Add vertex to graph panel.
-        Vertex vertex = new Vertex(vertexId, e.getX(), e.getY());
-        add(vertex);
-        repaintPanel();
+        addVertexToScene(new Vertex(vertexId, x, y));
+    }
+
+    // Add vertex to graph panel and vertex list.
+    private void addVertexToScene(Vertex vertex) {
+        if (renderMode == RenderMode.COMPONENTS) {
+            addVertexComponents(vertex);
+        }
+        damageVertex(vertex);
 
         // Add vertex to list.
-        vertexList.put(vertexId, vertex);
+        vertexList.put(vertex.getVertexId(), vertex);
+        vertexGrid.add(vertex, vertex.getBounds());
     }
 
     // Remove vertex.
@@ -143,20 +311,21 @@ public class Graph extends JPanel {
         }
 
         // Remove vertex from graph panel.
-        remove(vertex);
+        removeNamedComponents(vertex);
+        damageVertex(vertex);
 
         // Remove vertex from list.
         vertexList.remove(vertex.getVertexId());
+        vertexGrid.remove(vertex, vertex.getBounds());
     }
 
     // Get clicked edge.
     private String getClickedEdge(int x, int y) {
-        // Loop through edges.
-        for (Map.Entry<String, Edge> edgeEntry : edgeList.entrySet()) {
+        // Loop through edges near point.
+        for (Edge edge : edgeGrid.getCandidates(x, y)) {
             // Does edge include point?
-            Edge edge = edgeEntry.getValue();
             if (edge.includesPoint(x, y)) {
-                return edgeEntry.getKey();
+                return edge.getEdgeId();
             }
         }
 
@@ -172,13 +341,13 @@ public class Graph extends JPanel {
 
             // Highlight first vertex.
             vertexList.get(firstEdgeVertexId).setColorSelected();
-            repaintPanel();
+            damageVertex(vertexList.get(firstEdgeVertexId));
         } else {
             // Did user click on first vertex again?
             if (clickedVertexId.equals(firstEdgeVertexId)) {
                 // Unhighlight first vertex.
                 vertexList.get(firstEdgeVertexId).setColorNormal();
-                repaintPanel();
+                damageVertex(vertexList.get(firstEdgeVertexId));
 
                 // Reset first vertex.
                 firstEdgeVertexId = null;
@@ -191,7 +360,7 @@ public class Graph extends JPanel {
 
             // Highlight second vertex.
             vertexList.get(secondEdgeVertexId).setColorSelected();
-            repaintPanel();
+            damageVertex(vertexList.get(secondEdgeVertexId));
 
             // Ask user for weight.
             Integer weight;
@@ -201,7 +370,7 @@ public class Graph extends JPanel {
                 if (input == null) {
                     // Unhighlight second vertex.
                     vertexList.get(secondEdgeVertexId).setColorNormal();
-                    repaintPanel();
+                    damageVertex(vertexList.get(secondEdgeVertexId));
 
                     // Reset second vertex.
                     secondEdgeVertexId = null;
@@ -215,152 +384,839 @@ public class Graph extends JPanel {
                 }
             } while (weight == null);
 
-            // Add forward edge to graph panel.
-            Edge forwardEdge = new Edge(vertexList.get(firstEdgeVertexId), vertexList.get(clickedVertexId), weight);
-            add(forwardEdge);
-
-            // Add backward edge to graph panel.
-            Edge backwardEdge = new Edge(vertexList.get(clickedVertexId), vertexList.get(firstEdgeVertexId), weight);
-            add(backwardEdge);
-
-            // Add forward edge to list.
-            edgeList.put(forwardEdge.getEdgeId(), forwardEdge);
-
-            // Let forward edge know about backward edge.
-            forwardEdge.setReverseEdge(backwardEdge);
-
-            // Add label to graph panel.
-            addEdgeLabel(forwardEdge, weight);
-
-            // Let vertices know about edge addition.
-            forwardEdge.getStart().addEdge(forwardEdge);
-            forwardEdge.getEnd().addEdge(forwardEdge);
+            // Add edge to graph panel.
+            Edge edge = new Edge(vertexList.get(firstEdgeVertexId), vertexList.get(clickedVertexId), weight);
+            addEdgeToScene(edge);
 
             // Let traversal library know about edge addition.
-            Traversal.addAdjacentVertex(firstEdgeVertexId, clickedVertexId, weight);
-            Traversal.addAdjacentVertex(clickedVertexId, firstEdgeVertexId, weight);
+            traversal.addAdjacentVertex(firstEdgeVertexId, clickedVertexId, weight);
+            traversal.addAdjacentVertex(clickedVertexId, firstEdgeVertexId, weight);
 
             // Unhighlight first and second vertices.
             vertexList.get(firstEdgeVertexId).setColorNormal();
             vertexList.get(secondEdgeVertexId).setColorNormal();
+            damageEdge(edge);
+            damageVertex(edge.getStart());
+            damageVertex(edge.getEnd());
 
             // Reset edge vertices.
             resetEdgeVertices();
+        }
+    }
+
+    // Add edge to graph panel and edge list.
+    private void addEdgeToScene(Edge edge) {
+        if (renderMode == RenderMode.COMPONENTS) {
+            addEdgeComponents(edge);
+        }
 
-            repaintPanel();
+        // Add edge to list. Keep spatial grid in step with list if an edge was replaced.
+        Edge replacedEdge = edgeList.put(edge.getEdgeId(), edge);
+        if (replacedEdge != null) {
+            edgeGrid.remove(replacedEdge, replacedEdge.getLine(), Edge.CLICK_DISTANCE);
         }
+        edgeGrid.add(edge, edge.getLine(), Edge.CLICK_DISTANCE);
+
+        // Let vertices know about edge addition.
+        edge.getStart().addEdge(edge);
+        edge.getEnd().addEdge(edge);
     }
 
     // Remove edge.
     private void removeEdge(Edge edge) {
-        // Remove backward edge from graph panel.
-        remove(edge.getReverseEdge());
-
-        // Remove forward edge from graph panel.
-        remove(edge);
+        // Remove edge and its label from graph panel.
+        removeNamedComponents(edge);
+        damageEdge(edge);
 
-        // Remove forward edge from list.
+        // Remove edge from list.
         edgeList.remove(edge.getEdgeId());
-
-        // Remove label from graph panel.
-        JLabel label = edge.getLabel();
-        if (label != null) {
-            remove(label);
-        }
+        edgeGrid.remove(edge, edge.getLine(), Edge.CLICK_DISTANCE);
 
         // Let vertices know about edge removal.
         edge.getStart().removeEdge(edge);
         edge.getEnd().removeEdge(edge);
 
         // Let traversal library know about edge removal.
-        Traversal.removeAdjacentVertex(edge.getStart().getVertexId(), edge.getEnd().getVertexId());
-        Traversal.removeAdjacentVertex(edge.getEnd().getVertexId(), edge.getStart().getVertexId());
-    }
-
-    // Add label for edge.
-    private void addEdgeLabel(Edge edge, int weight) {
-        Vertex start = edge.getStart();
-        Vertex end = edge.getEnd();
-
-        // Position label next to middle of edge.
-        // TODO: Could use fine tuning.
-        final int range = 20;
-        int xOffset = 0;
-        int yOffset = 0;
-        Double edgeAngle = edge.getEdgeAngle();
-        // Is line pretty horizontal? (Put label above line.)
-        if ((edgeAngle > -range) && (edgeAngle < range)) {
-            yOffset = -20;
-        } else if ((edgeAngle < -180 + range) || (edgeAngle > 180 - range)) {
-            yOffset = -20;
-        }
-        // Is line pretty vertical? (Put label to right of line.)
-        else if ((edgeAngle > -90 - range) && (edgeAngle < -90 + range)) {
-            xOffset = 10;
-        } else if ((edgeAngle < 90 + range) && (edgeAngle > 90 - range)) {
-            xOffset = 10;
-        }
-        // Line is somewhere in between. (Wing it a little.)
-        else {
-            xOffset = 12;
-            yOffset = -12;
-        }
-
-        // Add label.
-        JLabel label = new JLabel(String.valueOf(weight));
-        label.setName(String.format("EdgeLabel <%s -> %s>", start.getVertexId(), end.getVertexId()));
-        label.setBounds(edge.getMiddleX() + xOffset, edge.getMiddleY() + yOffset, 40, 15);
+        traversal.removeAdjacentVertex(edge.getStart().getVertexId(), edge.getEnd().getVertexId());
+        traversal.removeAdjacentVertex(edge.getEnd().getVertexId(), edge.getStart().getVertexId());
+    }
+
+    // Add named component for vertex.
+    private void addVertexComponents(Vertex vertex) {
+        VertexComponent vertexComponent = new VertexComponent(vertex);
+        add(vertexComponent);
+        namedComponents.put(vertex, new JComponent[]{vertexComponent});
+    }
+
+    // Add named components for edge: one per direction plus weight label.
+    private void addEdgeComponents(Edge edge) {
+        EdgeComponent forwardEdgeComponent = new EdgeComponent(edge, false);
+        add(forwardEdgeComponent);
+
+        EdgeComponent backwardEdgeComponent = new EdgeComponent(edge, true);
+        add(backwardEdgeComponent);
+
+        // Add label next to middle of edge.
+        JLabel label = new JLabel(String.valueOf(edge.getWeight()));
+        label.setName(String.format("EdgeLabel <%s -> %s>", edge.getStart().getVertexId(), edge.getEnd().getVertexId()));
+        label.setBounds(edge.getLabelBounds());
         label.setHorizontalAlignment(JLabel.LEFT);
         label.setForeground(Color.WHITE);
         add(label);
 
-        // Let edge know about label.
-        edge.setLabel(label);
+        namedComponents.put(edge, new JComponent[]{forwardEdgeComponent, backwardEdgeComponent, label});
+    }
+
+    // Move named components of vertex or edge to where it now is, if there are any.
+    private void placeNamedComponents(Object element) {
+        JComponent[] components = namedComponents.get(element);
+        if (components == null) {
+            return;
+        }
+        if (element instanceof Vertex vertex) {
+            components[0].setBounds(vertex.getBounds());
+        } else if (element instanceof Edge edge) {
+            components[0].setBounds(EdgeComponent.getClickBounds(edge));
+            components[1].setBounds(EdgeComponent.getClickBounds(edge));
+            components[2].setBounds(edge.getLabelBounds());
+        }
+    }
+
+    // Remove named components of vertex or edge, if there are any.
+    private void removeNamedComponents(Object element) {
+        JComponent[] components = namedComponents.remove(element);
+        if (components != null) {
+            for (JComponent component : components) {
+                remove(component);
+            }
+        }
     }
 
-    // Perform traversal algorithm.
-    private void performAlgorithm(MainFrame.Algorithm algorithm, String clickedVertexId) {
+    // Perform traversal algorithm in background so the panel stays responsive.
+    public void performAlgorithm(MainFrame.Algorithm algorithm, String clickedVertexId) {
         // Turn off current mode.
         mainFrame.turnOffCurrentMode();
 
+        // Cancel algorithm that is still running, and stop shortest paths tracked by an earlier one.
+        cancelAlgorithm();
+        traversal.stopTrackingShortestPaths();
+
         // Display wait message.
         mainFrame.updateInformationLabel("Please wait...");
 
-        // Dramatic pause.
-        final Timer timer = new Timer(1000, null);
-        timer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                // Stop timer.
-                timer.stop();
+        final TraversalMonitor monitor = new TraversalMonitor();
+        final boolean dramaticPause = mainFrame.isDramaticPauseEnabled();
+        final boolean liveShortestPaths = mainFrame.isLiveShortestPathsEnabled();
+
+        // Play traversal back on scene if asked to. Played back traversals run on a snapshot taken now, so
+        // vertex numbers in their events match the scene lookup built from it.
+        final boolean animated = mainFrame.isAnimationEnabled() && !sceneOmitted && (algorithm != MainFrame.Algorithm.MINIMUM_SPANNING_FOREST)
+                && !((algorithm == MainFrame.Algorithm.DIJKSTRAS_ALGORITHM) && liveShortestPaths);
+        final AdjacencySnapshot snapshot = animated ? traversal.getSnapshot() : null;
+        final TraversalEventBuffer events = animated ? startPlayback(snapshot) : TraversalEventBuffer.NONE;
+
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try {
+                // Dramatic pause.
+                if (dramaticPause) {
+                    Thread.sleep(DRAMATIC_PAUSE_MILLISECONDS);
+                }
 
                 // Engage requested traversal logic.
-                String results = "";
-                if (algorithm == MainFrame.Algorithm.DEPTH_FIRST_SEARCH) {
-                    results = Traversal.getDepthFirstSearchOrder(MainFrame.Algorithm.DEPTH_FIRST_SEARCH.abbreviation, clickedVertexId);
+                TraversalResult results = null;
+                if (animated) {
+                    results = findPlayedBackResults(algorithm, snapshot, clickedVertexId, monitor, events);
+                } else if (algorithm == MainFrame.Algorithm.DEPTH_FIRST_SEARCH) {
+                    results = traversal.getDepthFirstSearchResult(MainFrame.Algorithm.DEPTH_FIRST_SEARCH.abbreviation, clickedVertexId, monitor);
                 } else if (algorithm == MainFrame.Algorithm.BREADTH_FIRST_SEARCH) {
-                    results = Traversal.getBreadthFirstSearchOrder(MainFrame.Algorithm.BREADTH_FIRST_SEARCH.abbreviation, clickedVertexId);
+                    results = traversal.getBreadthFirstSearchResult(MainFrame.Algorithm.BREADTH_FIRST_SEARCH.abbreviation, clickedVertexId, monitor);
+                } else if ((algorithm == MainFrame.Algorithm.DIJKSTRAS_ALGORITHM) && liveShortestPaths) {
+                    results = traversal.trackShortestPaths(clickedVertexId, monitor);
                 } else if (algorithm == MainFrame.Algorithm.DIJKSTRAS_ALGORITHM) {
-                    results = Traversal.getDijkstrasAlgorithmCostPairs(clickedVertexId);
+                    results = traversal.getDijkstrasAlgorithmResult(clickedVertexId, monitor);
                 } else if (algorithm == MainFrame.Algorithm.PRIMS_ALGORITHM) {
-                    results = Traversal.getPrimsAlgorithmChildParentPairs(clickedVertexId);
+                    results = traversal.getPrimsAlgorithmResult(clickedVertexId, monitor);
+                } else if (algorithm == MainFrame.Algorithm.MINIMUM_SPANNING_FOREST) {
+                    results = traversal.getMinimumSpanningForestResult(monitor);
                 }
 
-                // Turn off algorithm selection.
-                mainFrame.turnOffCurrentAlgorithm();
+                // Hand results to event dispatch thread.
+                final TraversalResult finalResults = results;
+                SwingUtilities.invokeLater(() -> finishAlgorithm(monitor, finalResults));
+            } catch (InterruptedException | CancellationException e) {
+                // Algorithm was cancelled. The cancelling side already reset the display.
+            } catch (RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failAlgorithm(monitor, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Run algorithm on snapshot outside result cache, recording its events for playback. Dijkstra's Algorithm
+    // always runs on the heap, since delta-stepping relaxes edges on many threads at once.
+    private static TraversalResult findPlayedBackResults(MainFrame.Algorithm algorithm, AdjacencySnapshot snapshot, String clickedVertexId,
+                                                         TraversalMonitor monitor, TraversalEventBuffer events) {
+        int startVertex = snapshot.indexOf(clickedVertexId);
+        try {
+            return switch (algorithm) {
+                case DEPTH_FIRST_SEARCH -> Traversal.findDepthFirstSearchVisitOrder(snapshot, startVertex, monitor, events)
+                        .toResult(algorithm.abbreviation, clickedVertexId);
+                case BREADTH_FIRST_SEARCH -> Traversal.findBreadthFirstSearchVisitOrder(snapshot, startVertex, monitor, events)
+                        .toResult(algorithm.abbreviation, clickedVertexId);
+                case DIJKSTRAS_ALGORITHM -> Traversal.findShortestPathTree(snapshot, startVertex, monitor, events).toResult();
+                case PRIMS_ALGORITHM -> Traversal.findPrimsAlgorithmTree(snapshot, startVertex, monitor, events).toResult();
+                default -> null;
+            };
+        } finally {
+            events.finish();
+        }
+    }
+
+    // Start playing back traversal events on scene. Returns buffer for traversal to record its events into,
+    // big enough for every event of a traversal of snapshot.
+    private TraversalEventBuffer startPlayback(AdjacencySnapshot snapshot) {
+        // Look up scene vertices and edges by snapshot vertex numbers.
+        Vertex[] vertices = new Vertex[snapshot.getVertexCount()];
+        for (int vertex = 0; vertex < vertices.length; vertex++) {
+            vertices[vertex] = vertexList.get(snapshot.getVertexId(vertex));
+        }
+        HashMap<Long, Edge> edges = new HashMap<>();
+        for (Edge edge : edgeList.values()) {
+            int startVertex = snapshot.indexOf(edge.getStart().getVertexId());
+            int endVertex = snapshot.indexOf(edge.getEnd().getVertexId());
+            if ((startVertex != -1) && (endVertex != -1)) {
+                edges.put(TraversalPlayback.getEdgeKey(startVertex, endVertex), edge);
+                edges.put(TraversalPlayback.getEdgeKey(endVertex, startVertex), edge);
+            }
+        }
+
+        // Each vertex is visited and settled once and each edge relaxed at most once.
+        TraversalEventBuffer events = new TraversalEventBuffer(2 * snapshot.getVertexCount() + snapshot.getEdgeCount() + 1);
+        playback = new TraversalPlayback(events, vertices, edges, playbackFrameRate, this::damageVertex, this::damageEdge);
+        playback.start();
+        return events;
+    }
+
+    // Stop playing back traversal and return scene to its normal colors.
+    private void stopPlayback() {
+        if (playback == null) {
+            return;
+        }
+        playback.stop();
+        playback = null;
+        for (Vertex vertex : vertexList.values()) {
+            vertex.setColorNormal();
+        }
+        for (Edge edge : edgeList.values()) {
+            edge.setColorNormal();
+        }
+        repaintPanel();
+    }
+
+    // Lay graph out by force-directed layout in background, moving vertices on screen as the layout settles.
+    // Large scenes are laid out as a whole, ignoring vertices drawn over them.
+    public void layoutGraph() {
+        // Turn off current mode.
+        mainFrame.turnOffCurrentMode();
+
+        // Cancel algorithm or file task that is still running.
+        cancelAlgorithm();
+
+        // Display wait message.
+        mainFrame.updateInformationLabel("Laying out graph...");
+
+        // Gather starting positions while on event dispatch thread.
+        final AdjacencySnapshot snapshot;
+        final float[] xs;
+        final float[] ys;
+        final Vertex[] sceneVertices;
+        if (largeScene != null) {
+            snapshot = largeScene.getSnapshot();
+            xs = largeScene.getXs();
+            ys = largeScene.getYs();
+            sceneVertices = null;
+        } else {
+            snapshot = traversal.getSnapshot();
+            xs = new float[snapshot.getVertexCount()];
+            ys = new float[snapshot.getVertexCount()];
+            sceneVertices = new Vertex[snapshot.getVertexCount()];
+            for (int vertex = 0; vertex < sceneVertices.length; vertex++) {
+                sceneVertices[vertex] = vertexList.get(snapshot.getVertexId(vertex));
+                if (sceneVertices[vertex] != null) {
+                    xs[vertex] = sceneVertices[vertex].getCenterX();
+                    ys[vertex] = sceneVertices[vertex].getCenterY();
+                }
+            }
+        }
+        layoutFitPending = true;
 
-                // Display traversal results.
-                mainFrame.updateInformationLabel(results);
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try {
+                // Hand positions to event dispatch thread as they come. Large scenes are rebuilt here first.
+                new ForceDirectedLayout(snapshot, xs, ys).run((layoutXs, layoutYs) -> {
+                    if (sceneVertices == null) {
+                        LargeGraphScene laidOutScene = new LargeGraphScene(snapshot, layoutXs, layoutYs, TraversalMonitor.NONE);
+                        SwingUtilities.invokeLater(() -> {
+                            if (monitor == runningAlgorithmMonitor) {
+                                showLaidOutScene(laidOutScene);
+                            }
+                        });
+                    } else {
+                        SwingUtilities.invokeLater(() -> {
+                            if (monitor == runningAlgorithmMonitor) {
+                                moveSceneVertices(sceneVertices, layoutXs, layoutYs);
+                            }
+                        });
+                    }
+                }, monitor);
+                SwingUtilities.invokeLater(() -> {
+                    if (endBackgroundTask(monitor)) {
+                        mainFrame.updateInformationLabel(String.format("Laid out %d vertices", snapshot.getVertexCount()));
+                    }
+                });
+            } catch (CancellationException e) {
+                // Layout was cancelled. The cancelling side already reset the display.
+            } catch (RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failLayout(monitor, e));
             }
         });
 
-        // Start timer.
-        timer.start();
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Report failed layout if it was not cancelled or replaced meanwhile. Positions shown so far are kept.
+    private void failLayout(TraversalMonitor monitor, Throwable e) {
+        if (!endBackgroundTask(monitor)) {
+            return;
+        }
+        mainFrame.updateInformationLabel("");
+
+        String reason = (e instanceof OutOfMemoryError) ? "Not enough memory." : String.valueOf(e);
+        JOptionPane.showMessageDialog(this, String.format("Could not lay out graph. %s", reason), "Auto Layout", JOptionPane.ERROR_MESSAGE);
+    }
+
+    // Replace large scene with one showing newer layout positions. The first one is fitted to panel; after
+    // that, zooming and panning are left to the user.
+    private void showLaidOutScene(LargeGraphScene laidOutScene) {
+        largeScene = laidOutScene;
+        if (layoutFitPending) {
+            layoutFitPending = false;
+            resetZoom();
+        }
+        repaintPanel();
+    }
+
+    // Move scene vertices to layout positions, shrunk to fit panel if need be, and re-file them and their
+    // edges. Vertices removed meanwhile are skipped.
+    private void moveSceneVertices(Vertex[] vertices, float[] xs, float[] ys) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int vertex = 0; vertex < vertices.length; vertex++) {
+            minX = Math.min(minX, xs[vertex]);
+            minY = Math.min(minY, ys[vertex]);
+            maxX = Math.max(maxX, xs[vertex]);
+            maxY = Math.max(maxY, ys[vertex]);
+        }
+        double scale = Math.min(1, Math.min((getWidth() - 2.0 * FIT_MARGIN) / Math.max(1, maxX - minX),
+                (getHeight() - 2.0 * FIT_MARGIN) / Math.max(1, maxY - minY)));
+        double offsetX = getWidth() / 2.0 - (minX + maxX) / 2.0 * scale;
+        double offsetY = getHeight() / 2.0 - (minY + maxY) / 2.0 * scale;
+
+        // Take edges out of spatial grid while their ends move.
+        for (Edge edge : edgeList.values()) {
+            edgeGrid.remove(edge, edge.getLine(), Edge.CLICK_DISTANCE);
+        }
+        for (int vertex = 0; vertex < vertices.length; vertex++) {
+            Vertex sceneVertex = vertices[vertex];
+            if ((sceneVertex == null) || (vertexList.get(sceneVertex.getVertexId()) != sceneVertex)) {
+                continue;
+            }
+            vertexGrid.remove(sceneVertex, sceneVertex.getBounds());
+            sceneVertex.setCenter((int) Math.round(xs[vertex] * scale + offsetX), (int) Math.round(ys[vertex] * scale + offsetY));
+            vertexGrid.add(sceneVertex, sceneVertex.getBounds());
+            placeNamedComponents(sceneVertex);
+        }
+        for (Edge edge : edgeList.values()) {
+            edgeGrid.add(edge, edge.getLine(), Edge.CLICK_DISTANCE);
+            placeNamedComponents(edge);
+        }
+        repaintPanel();
+    }
+
+    // Choose how many frames per second traversal playback shows. Takes effect from next traversal on.
+    public void setPlaybackFrameRate(int playbackFrameRate) {
+        if (playbackFrameRate <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive.");
+        }
+        this.playbackFrameRate = playbackFrameRate;
     }
 
-    // Repaint graph panel.
+    // Choose how Dijkstra's Algorithm is run. Delta-stepping picks its own bucket width.
+    public void setShortestPathEngine(Traversal.ShortestPathEngine shortestPathEngine) {
+        traversal.setShortestPathEngine(shortestPathEngine, 0);
+    }
+
+    // Stop keeping shortest path costs up to date through edits.
+    public void stopLiveShortestPaths() {
+        cancelLiveShortestPathsRefresh();
+        traversal.stopTrackingShortestPaths();
+    }
+
+    // Display shortest path costs repaired after an edit, if they are being tracked and nothing else is using
+    // the information display. While negative weights hold up repairs, costs are found by a full run of
+    // Dijkstra's Algorithm in background instead.
+    private void refreshLiveShortestPaths() {
+        if (!traversal.isTrackingShortestPaths() || (mainFrame.getCurrentAlgorithm() != MainFrame.Algorithm.NONE)) {
+            return;
+        }
+
+        // Drop full run for an earlier edit. Exit if anything else is running.
+        cancelLiveShortestPathsRefresh();
+        if (runningAlgorithm != null) {
+            return;
+        }
+
+        if (!traversal.areTrackedShortestPathsOnHold()) {
+            mainFrame.showResults(traversal.getTrackedShortestPathResult());
+            return;
+        }
+
+        // Display wait message.
+        mainFrame.updateInformationLabel("Please wait...");
+
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        liveShortestPathsRefreshMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try {
+                CostPairResult results = traversal.getTrackedShortestPathResult(monitor);
+                SwingUtilities.invokeLater(() -> finishAlgorithm(monitor, results));
+            } catch (CancellationException e) {
+                // Refresh was cancelled. The cancelling side already reset the display.
+            } catch (RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failAlgorithm(monitor, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Cancel full run of Dijkstra's Algorithm for live shortest paths, if it is what is running.
+    private void cancelLiveShortestPathsRefresh() {
+        if ((runningAlgorithmMonitor != null) && (runningAlgorithmMonitor == liveShortestPathsRefreshMonitor)) {
+            cancelAlgorithm();
+        }
+        liveShortestPathsRefreshMonitor = null;
+    }
+
+    // Display traversal results if algorithm was not cancelled or replaced meanwhile.
+    private void finishAlgorithm(TraversalMonitor monitor, TraversalResult results) {
+        if (!endBackgroundTask(monitor)) {
+            return;
+        }
+
+        // Turn off algorithm selection.
+        mainFrame.turnOffCurrentAlgorithm();
+
+        // Display traversal results.
+        if (results != null) {
+            mainFrame.showResults(results);
+        }
+    }
+
+    // Report failed algorithm if it was not cancelled or replaced meanwhile.
+    private void failAlgorithm(TraversalMonitor monitor, Throwable e) {
+        if (!endBackgroundTask(monitor)) {
+            return;
+        }
+        stopPlayback();
+        mainFrame.turnOffCurrentAlgorithm();
+
+        String reason = (e instanceof OutOfMemoryError) ? "Not enough memory." : String.valueOf(e);
+        JOptionPane.showMessageDialog(this, String.format("Could not run algorithm. %s", reason), "Algorithm", JOptionPane.ERROR_MESSAGE);
+    }
+
+    // Import graph file in background, replacing current graph.
+    public void importGraph(Path path, GraphFileReader.Format format) {
+        // Cancel algorithm or file task that is still running.
+        cancelAlgorithm();
+
+        // Display wait message.
+        mainFrame.updateInformationLabel(String.format("Importing %s...", path.getFileName()));
+
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try {
+                // Parse file and build adjacency list off the event dispatch thread.
+                GraphFileReader reader = GraphFileReader.read(path, format, monitor);
+                AdjacencyStore adjacencyList = reader.toAdjacencyStore();
+                LargeGraphScene largeScene = (reader.getVertexCount() > MAXIMUM_DRAWN_IMPORT_VERTICES)
+                        ? LargeGraphScene.withSpiralLayout(adjacencyList.snapshot(), monitor) : null;
+
+                // Hand graph to event dispatch thread.
+                SwingUtilities.invokeLater(() -> finishImport(monitor, reader, adjacencyList, largeScene));
+            } catch (CancellationException e) {
+                // Import was cancelled. The cancelling side already reset the display.
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failFileTask(monitor, "import", path, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Replace current graph with imported one if import was not cancelled or replaced meanwhile. Small graphs
+    // are laid out on a circle; larger ones come with a large scene drawn from flat arrays.
+    private void finishImport(TraversalMonitor monitor, GraphFileReader reader, AdjacencyStore adjacencyList, LargeGraphScene largeScene) {
+        if (!endBackgroundTask(monitor)) {
+            return;
+        }
+        resetPanel();
+        traversal.replaceAdjacencyList(adjacencyList);
+
+        // Is graph small enough to draw?
+        if (reader.getVertexCount() <= MAXIMUM_DRAWN_IMPORT_VERTICES) {
+            // Place vertices evenly around a circle.
+            int layoutRadius = Math.min(getWidth(), getHeight()) / 2 - Vertex.VERTEX_DIAMETER;
+            Vertex[] vertices = new Vertex[reader.getVertexCount()];
+            for (int vertex = 0; vertex < vertices.length; vertex++) {
+                double angle = 2 * Math.PI * vertex / vertices.length;
+                vertices[vertex] = new Vertex(reader.getVertexId(vertex),
+                        getWidth() / 2 + (int) Math.round(layoutRadius * Math.cos(angle)),
+                        getHeight() / 2 + (int) Math.round(layoutRadius * Math.sin(angle)));
+                addVertexToScene(vertices[vertex]);
+            }
+
+            // Add one edge per vertex pair. Self loops cannot be drawn.
+            for (int edge = 0; edge < reader.getEdgeCount(); edge++) {
+                Vertex start = vertices[reader.getFrom(edge)];
+                Vertex end = vertices[reader.getTo(edge)];
+                // Skip self loop or pair already added the other way round.
+                if ((start == end) || edgeList.containsKey(String.format("%s->%s", end.getVertexId(), start.getVertexId()))) {
+                    continue;
+                }
+                addEdgeToScene(new Edge(start, end, reader.getWeight(edge)));
+            }
+        } else {
+            showLargeScene(largeScene);
+        }
+        repaintPanel();
+
+        mainFrame.updateInformationLabel(String.format("Imported %d vertices and %d edges%s", adjacencyList.getVertexCount(),
+                adjacencyList.getEdgeCount() / 2, sceneOmitted ? " (laid out on a spiral)" : ""));
+    }
+
+    // Show graph too large for a Vertex and Edge per element as large scene, fitted to panel.
+    private void showLargeScene(LargeGraphScene largeScene) {
+        sceneOmitted = true;
+        this.largeScene = largeScene;
+        resetZoom();
+    }
+
+    // Save graph and its drawing to snapshot file in background.
+    public void saveGraph(Path path) {
+        // Cancel algorithm or file task that is still running.
+        cancelAlgorithm();
+
+        // Display wait message.
+        mainFrame.updateInformationLabel(String.format("Saving %s...", path.getFileName()));
+
+        // Copy scene and take snapshot of graph while on event dispatch thread, so both show the same version.
+        final AdjacencySnapshot snapshot = traversal.getSnapshot();
+        final Vertex[] sceneVertices = vertexList.values().toArray(new Vertex[0]);
+        final Edge[] sceneEdges = edgeList.values().toArray(new Edge[0]);
+        final boolean sceneOmitted = this.sceneOmitted;
+
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try {
+                GraphSnapshotFile.write(path, snapshot, sceneOmitted, sceneVertices, sceneEdges, monitor);
+                SwingUtilities.invokeLater(() -> {
+                    if (endBackgroundTask(monitor)) {
+                        mainFrame.updateInformationLabel(String.format("Saved %s", path.getFileName()));
+                    }
+                });
+            } catch (CancellationException e) {
+                // Save was cancelled. The cancelling side already reset the display.
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failFileTask(monitor, "save", path, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Write shortest path distances between all vertices to CSV file in background, running Dijkstra's Algorithm
+    // from every vertex on one worker thread per core.
+    public void writeDistanceMatrix(Path path) {
+        // Cancel algorithm or file task that is still running.
+        cancelAlgorithm();
+
+        // Display wait message.
+        mainFrame.updateInformationLabel(String.format("Writing %s...", path.getFileName()));
+
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                traversal.writeShortestPaths(ShortestPathsBatch.getAllVertexIds(traversal.getSnapshot()), ShortestPathsBatch.Format.DISTANCE_MATRIX,
+                        Runtime.getRuntime().availableProcessors(), writer, monitor);
+                SwingUtilities.invokeLater(() -> {
+                    if (endBackgroundTask(monitor)) {
+                        mainFrame.updateInformationLabel(String.format("Wrote %s", path.getFileName()));
+                    }
+                });
+            } catch (CancellationException e) {
+                // Writing was cancelled. The cancelling side already reset the display.
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failFileTask(monitor, "write", path, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Write traversal results as CSV file in background.
+    public void exportResults(TraversalResult results, Path path) {
+        // Cancel algorithm or file task that is still running.
+        cancelAlgorithm();
+
+        // Display wait message.
+        mainFrame.updateInformationLabel(String.format("Writing %s...", path.getFileName()));
+
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                results.writeTable(writer, monitor);
+                SwingUtilities.invokeLater(() -> {
+                    if (endBackgroundTask(monitor)) {
+                        mainFrame.updateInformationLabel(String.format("Wrote %s", path.getFileName()));
+                    }
+                });
+            } catch (CancellationException e) {
+                // Writing was cancelled. The cancelling side already reset the display.
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failFileTask(monitor, "write", path, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Open snapshot file in background, replacing current graph.
+    public void openGraph(Path path) {
+        // Cancel algorithm or file task that is still running.
+        cancelAlgorithm();
+
+        // Display wait message.
+        mainFrame.updateInformationLabel(String.format("Opening %s...", path.getFileName()));
+
+        final TraversalMonitor monitor = new TraversalMonitor();
+        runningAlgorithmMonitor = monitor;
+        runningAlgorithm = algorithmExecutor.submit(() -> {
+            try {
+                GraphSnapshotFile snapshotFile = GraphSnapshotFile.read(path, monitor);
+                LargeGraphScene largeScene = snapshotFile.isSceneOmitted()
+                        ? LargeGraphScene.withSpiralLayout(snapshotFile.getAdjacencyList().snapshot(), monitor) : null;
+                SwingUtilities.invokeLater(() -> finishOpen(monitor, path, snapshotFile, largeScene));
+            } catch (CancellationException e) {
+                // Open was cancelled. The cancelling side already reset the display.
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                SwingUtilities.invokeLater(() -> failFileTask(monitor, "open", path, e));
+            }
+        });
+
+        // Display progress.
+        mainFrame.showProgress(monitor);
+    }
+
+    // Replace current graph with opened one if open was not cancelled or replaced meanwhile.
+    private void finishOpen(TraversalMonitor monitor, Path path, GraphSnapshotFile snapshotFile, LargeGraphScene largeScene) {
+        if (!endBackgroundTask(monitor)) {
+            return;
+        }
+        resetPanel();
+        traversal.replaceAdjacencyList(snapshotFile.getAdjacencyList());
+
+        // Redraw saved scene.
+        Vertex[] vertices = new Vertex[snapshotFile.getSceneVertexCount()];
+        for (int sceneVertex = 0; sceneVertex < vertices.length; sceneVertex++) {
+            vertices[sceneVertex] = new Vertex(snapshotFile.getSceneVertexId(sceneVertex), snapshotFile.getSceneVertexCenterX(sceneVertex),
+                    snapshotFile.getSceneVertexCenterY(sceneVertex));
+            addVertexToScene(vertices[sceneVertex]);
+        }
+        for (int sceneEdge = 0; sceneEdge < snapshotFile.getSceneEdgeCount(); sceneEdge++) {
+            addEdgeToScene(new Edge(vertices[snapshotFile.getSceneEdgeStart(sceneEdge)], vertices[snapshotFile.getSceneEdgeEnd(sceneEdge)],
+                    snapshotFile.getSceneEdgeWeight(sceneEdge)));
+        }
+        if (largeScene != null) {
+            showLargeScene(largeScene);
+        }
+        repaintPanel();
+
+        mainFrame.updateInformationLabel(String.format("Opened %s", path.getFileName()));
+    }
+
+    // Report failed import, open, save or write if it was not cancelled or replaced meanwhile.
+    private void failFileTask(TraversalMonitor monitor, String action, Path path, Throwable e) {
+        if (!endBackgroundTask(monitor)) {
+            return;
+        }
+        mainFrame.updateInformationLabel("");
+
+        // Messages of file and argument errors are meant for users. Anything else is shown as is.
+        String reason;
+        if (e instanceof OutOfMemoryError) {
+            reason = "Not enough memory.";
+        } else if ((e instanceof IOException) || (e instanceof IllegalArgumentException)) {
+            reason = e.getMessage();
+        } else {
+            reason = String.valueOf(e);
+        }
+        JOptionPane.showMessageDialog(this, String.format("Could not %s %s. %s", action, path.getFileName(), reason), "Graph File",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
+    // Forget finished background task. Returns false if task was cancelled or replaced meanwhile, in which case
+    // its results should be dropped.
+    private boolean endBackgroundTask(TraversalMonitor monitor) {
+        if (monitor != runningAlgorithmMonitor) {
+            return false;
+        }
+        runningAlgorithm = null;
+        runningAlgorithmMonitor = null;
+        mainFrame.hideProgress();
+        return true;
+    }
+
+    // Cancel running traversal algorithm or file task, and clear any traversal played back on scene. Returns
+    // false if nothing was running.
+    public boolean cancelAlgorithm() {
+        stopPlayback();
+        if (runningAlgorithm == null) {
+            return false;
+        }
+
+        runningAlgorithmMonitor.cancel();
+        runningAlgorithm.cancel(true);
+        runningAlgorithm = null;
+        runningAlgorithmMonitor = null;
+        mainFrame.hideProgress();
+        return true;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setFont(UIManager.getFont("Label.font"));
+
+        // Draw large scene under everything else.
+        if (largeScene != null) {
+            largeScene.paint(g2d, viewport, clip);
+        }
+
+        // Named components paint themselves.
+        if (renderMode != RenderMode.CANVAS) {
+            g2d.dispose();
+            return;
+        }
+
+        // Only draw what overlaps world area being repainted. Labels sit beside their edges, so look a little
+        // further out for those.
+        Rectangle worldClip = viewport.toWorld(clip).getBounds();
+        Rectangle labelClip = new Rectangle(worldClip);
+        labelClip.grow(EDGE_LABEL_REACH, EDGE_LABEL_REACH);
+
+        // Draw dots and thin lines when zoomed out too far for circles.
+        double diameter = Vertex.VERTEX_DIAMETER * viewport.getScale();
+        if (diameter < Vertex.MINIMUM_CIRCLE_DIAMETER) {
+            for (Edge edge : edgeGrid.getItemsIn(worldClip)) {
+                edge.drawThin(g2d, viewport);
+            }
+            for (Vertex vertex : vertexGrid.getItemsIn(worldClip)) {
+                vertex.drawDot(g2d, viewport);
+            }
+            g2d.dispose();
+            return;
+        }
+
+        // Draw edges, then vertices over them, then weight labels over everything if they are large enough to
+        // read.
+        boolean labeled = diameter >= Vertex.MINIMUM_LABELED_DIAMETER;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.transform(viewport.getTransform());
+        for (Edge edge : edgeGrid.getItemsIn(worldClip)) {
+            edge.draw(g2d);
+        }
+        for (Vertex vertex : vertexGrid.getItemsIn(worldClip)) {
+            vertex.draw(g2d, labeled);
+        }
+        if (labeled) {
+            for (Edge edge : edgeGrid.getItemsIn(labelClip)) {
+                if (edge.getLabelBounds().intersects(worldClip)) {
+                    edge.drawLabel(g2d);
+                }
+            }
+        }
+        g2d.dispose();
+    }
+
+    // Repaint whole graph panel.
     private void repaintPanel() {
-        revalidate();
+        damagedRegion = null;
         repaint();
     }
+
+    // Mark vertex area as needing repaint.
+    private void damageVertex(Vertex vertex) {
+        Rectangle area = vertex.getBounds();
+        area.grow(1, 1);
+        damage(getSceneViewport().toScreen(area));
+    }
+
+    // Mark edge line and weight label areas as needing repaint.
+    private void damageEdge(Edge edge) {
+        Rectangle area = edge.getLine().getBounds();
+        area.grow(EDGE_STROKE_REACH, EDGE_STROKE_REACH);
+        area.add(edge.getLabelBounds());
+        damage(getSceneViewport().toScreen(area));
+    }
+
+    // Mark area as needing repaint. All areas marked while handling one event are merged and repainted
+    // together once the event dispatch thread is free.
+    private void damage(Rectangle area) {
+        if (damagedRegion != null) {
+            damagedRegion.add(area);
+            return;
+        }
+        damagedRegion = new Rectangle(area);
+        SwingUtilities.invokeLater(() -> {
+            if (damagedRegion != null) {
+                repaint(damagedRegion);
+                damagedRegion = null;
+            }
+        });
+    }
 }
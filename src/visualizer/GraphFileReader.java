@@ -0,0 +1,410 @@
+package visualizer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+// Reader for graph files.
+//
+// The file is memory mapped a window at a time and parsed from the raw bytes. No String is made per line, and
+// numeric vertex ids are interned without making a String per token either, so files with tens of millions of
+// lines load in seconds. Edges are collected in primitive arrays and turned into an adjacency store in one pass.
+//
+// Edges are undirected, like the ones drawn in the graph panel. DIMACS files list each road in both
+// directions; with equal weights both arcs collapse into one edge.
+public class GraphFileReader {
+    public enum Format {
+        // One edge per line: from vertex id, to vertex id and optional weight separated by spaces or tabs. Lines
+        // starting with # or % are comments.
+        EDGE_LIST,
+        // One edge per line: from vertex id, to vertex id and optional weight separated by commas. A first line
+        // whose weight column is not a number is taken as a header.
+        CSV,
+        // DIMACS shortest path format: "c" comment lines, one "p sp <vertices> <arcs>" problem line and
+        // "a <from> <to> <weight>" arc lines.
+        DIMACS;
+
+        // Get format from file name extension. Anything unknown is read as an edge list.
+        public static Format forFileName(String fileName) {
+            String lowerCaseFileName = fileName.toLowerCase(Locale.ROOT);
+            if (lowerCaseFileName.endsWith(".gr")) {
+                return DIMACS;
+            } else if (lowerCaseFileName.endsWith(".csv")) {
+                return CSV;
+            }
+            return EDGE_LIST;
+        }
+    }
+
+    public static final int DEFAULT_WEIGHT = 1;
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int INITIAL_VERTEX_CAPACITY = 1024;
+    private static final int INITIAL_EDGE_CAPACITY = 1024;
+    private static final int AVERAGE_LINE_LENGTH = 32;
+    private static final int MAXIMUM_VERTEX_COUNT = Integer.MAX_VALUE - 8;
+    private static final int MAXIMUM_EDGE_COUNT = Integer.MAX_VALUE - 8;
+    private static final int MAXIMUM_FIELD_COUNT = 4;
+
+    private final Format format;
+
+    // Vertex ids in the order they were first seen. Ids made only of digits (without a leading zero) are looked
+    // up by value in an open addressing table; anything else goes through a hash map.
+    private String[] vertexIds = new String[INITIAL_VERTEX_CAPACITY];
+    private int vertexCount;
+    private long[] numericIdKeys = new long[INITIAL_VERTEX_CAPACITY * 2];
+    private int[] numericIdVertices = new int[INITIAL_VERTEX_CAPACITY * 2];
+    private int numericIdCount;
+    private final HashMap<String, Integer> otherIdVertices = new HashMap<>();
+
+    // DIMACS vertex ids run from 1 to the announced vertex count, so those are looked up directly. Holds vertex
+    // number plus one, or zero if id was not seen yet.
+    private int[] dimacsIdVertices = new int[0];
+
+    // Edges as parallel arrays.
+    private int[] from = new int[INITIAL_EDGE_CAPACITY];
+    private int[] to = new int[INITIAL_EDGE_CAPACITY];
+    private int[] weights = new int[INITIAL_EDGE_CAPACITY];
+    private int edgeCount;
+
+    // Parser state for the current line.
+    private long lineNumber;
+    private final int[] fieldStarts = new int[MAXIMUM_FIELD_COUNT];
+    private final int[] fieldEnds = new int[MAXIMUM_FIELD_COUNT];
+    private boolean headerAllowed = true;
+    private boolean problemLineSeen;
+
+    private GraphFileReader(Format format) {
+        this.format = format;
+        Arrays.fill(numericIdKeys, -1);
+    }
+
+    // Read graph file. The monitor sees progress in kilobytes read and can cancel the read.
+    public static GraphFileReader read(Path path, Format format, TraversalMonitor monitor) throws IOException {
+        GraphFileReader reader = new GraphFileReader(format);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            // Parse from a copy of each mapped window. Reading a heap array is much faster than reading the
+            // mapped buffer a byte at a time.
+            byte[] window = new byte[(int) Math.min(WINDOW_SIZE, fileSize)];
+            reader.ensureEdgeCapacity((int) Math.min(MAXIMUM_EDGE_COUNT, fileSize / AVERAGE_LINE_LENGTH));
+
+            // Map file one window at a time. A line cut off at the end of a window is parsed again at the start
+            // of the next one.
+            long windowStart = 0;
+            while (windowStart < fileSize) {
+                int windowSize = (int) Math.min(WINDOW_SIZE, fileSize - windowStart);
+                boolean lastWindow = (windowStart + windowSize == fileSize);
+                MappedByteBuffer mappedWindow = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                mappedWindow.get(0, window, 0, windowSize);
+
+                int lineStart = 0;
+                while (lineStart < windowSize) {
+                    // Find end of line. Exit if the line goes on in the next window.
+                    int lineEnd = lineStart;
+                    while ((lineEnd < windowSize) && (window[lineEnd] != '\n')) {
+                        lineEnd++;
+                    }
+                    if ((lineEnd == windowSize) && !lastWindow) {
+                        break;
+                    }
+
+                    reader.lineNumber++;
+                    reader.parseLine(window, lineStart, lineEnd);
+                    monitor.update((int) ((windowStart + lineEnd) >> 10), (int) (fileSize >> 10));
+                    lineStart = lineEnd + 1;
+                }
+
+                // Throw exception if a single line does not fit in a window.
+                if (lineStart == 0) {
+                    throw new IOException(String.format("Line %d is too long.", reader.lineNumber + 1));
+                }
+                windowStart += lineStart;
+            }
+        }
+        return reader;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public String getVertexId(int vertex) {
+        return vertexIds[vertex];
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    // Build adjacency store holding every edge in both directions.
+    public AdjacencyStore toAdjacencyStore() {
+        return AdjacencyStore.fromEdgeList(vertexIds, vertexCount, from, to, weights, edgeCount, true);
+    }
+
+    // Parse one line of the file.
+    private void parseLine(byte[] bytes, int lineStart, int lineEnd) throws IOException {
+        // Drop carriage return of Windows line ends.
+        if ((lineEnd > lineStart) && (bytes[lineEnd - 1] == '\r')) {
+            lineEnd--;
+        }
+
+        int fieldCount = splitFields(bytes, lineStart, lineEnd);
+        // Skip blank lines.
+        if (fieldCount == 0) {
+            return;
+        }
+
+        if (format == Format.DIMACS) {
+            parseDimacsLine(bytes, fieldCount);
+            return;
+        }
+
+        // Skip comment lines.
+        byte firstByte = bytes[fieldStarts[0]];
+        if ((firstByte == '#') || (firstByte == '%')) {
+            return;
+        }
+
+        // Skip header line.
+        boolean headerLine = headerAllowed && (format == Format.CSV) && (fieldCount > 2) && !isInteger(bytes, 2);
+        headerAllowed = false;
+        if (headerLine) {
+            return;
+        }
+
+        if (fieldCount < 2) {
+            throw new IOException(String.format("Line %d does not have a from and to vertex id.", lineNumber));
+        }
+        int weight = (fieldCount > 2) ? parseInteger(bytes, 2, "weight") : DEFAULT_WEIGHT;
+        addEdge(internVertex(bytes, 0), internVertex(bytes, 1), weight);
+    }
+
+    private void parseDimacsLine(byte[] bytes, int fieldCount) throws IOException {
+        byte lineType = bytes[fieldStarts[0]];
+        boolean singleLetter = (fieldEnds[0] - fieldStarts[0] == 1);
+        if (singleLetter && (lineType == 'c')) {
+            return;
+        } else if (singleLetter && (lineType == 'p')) {
+            // Size arrays for the announced number of vertices and arcs. Vertex ids are looked up by the announced
+            // count, so it cannot change once arcs were read.
+            if (fieldCount < MAXIMUM_FIELD_COUNT) {
+                throw new IOException(String.format("Line %d is not a DIMACS problem line.", lineNumber));
+            }
+            if (problemLineSeen || (edgeCount > 0)) {
+                throw new IOException(String.format("Line %d is a DIMACS problem line that does not come first.", lineNumber));
+            }
+            problemLineSeen = true;
+            int announcedVertexCount = parseInteger(bytes, 2, "vertex count");
+            if ((announcedVertexCount < 0) || (announcedVertexCount >= MAXIMUM_VERTEX_COUNT)) {
+                throw new IOException(String.format("Line %d has a vertex count out of range.", lineNumber));
+            }
+            int announcedArcCount = parseInteger(bytes, 3, "arc count");
+            if (announcedArcCount < 0) {
+                throw new IOException(String.format("Line %d has an arc count out of range.", lineNumber));
+            }
+            if (vertexIds.length < announcedVertexCount) {
+                vertexIds = Arrays.copyOf(vertexIds, announcedVertexCount);
+            }
+            dimacsIdVertices = new int[announcedVertexCount + 1];
+            ensureEdgeCapacity(announcedArcCount);
+            return;
+        } else if (!singleLetter || (lineType != 'a') || (fieldCount < MAXIMUM_FIELD_COUNT)) {
+            throw new IOException(String.format("Line %d is not a DIMACS comment, problem or arc line.", lineNumber));
+        }
+
+        addEdge(internVertex(bytes, 1), internVertex(bytes, 2), parseInteger(bytes, 3, "weight"));
+    }
+
+    // Split line into whitespace or comma separated fields. Returns number of fields found, which is capped at
+    // the number of fields any format needs.
+    private int splitFields(byte[] bytes, int lineStart, int lineEnd) {
+        int maximumFieldCount = fieldStarts.length;
+        int fieldCount = 0;
+        int position = lineStart;
+        while ((position < lineEnd) && (fieldCount < maximumFieldCount)) {
+            // Skip separators.
+            while ((position < lineEnd) && isSeparator(bytes[position])) {
+                position++;
+            }
+            if (position == lineEnd) {
+                break;
+            }
+
+            // Take field up to next separator.
+            fieldStarts[fieldCount] = position;
+            while ((position < lineEnd) && !isSeparator(bytes[position])) {
+                position++;
+            }
+            fieldEnds[fieldCount] = position;
+            fieldCount++;
+        }
+        return fieldCount;
+    }
+
+    private boolean isSeparator(byte character) {
+        return (character == ' ') || (character == '\t') || ((character == ',') && (format == Format.CSV));
+    }
+
+    // Is field an integer?
+    private boolean isInteger(byte[] bytes, int field) {
+        int position = fieldStarts[field];
+        if (bytes[position] == '-') {
+            position++;
+        }
+        if (position == fieldEnds[field]) {
+            return false;
+        }
+        for (; position < fieldEnds[field]; position++) {
+            byte character = bytes[position];
+            if ((character < '0') || (character > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInteger(byte[] bytes, int field, String fieldName) throws IOException {
+        if (!isInteger(bytes, field) || (fieldEnds[field] - fieldStarts[field] > 11)) {
+            throw new IOException(String.format("Line %d has a %s that is not an integer.", lineNumber, fieldName));
+        }
+
+        int position = fieldStarts[field];
+        boolean negative = (bytes[position] == '-');
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        for (; position < fieldEnds[field]; position++) {
+            value = value * 10 + (bytes[position] - '0');
+        }
+        value = negative ? -value : value;
+        if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE)) {
+            throw new IOException(String.format("Line %d has a %s that is not an integer.", lineNumber, fieldName));
+        }
+        return (int) value;
+    }
+
+    // Get vertex number for id in field, adding vertex if it was not seen before.
+    private int internVertex(byte[] bytes, int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+
+        // Look digit-only ids up by value. Leading zeros would make two ids with the same value, so those take
+        // the slow path.
+        long numericId = 0;
+        boolean numeric = (length <= 18) && ((length == 1) || (bytes[start] != '0'));
+        for (int position = start; numeric && (position < start + length); position++) {
+            byte character = bytes[position];
+            numeric = (character >= '0') && (character <= '9');
+            numericId = numericId * 10 + (character - '0');
+        }
+        if (numeric) {
+            return internNumericVertex(numericId);
+        }
+
+        String vertexId = new String(bytes, start, length, StandardCharsets.UTF_8);
+        Integer vertex = otherIdVertices.get(vertexId);
+        if (vertex == null) {
+            vertex = addVertex(vertexId);
+            otherIdVertices.put(vertexId, vertex);
+        }
+        return vertex;
+    }
+
+    private int internNumericVertex(long numericId) {
+        if (numericId < dimacsIdVertices.length) {
+            int id = (int) numericId;
+            if (dimacsIdVertices[id] == 0) {
+                dimacsIdVertices[id] = addVertex(Long.toString(numericId)) + 1;
+            }
+            return dimacsIdVertices[id] - 1;
+        }
+
+        // Grow table when it is half full.
+        if (numericIdCount * 2 >= numericIdKeys.length) {
+            long[] oldKeys = numericIdKeys;
+            int[] oldVertices = numericIdVertices;
+            numericIdKeys = new long[oldKeys.length * 2];
+            numericIdVertices = new int[oldKeys.length * 2];
+            Arrays.fill(numericIdKeys, -1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != -1) {
+                    int position = findNumericIdPosition(oldKeys[i]);
+                    numericIdKeys[position] = oldKeys[i];
+                    numericIdVertices[position] = oldVertices[i];
+                }
+            }
+        }
+
+        int position = findNumericIdPosition(numericId);
+        if (numericIdKeys[position] == -1) {
+            numericIdKeys[position] = numericId;
+            numericIdVertices[position] = addVertex(Long.toString(numericId));
+            numericIdCount++;
+        }
+        return numericIdVertices[position];
+    }
+
+    // Find table position holding numeric id, or the empty position where it belongs.
+    private int findNumericIdPosition(long numericId) {
+        int mask = numericIdKeys.length - 1;
+        int position = (int) (numericId * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while ((numericIdKeys[position] != -1) && (numericIdKeys[position] != numericId)) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private int addVertex(String vertexId) {
+        if (vertexCount == vertexIds.length) {
+            vertexIds = Arrays.copyOf(vertexIds, vertexIds.length * 2);
+        }
+        vertexIds[vertexCount] = vertexId;
+        return vertexCount++;
+    }
+
+    private void addEdge(int fromVertex, int toVertex, int weight) throws IOException {
+        ensureEdgeCapacity(edgeCount + 1);
+        from[edgeCount] = fromVertex;
+        to[edgeCount] = toVertex;
+        weights[edgeCount] = weight;
+        edgeCount++;
+    }
+
+    private void ensureEdgeCapacity(int capacity) throws IOException {
+        if (capacity <= from.length) {
+            return;
+        }
+        // Throw exception if edges no longer fit in an array.
+        if (capacity > MAXIMUM_EDGE_COUNT) {
+            throw new IOException("Graph has too many edges.");
+        }
+        int newCapacity = (int) Math.min(MAXIMUM_EDGE_COUNT, Math.max(capacity, from.length * 2L));
+        from = Arrays.copyOf(from, newCapacity);
+        to = Arrays.copyOf(to, newCapacity);
+        weights = Arrays.copyOf(weights, newCapacity);
+    }
+}
@@ -0,0 +1,421 @@
+package visualizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+
+// Binary snapshot of a whole graph: the adjacency list in its compacted form plus the drawn scene.
+//
+// All numbers are little endian ints unless noted. The file is laid out as follows:
+//
+//   header          magic, version, flags, vertex count, slot count, id byte count, scene vertex count,
+//                   scene edge count
+//   offsets         vertex count + 1 ints: first slot of each vertex
+//   targets         slot count ints
+//   weights         slot count ints
+//   vertex order    vertex count ints: vertices in vertex id order
+//   id offsets      vertex count + 1 ints: first byte of each vertex id
+//   ids             id byte count bytes of UTF-8
+//   scene vertices  per vertex: center x, center y, id byte count, id bytes
+//   scene edges     per edge: start scene vertex, end scene vertex, weight
+//
+// Opening maps the file and copies each array out in bulk. Nothing is parsed, sorted or rebuilt, so reopening
+// a large graph takes about as long as reading it from disk.
+public class GraphSnapshotFile {
+    public static final String FILE_EXTENSION = "graph";
+
+    private static final int MAGIC = 0x53564147; // "GAVS" in file byte order.
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8 * Integer.BYTES;
+    private static final int FLAG_SCENE_OMITTED = 1;
+
+    // Arrays are copied a megabyte at a time, out of mapped windows of up to a gigabyte.
+    private static final int COPY_SIZE = 1024 * 1024;
+    private static final int WINDOW_SIZE = 1024 * 1024 * 1024;
+
+    private final AdjacencyStore adjacencyList;
+    private final boolean sceneOmitted;
+    private final String[] sceneVertexIds;
+    private final int[] sceneVertexCenters;
+    private final int[] sceneEdges;
+
+    private GraphSnapshotFile(AdjacencyStore adjacencyList, boolean sceneOmitted, String[] sceneVertexIds, int[] sceneVertexCenters,
+                              int[] sceneEdges) {
+        this.adjacencyList = adjacencyList;
+        this.sceneOmitted = sceneOmitted;
+        this.sceneVertexIds = sceneVertexIds;
+        this.sceneVertexCenters = sceneVertexCenters;
+        this.sceneEdges = sceneEdges;
+    }
+
+    public AdjacencyStore getAdjacencyList() {
+        return adjacencyList;
+    }
+
+    public boolean isSceneOmitted() {
+        return sceneOmitted;
+    }
+
+    public int getSceneVertexCount() {
+        return sceneVertexIds.length;
+    }
+
+    public String getSceneVertexId(int sceneVertex) {
+        return sceneVertexIds[sceneVertex];
+    }
+
+    public int getSceneVertexCenterX(int sceneVertex) {
+        return sceneVertexCenters[2 * sceneVertex];
+    }
+
+    public int getSceneVertexCenterY(int sceneVertex) {
+        return sceneVertexCenters[2 * sceneVertex + 1];
+    }
+
+    public int getSceneEdgeCount() {
+        return sceneEdges.length / 3;
+    }
+
+    public int getSceneEdgeStart(int sceneEdge) {
+        return sceneEdges[3 * sceneEdge];
+    }
+
+    public int getSceneEdgeEnd(int sceneEdge) {
+        return sceneEdges[3 * sceneEdge + 1];
+    }
+
+    public int getSceneEdgeWeight(int sceneEdge) {
+        return sceneEdges[3 * sceneEdge + 2];
+    }
+
+    // Write snapshot of adjacency list and scene. The monitor sees progress in kilobytes written and can cancel
+    // the write. The snapshot is written next to the file and moved over it once complete, so a failed or
+    // cancelled save leaves any earlier file in place.
+    public static void write(Path path, AdjacencySnapshot snapshot, boolean sceneOmitted, Vertex[] sceneVertices, Edge[] sceneEdges,
+                             TraversalMonitor monitor) throws IOException {
+        int vertexCount = snapshot.getVertexCount();
+        int slotCount = snapshot.getEdgeCount();
+
+        // Encode vertex ids up front to learn their lengths. They are encoded again when written rather than kept,
+        // which would take an array per vertex.
+        int[] vertexIdLengths = new int[vertexCount];
+        long idByteCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            vertexIdLengths[vertex] = snapshot.getVertexId(vertex).getBytes(StandardCharsets.UTF_8).length;
+            idByteCount += vertexIdLengths[vertex];
+        }
+        // Throw exception if id offsets would not fit in ints.
+        if (idByteCount > Integer.MAX_VALUE) {
+            throw new IOException("Vertex ids are too long to save.");
+        }
+
+        byte[][] sceneVertexIdBytes = new byte[sceneVertices.length][];
+        long sceneByteCount = 3L * Integer.BYTES * (sceneVertices.length + sceneEdges.length);
+        for (int sceneVertex = 0; sceneVertex < sceneVertices.length; sceneVertex++) {
+            sceneVertexIdBytes[sceneVertex] = sceneVertices[sceneVertex].getVertexId().getBytes(StandardCharsets.UTF_8);
+            sceneByteCount += sceneVertexIdBytes[sceneVertex].length;
+        }
+        long fileSize = HEADER_SIZE + Integer.BYTES * (3L * vertexCount + 2L * slotCount + 2) + idByteCount + sceneByteCount;
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SnapshotWriter writer = new SnapshotWriter(channel, fileSize, monitor);
+
+            writer.putInt(MAGIC);
+            writer.putInt(VERSION);
+            writer.putInt(sceneOmitted ? FLAG_SCENE_OMITTED : 0);
+            writer.putInt(vertexCount);
+            writer.putInt(slotCount);
+            writer.putInt((int) idByteCount);
+            writer.putInt(sceneVertices.length);
+            writer.putInt(sceneEdges.length);
+
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                writer.putInt(snapshot.getEdgeStart(vertex));
+            }
+            writer.putInt(slotCount);
+            for (int slot = 0; slot < slotCount; slot++) {
+                writer.putInt(snapshot.getTarget(slot));
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                writer.putInt(snapshot.getWeight(slot));
+            }
+            for (int rank = 0; rank < vertexCount; rank++) {
+                writer.putInt(snapshot.getVertexByRank(rank));
+            }
+
+            int idOffset = 0;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                writer.putInt(idOffset);
+                idOffset += vertexIdLengths[vertex];
+            }
+            writer.putInt(idOffset);
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                writer.putBytes(snapshot.getVertexId(vertex).getBytes(StandardCharsets.UTF_8));
+            }
+
+            // Scene edges refer to scene vertices by their position in the file.
+            HashMap<Vertex, Integer> sceneVertexPositions = new HashMap<>();
+            for (int sceneVertex = 0; sceneVertex < sceneVertices.length; sceneVertex++) {
+                writer.putInt(sceneVertices[sceneVertex].getCenterX());
+                writer.putInt(sceneVertices[sceneVertex].getCenterY());
+                writer.putInt(sceneVertexIdBytes[sceneVertex].length);
+                writer.putBytes(sceneVertexIdBytes[sceneVertex]);
+                sceneVertexPositions.put(sceneVertices[sceneVertex], sceneVertex);
+            }
+            for (Edge edge : sceneEdges) {
+                writer.putInt(sceneVertexPositions.get(edge.getStart()));
+                writer.putInt(sceneVertexPositions.get(edge.getEnd()));
+                writer.putInt(edge.getWeight());
+            }
+
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Open snapshot. The monitor sees progress in kilobytes read and can cancel the read.
+    public static GraphSnapshotFile read(Path path, TraversalMonitor monitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            SnapshotReader reader = new SnapshotReader(channel, monitor);
+
+            // Check header.
+            if ((channel.size() < HEADER_SIZE) || (reader.getInt() != MAGIC)) {
+                throw new IOException("File is not a graph snapshot.");
+            }
+            int version = reader.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("Graph snapshot version %d is not supported.", version));
+            }
+            int flags = reader.getInt();
+            int vertexCount = reader.getInt();
+            int slotCount = reader.getInt();
+            int idByteCount = reader.getInt();
+            int sceneVertexCount = reader.getInt();
+            int sceneEdgeCount = reader.getInt();
+            // Throw exception if counts do not fit in file.
+            long minimumFileSize = HEADER_SIZE + Integer.BYTES * (3L * vertexCount + 2L * slotCount + 2) + idByteCount
+                    + 3L * Integer.BYTES * ((long) sceneVertexCount + sceneEdgeCount);
+            if ((vertexCount < 0) || (slotCount < 0) || (idByteCount < 0) || (sceneVertexCount < 0) || (sceneEdgeCount < 0)
+                    || (sceneEdgeCount > Integer.MAX_VALUE / 3) || (minimumFileSize > channel.size())) {
+                throw new IOException("Graph snapshot is damaged.");
+            }
+
+            // Copy adjacency arrays.
+            int[] offsets = reader.getInts(vertexCount + 1);
+            int[] targets = reader.getInts(slotCount);
+            int[] weights = reader.getInts(slotCount);
+            int[] vertexOrder = reader.getInts(vertexCount);
+            int[] idOffsets = reader.getInts(vertexCount + 1);
+            byte[] idBytes = reader.getBytes(idByteCount);
+            checkArrays(vertexCount, slotCount, idByteCount, offsets, targets, vertexOrder, idOffsets);
+
+            // Decode vertex ids.
+            String[] vertexIds = new String[vertexCount];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                vertexIds[vertex] = new String(idBytes, idOffsets[vertex], idOffsets[vertex + 1] - idOffsets[vertex], StandardCharsets.UTF_8);
+            }
+
+            // Read scene.
+            String[] sceneVertexIds = new String[sceneVertexCount];
+            int[] sceneVertexCenters = new int[2 * sceneVertexCount];
+            for (int sceneVertex = 0; sceneVertex < sceneVertexCount; sceneVertex++) {
+                sceneVertexCenters[2 * sceneVertex] = reader.getInt();
+                sceneVertexCenters[2 * sceneVertex + 1] = reader.getInt();
+                int sceneIdByteCount = reader.getInt();
+                if ((sceneIdByteCount < 0) || (sceneIdByteCount > channel.size())) {
+                    throw new IOException("Graph snapshot is damaged.");
+                }
+                sceneVertexIds[sceneVertex] = new String(reader.getBytes(sceneIdByteCount), StandardCharsets.UTF_8);
+            }
+            int[] sceneEdges = reader.getInts(3 * sceneEdgeCount);
+            for (int sceneEdge = 0; sceneEdge < sceneEdgeCount; sceneEdge++) {
+                if (!isInRange(sceneEdges[3 * sceneEdge], sceneVertexCount) || !isInRange(sceneEdges[3 * sceneEdge + 1], sceneVertexCount)) {
+                    throw new IOException("Graph snapshot is damaged.");
+                }
+            }
+
+            AdjacencyStore adjacencyList = AdjacencyStore.fromCompactedArrays(vertexIds, vertexCount, offsets, targets, weights, vertexOrder);
+            return new GraphSnapshotFile(adjacencyList, (flags & FLAG_SCENE_OMITTED) != 0, sceneVertexIds, sceneVertexCenters, sceneEdges);
+        }
+    }
+
+    // Check that arrays describe a well formed adjacency list, so a damaged file cannot send algorithms out of
+    // bounds later.
+    private static void checkArrays(int vertexCount, int slotCount, int idByteCount, int[] offsets, int[] targets, int[] vertexOrder,
+                                    int[] idOffsets) throws IOException {
+        boolean valid = (offsets[0] == 0) && (offsets[vertexCount] == slotCount) && (idOffsets[0] == 0) && (idOffsets[vertexCount] == idByteCount);
+        for (int vertex = 0; valid && (vertex < vertexCount); vertex++) {
+            valid = (offsets[vertex] <= offsets[vertex + 1]) && (idOffsets[vertex] <= idOffsets[vertex + 1]);
+        }
+        for (int slot = 0; valid && (slot < slotCount); slot++) {
+            valid = isInRange(targets[slot], vertexCount);
+        }
+
+        // Vertex order must name every vertex once.
+        BitSet orderedVertices = new BitSet(vertexCount);
+        for (int rank = 0; valid && (rank < vertexCount); rank++) {
+            valid = isInRange(vertexOrder[rank], vertexCount) && !orderedVertices.get(vertexOrder[rank]);
+            orderedVertices.set(Math.max(0, vertexOrder[rank]));
+        }
+
+        if (!valid) {
+            throw new IOException("Graph snapshot is damaged.");
+        }
+    }
+
+    private static boolean isInRange(int value, int count) {
+        return (value >= 0) && (value < count);
+    }
+
+    // Buffered little endian writer. The buffer only goes out when full, so progress is reported on whole
+    // megabytes.
+    private static class SnapshotWriter {
+        private final FileChannel channel;
+        private final long fileSize;
+        private final TraversalMonitor monitor;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        private SnapshotWriter(FileChannel channel, long fileSize, TraversalMonitor monitor) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.monitor = monitor;
+        }
+
+        private void putInt(int value) throws IOException {
+            if (buffer.remaining() >= Integer.BYTES) {
+                buffer.putInt(value);
+                return;
+            }
+            // Split int across buffer flush.
+            for (int i = 0; i < Integer.BYTES; i++) {
+                putByte((byte) (value >>> (8 * i)));
+            }
+        }
+
+        private void putByte(byte value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(value);
+        }
+
+        private void putBytes(byte[] values) throws IOException {
+            int position = 0;
+            while (position < values.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), values.length - position);
+                buffer.put(values, position, length);
+                position += length;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+            monitor.update((int) (written >> 10), (int) (fileSize >> 10));
+        }
+    }
+
+    // Little endian reader over the mapped file. Arrays are copied out of mapped windows in slices ending on
+    // megabyte boundaries, so progress lands on the monitor's check points.
+    private static class SnapshotReader {
+        private final FileChannel channel;
+        private final TraversalMonitor monitor;
+        private final long fileSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        private SnapshotReader(FileChannel channel, TraversalMonitor monitor) throws IOException {
+            this.channel = channel;
+            this.monitor = monitor;
+            this.fileSize = channel.size();
+        }
+
+        private int getInt() throws IOException {
+            return getInts(1)[0];
+        }
+
+        private int[] getInts(int count) throws IOException {
+            // Throw exception if file ends before array does.
+            if (position + (long) count * Integer.BYTES > fileSize) {
+                throw new IOException("Graph snapshot is damaged.");
+            }
+
+            int[] values = new int[count];
+            int copied = 0;
+            while (copied < count) {
+                mapWindow();
+                int sliceCount = (int) Math.min(count - copied, getSliceSize() / Integer.BYTES);
+                // Read int straddling a window or slice boundary byte by byte.
+                if (sliceCount == 0) {
+                    int value = 0;
+                    for (int i = 0; i < Integer.BYTES; i++) {
+                        value |= (getBytes(1)[0] & 0xFF) << (8 * i);
+                    }
+                    values[copied++] = value;
+                    continue;
+                }
+                window.slice((int) (position - windowStart), sliceCount * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer()
+                        .get(values, copied, sliceCount);
+                copied += sliceCount;
+                advance((long) sliceCount * Integer.BYTES);
+            }
+            return values;
+        }
+
+        private byte[] getBytes(int count) throws IOException {
+            if (position + count > fileSize) {
+                throw new IOException("Graph snapshot is damaged.");
+            }
+
+            byte[] values = new byte[count];
+            int copied = 0;
+            while (copied < count) {
+                mapWindow();
+                int sliceCount = (int) Math.min(count - copied, getSliceSize());
+                window.get((int) (position - windowStart), values, copied, sliceCount);
+                copied += sliceCount;
+                advance(sliceCount);
+            }
+            return values;
+        }
+
+        // Get number of bytes up to next megabyte boundary or end of mapped window.
+        private long getSliceSize() {
+            return Math.min((position / COPY_SIZE + 1) * COPY_SIZE, windowStart + window.capacity()) - position;
+        }
+
+        // Map window holding current position if the current one does not.
+        private void mapWindow() throws IOException {
+            if ((window == null) || (position < windowStart) || (position >= windowStart + window.capacity())) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, fileSize - windowStart));
+            }
+        }
+
+        private void advance(long byteCount) {
+            position += byteCount;
+            monitor.update((int) (position >> 10), (int) (fileSize >> 10));
+        }
+    }
+}
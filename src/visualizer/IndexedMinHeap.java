@@ -0,0 +1,158 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Binary min heap of dense integer elements with decrease-key support.
+//
+// Elements are integers in the range [0, capacity). Each element carries a long key. Elements with equal
+// keys come out of the heap in ascending element order.
+public class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] positions;
+    private final long[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int element) {
+        return positions[element] != -1;
+    }
+
+    public long getKey(int element) {
+        return keys[element];
+    }
+
+    // Add element to heap.
+    public void insert(int element, long key) {
+        // Throw exception if element is already in heap.
+        if (contains(element)) {
+            throw new IllegalArgumentException("Element is already in heap.");
+        }
+
+        keys[element] = key;
+        heap[size] = element;
+        positions[element] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    // Lower key of element already in heap.
+    public void decreaseKey(int element, long key) {
+        // Throw exception if element is not in heap or key would grow.
+        if (!contains(element)) {
+            throw new IllegalArgumentException("Element is not in heap.");
+        }
+        if (key > keys[element]) {
+            throw new IllegalArgumentException("Key is larger than current key.");
+        }
+
+        keys[element] = key;
+        siftUp(positions[element]);
+    }
+
+    // Add element to heap, or lower its key if it is already there.
+    public void insertOrDecreaseKey(int element, long key) {
+        if (contains(element)) {
+            decreaseKey(element, key);
+        } else {
+            insert(element, key);
+        }
+    }
+
+    // Return element with smallest key without removing it.
+    public int peekMin() {
+        // Throw exception if heap is empty.
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+
+        return heap[0];
+    }
+
+    // Remove and return element with smallest key.
+    public int removeMin() {
+        // Throw exception if heap is empty.
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+
+        int minimumElement = heap[0];
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        positions[minimumElement] = -1;
+        return minimumElement;
+    }
+
+    // Empty heap so it can be reused.
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int element = heap[position];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parentElement = heap[parentPosition];
+            // Stop when parent is already smaller.
+            if (!isLess(element, parentElement)) {
+                break;
+            }
+            heap[position] = parentElement;
+            positions[parentElement] = position;
+            position = parentPosition;
+        }
+        heap[position] = element;
+        positions[element] = position;
+    }
+
+    private void siftDown(int position) {
+        int element = heap[position];
+        while (true) {
+            int childPosition = 2 * position + 1;
+            if (childPosition >= size) {
+                break;
+            }
+            // Pick smaller of the two children.
+            if ((childPosition + 1 < size) && isLess(heap[childPosition + 1], heap[childPosition])) {
+                childPosition++;
+            }
+            int childElement = heap[childPosition];
+            // Stop when element is already smaller than both children.
+            if (!isLess(childElement, element)) {
+                break;
+            }
+            heap[position] = childElement;
+            positions[childElement] = position;
+            position = childPosition;
+        }
+        heap[position] = element;
+        positions[element] = position;
+    }
+
+    private boolean isLess(int element1, int element2) {
+        long key1 = keys[element1];
+        long key2 = keys[element2];
+        return (key1 < key2) || ((key1 == key2) && (element1 < element2));
+    }
+}
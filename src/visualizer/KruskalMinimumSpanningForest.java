@@ -0,0 +1,53 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Kruskal's algorithm for a minimum spanning forest.
+//
+// Edge keys are gathered and sorted on the common fork/join pool. The sorted edges are then scanned once on the
+// calling thread, keeping every edge that joins two different components of a path-halving union-find. Self
+// loops are left out up front. An undirected edge stored both ways is scanned twice, but its second copy
+// always finds both ends joined already.
+class KruskalMinimumSpanningForest {
+    private static final int CHUNK_SIZE = 1024;
+
+    static MinimumSpanningForest search(AdjacencySnapshot snapshot, TraversalMonitor monitor) {
+        int vertexCount = snapshot.getVertexCount();
+
+        // Note source vertex of each slot and key of each edge. Self loops sort last and are never scanned.
+        int[] slotSources = new int[snapshot.getEdgeCount()];
+        long[] edgeKeys = new long[snapshot.getEdgeCount()];
+        int chunkCount = (vertexCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int chunkEnd = Math.min(vertexCount, (chunk + 1) * CHUNK_SIZE);
+            for (int vertex = chunk * CHUNK_SIZE; vertex < chunkEnd; vertex++) {
+                for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                    slotSources[slot] = vertex;
+                    edgeKeys[slot] = (snapshot.getTarget(slot) != vertex) ? MinimumSpanningForest.getEdgeKey(snapshot, slot) : Long.MAX_VALUE;
+                }
+            }
+        });
+        Arrays.parallelSort(edgeKeys);
+
+        // Keep cheapest edges that join two trees, until every vertex is in one tree or edges run out.
+        int[] fromVertices = new int[Math.max(0, vertexCount - 1)];
+        int[] toVertices = new int[fromVertices.length];
+        int[] weights = new int[fromVertices.length];
+        int edgeCount = 0;
+        UnionFind components = new UnionFind(vertexCount);
+        for (int position = 0; (position < edgeKeys.length) && (edgeKeys[position] != Long.MAX_VALUE) && (edgeCount < fromVertices.length); position++) {
+            monitor.update(position, edgeKeys.length);
+            int slot = (int) edgeKeys[position];
+            int fromVertex = slotSources[slot];
+            int toVertex = snapshot.getTarget(slot);
+            if (components.union(fromVertex, toVertex)) {
+                fromVertices[edgeCount] = fromVertex;
+                toVertices[edgeCount] = toVertex;
+                weights[edgeCount] = snapshot.getWeight(slot);
+                edgeCount++;
+            }
+        }
+        return new MinimumSpanningForest(snapshot, fromVertices, toVertices, weights, edgeCount);
+    }
+}
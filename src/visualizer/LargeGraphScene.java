@@ -0,0 +1,565 @@
+package visualizer;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+// Drawing of a graph too large to hold a Vertex and Edge per element, from flat vertex position arrays.
+//
+// Vertices are filed under their cell of a square grid, 2^MAXIMUM_LEVEL cells a side, laid over the layout and
+// sorted by the Morton code of that cell. Each coarser level merges four cells into one, so the vertices under
+// a cell of any level are one run of the sorted vertices, and the cells under it are one run of the next
+// level. Edges are merged per level into one line per pair of cells they join, heaviest first.
+//
+// Each frame picks the level whose cells are a few pixels wide and walks down the levels into cells in view
+// only. If the view holds few enough vertices they are drawn one by one, as circles once they are large enough
+// and with ids and weights once those fit. Otherwise each cell in view is a dot and the heaviest cell pairs in
+// view are lines, written straight into a pixel buffer. Frame cost depends on what is shown, not graph size.
+public class LargeGraphScene {
+    private static final int MAXIMUM_LEVEL = 12;
+    private static final int GRID_SIZE = 1 << MAXIMUM_LEVEL;
+
+    // Distance between neighbors of spiral layout.
+    private static final int LAYOUT_SPACING = Vertex.VERTEX_DIAMETER;
+
+    // Narrowest cell drawn as one dot, in pixels.
+    private static final int CELL_PIXELS = 3;
+    private static final int DOT_PIXELS = 2;
+    private static final int MAXIMUM_DETAILED_VERTICES = 2000;
+    private static final int MAXIMUM_DRAWN_EDGES = 20000;
+    private static final int MAXIMUM_EDGE_PIXELS = 1 << 19;
+
+    private final AdjacencySnapshot snapshot;
+    private final float[] xs;
+    private final float[] ys;
+
+    // World area covered by grid.
+    private final double originX;
+    private final double originY;
+    private final double size;
+
+    // Vertex numbers sorted by Morton code of their finest cell.
+    private final int[] sortedVertices;
+
+    // Per level: Morton codes of occupied cells in ascending order, start of each cell's run of sorted vertices,
+    // and start of each cell's run of cells on the next level. Starts have one extra entry marking the end.
+    private final int[][] cells = new int[MAXIMUM_LEVEL + 1][];
+    private final int[][] vertexStarts = new int[MAXIMUM_LEVEL + 1][];
+    private final int[][] childStarts = new int[MAXIMUM_LEVEL][];
+
+    // Per level: pairs of joined cells, lower Morton code in high half, and number of edges between them.
+    // Heaviest pair first.
+    private final long[][] edgeCells = new long[MAXIMUM_LEVEL + 1][];
+    private final int[][] edgeCounts = new int[MAXIMUM_LEVEL + 1][];
+
+    // Scratch space of paint(). Only used on event dispatch thread.
+    private final CellList visibleCells = new CellList();
+    private final CellList nextVisibleCells = new CellList();
+    private BufferedImage image;
+    private int[] pixels;
+
+    // Create scene of snapshot vertices at given world positions, indexed by vertex number.
+    public LargeGraphScene(AdjacencySnapshot snapshot, float[] xs, float[] ys, TraversalMonitor monitor) {
+        int vertexCount = snapshot.getVertexCount();
+        if ((xs.length < vertexCount) || (ys.length < vertexCount)) {
+            throw new IllegalArgumentException("Every vertex needs a position.");
+        }
+        this.snapshot = snapshot;
+        this.xs = xs;
+        this.ys = ys;
+
+        // Lay square grid over positions.
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            minX = Math.min(minX, xs[vertex]);
+            minY = Math.min(minY, ys[vertex]);
+            maxX = Math.max(maxX, xs[vertex]);
+            maxY = Math.max(maxY, ys[vertex]);
+        }
+        originX = (vertexCount > 0) ? minX : 0;
+        originY = (vertexCount > 0) ? minY : 0;
+        size = (vertexCount > 0) ? Math.max(Math.max(maxX - minX, maxY - minY), 1) : 1;
+
+        // Sort vertices by finest cell, then merge cells level by level.
+        int[] vertexCells = new int[vertexCount];
+        long[] keys = new long[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            vertexCells[vertex] = getMortonCode(toGrid(xs[vertex] - originX), toGrid(ys[vertex] - originY));
+            keys[vertex] = ((long) vertexCells[vertex] << 32) | vertex;
+        }
+        Arrays.parallelSort(keys);
+        sortedVertices = new int[vertexCount];
+        for (int position = 0; position < vertexCount; position++) {
+            sortedVertices[position] = (int) keys[position];
+        }
+        buildFinestCells(keys);
+        for (int level = MAXIMUM_LEVEL - 1; level >= 0; level--) {
+            buildCells(level);
+        }
+
+        // Merge edges level by level. Edges are stored both ways round, so take each from its lower vertex.
+        long[] pairs = new long[snapshot.getEdgeCount()];
+        int pairCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                int target = snapshot.getTarget(slot);
+                if ((target > vertex) && (vertexCells[vertex] != vertexCells[target])) {
+                    int startCell = Math.min(vertexCells[vertex], vertexCells[target]);
+                    int endCell = Math.max(vertexCells[vertex], vertexCells[target]);
+                    pairs[pairCount++] = ((long) startCell << 32) | endCell;
+                }
+            }
+            monitor.update(vertex, vertexCount);
+        }
+        Arrays.parallelSort(pairs, 0, pairCount);
+        buildFinestEdges(pairs, pairCount);
+        for (int level = MAXIMUM_LEVEL - 1; level >= 0; level--) {
+            buildEdges(level);
+        }
+        for (int level = 0; level <= MAXIMUM_LEVEL; level++) {
+            sortHeaviestFirst(level);
+        }
+    }
+
+    // Create scene with vertices laid out on a sunflower spiral in vertex number order, for graphs that come
+    // without positions.
+    public static LargeGraphScene withSpiralLayout(AdjacencySnapshot snapshot, TraversalMonitor monitor) {
+        final double goldenAngle = Math.PI * (3 - Math.sqrt(5));
+        float[] xs = new float[snapshot.getVertexCount()];
+        float[] ys = new float[snapshot.getVertexCount()];
+        for (int vertex = 0; vertex < xs.length; vertex++) {
+            double radius = LAYOUT_SPACING * Math.sqrt(vertex);
+            xs[vertex] = (float) (radius * Math.cos(vertex * goldenAngle));
+            ys[vertex] = (float) (radius * Math.sin(vertex * goldenAngle));
+        }
+        return new LargeGraphScene(snapshot, xs, ys, monitor);
+    }
+
+    public AdjacencySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Get vertex positions, indexed by vertex number. Arrays are shared with scene and must not be changed.
+    float[] getXs() {
+        return xs;
+    }
+
+    float[] getYs() {
+        return ys;
+    }
+
+    // Get world area covered by vertex positions.
+    public Rectangle2D getBounds() {
+        return new Rectangle2D.Double(originX, originY, size, size);
+    }
+
+    private void buildFinestCells(long[] keys) {
+        int cellCount = 0;
+        for (int position = 0; position < keys.length; position++) {
+            if ((position == 0) || ((keys[position] >>> 32) != (keys[position - 1] >>> 32))) {
+                cellCount++;
+            }
+        }
+        int[] levelCells = new int[cellCount];
+        int[] levelStarts = new int[cellCount + 1];
+        int cell = -1;
+        for (int position = 0; position < keys.length; position++) {
+            if ((position == 0) || ((keys[position] >>> 32) != (keys[position - 1] >>> 32))) {
+                cell++;
+                levelCells[cell] = (int) (keys[position] >>> 32);
+                levelStarts[cell] = position;
+            }
+        }
+        levelStarts[cellCount] = keys.length;
+        cells[MAXIMUM_LEVEL] = levelCells;
+        vertexStarts[MAXIMUM_LEVEL] = levelStarts;
+    }
+
+    // Merge cells of next level four to one. Morton order keeps merged cells next to each other.
+    private void buildCells(int level) {
+        int[] childCells = cells[level + 1];
+        int cellCount = 0;
+        for (int child = 0; child < childCells.length; child++) {
+            if ((child == 0) || ((childCells[child] >>> 2) != (childCells[child - 1] >>> 2))) {
+                cellCount++;
+            }
+        }
+        int[] levelCells = new int[cellCount];
+        int[] levelVertexStarts = new int[cellCount + 1];
+        int[] levelChildStarts = new int[cellCount + 1];
+        int cell = -1;
+        for (int child = 0; child < childCells.length; child++) {
+            if ((child == 0) || ((childCells[child] >>> 2) != (childCells[child - 1] >>> 2))) {
+                cell++;
+                levelCells[cell] = childCells[child] >>> 2;
+                levelVertexStarts[cell] = vertexStarts[level + 1][child];
+                levelChildStarts[cell] = child;
+            }
+        }
+        levelVertexStarts[cellCount] = sortedVertices.length;
+        levelChildStarts[cellCount] = childCells.length;
+        cells[level] = levelCells;
+        vertexStarts[level] = levelVertexStarts;
+        childStarts[level] = levelChildStarts;
+    }
+
+    private void buildFinestEdges(long[] pairs, int pairCount) {
+        int mergedCount = 0;
+        for (int pair = 0; pair < pairCount; pair++) {
+            if ((pair == 0) || (pairs[pair] != pairs[pair - 1])) {
+                mergedCount++;
+            }
+        }
+        long[] levelEdgeCells = new long[mergedCount];
+        int[] levelEdgeCounts = new int[mergedCount];
+        int merged = -1;
+        for (int pair = 0; pair < pairCount; pair++) {
+            if ((pair == 0) || (pairs[pair] != pairs[pair - 1])) {
+                merged++;
+                levelEdgeCells[merged] = pairs[pair];
+            }
+            levelEdgeCounts[merged]++;
+        }
+        edgeCells[MAXIMUM_LEVEL] = levelEdgeCells;
+        edgeCounts[MAXIMUM_LEVEL] = levelEdgeCounts;
+    }
+
+    // Merge cell pairs of next level into pairs of the cells holding them, dropping pairs that end up inside
+    // one cell. Pairs are still sorted by start cell, so only the end cells of each start cell need sorting.
+    private void buildEdges(int level) {
+        long[] childEdgeCells = edgeCells[level + 1];
+        int[] childEdgeCounts = edgeCounts[level + 1];
+        long[] levelEdgeCells = new long[childEdgeCells.length];
+        int[] levelEdgeCounts = new int[childEdgeCells.length];
+        long[] group = new long[Math.max(1, childEdgeCells.length)];
+        int mergedCount = 0;
+        int childPair = 0;
+        while (childPair < childEdgeCells.length) {
+            // Collect end cells of pairs with same start cell, with their edge counts in low half.
+            int startCell = (int) (childEdgeCells[childPair] >>> 32) >>> 2;
+            int groupSize = 0;
+            while ((childPair < childEdgeCells.length) && (((int) (childEdgeCells[childPair] >>> 32) >>> 2) == startCell)) {
+                int endCell = (int) childEdgeCells[childPair] >>> 2;
+                if (endCell != startCell) {
+                    group[groupSize++] = ((long) endCell << 32) | childEdgeCounts[childPair];
+                }
+                childPair++;
+            }
+            Arrays.sort(group, 0, groupSize);
+
+            // Add up edge counts of equal pairs.
+            for (int member = 0; member < groupSize; member++) {
+                int endCell = (int) (group[member] >>> 32);
+                if ((member == 0) || (endCell != (int) (group[member - 1] >>> 32))) {
+                    levelEdgeCells[mergedCount++] = ((long) startCell << 32) | endCell;
+                }
+                levelEdgeCounts[mergedCount - 1] += (int) group[member];
+            }
+        }
+        edgeCells[level] = Arrays.copyOf(levelEdgeCells, mergedCount);
+        edgeCounts[level] = Arrays.copyOf(levelEdgeCounts, mergedCount);
+    }
+
+    private void sortHeaviestFirst(int level) {
+        long[] levelEdgeCells = edgeCells[level];
+        int[] levelEdgeCounts = edgeCounts[level];
+        long[] order = new long[levelEdgeCells.length];
+        for (int pair = 0; pair < order.length; pair++) {
+            order[pair] = ((long) (Integer.MAX_VALUE - levelEdgeCounts[pair]) << 32) | pair;
+        }
+        Arrays.parallelSort(order);
+        long[] sortedEdgeCells = new long[order.length];
+        int[] sortedEdgeCounts = new int[order.length];
+        for (int position = 0; position < order.length; position++) {
+            sortedEdgeCells[position] = levelEdgeCells[(int) order[position]];
+            sortedEdgeCounts[position] = levelEdgeCounts[(int) order[position]];
+        }
+        edgeCells[level] = sortedEdgeCells;
+        edgeCounts[level] = sortedEdgeCounts;
+    }
+
+    // Draw part of scene inside clip, in screen coordinates of viewport.
+    public void paint(Graphics2D g2d, Viewport viewport, Rectangle clip) {
+        if (sortedVertices.length == 0) {
+            return;
+        }
+
+        // Find cells of a few pixels that overlap clip, or vertex circles reaching into it.
+        double scale = viewport.getScale();
+        int level = (int) Math.floor(Math.log(size * scale / CELL_PIXELS) / Math.log(2));
+        level = Math.max(0, Math.min(MAXIMUM_LEVEL, level));
+        Rectangle2D worldClip = viewport.toWorld(clip);
+        double reach = Vertex.VERTEX_DIAMETER / 2.0;
+        worldClip.setRect(worldClip.getX() - reach, worldClip.getY() - reach, worldClip.getWidth() + 2 * reach, worldClip.getHeight() + 2 * reach);
+        findCells(level, worldClip);
+
+        // Are there few enough vertices to draw one by one?
+        int visibleVertexCount = 0;
+        for (int visibleCell = 0; visibleCell < visibleCells.count; visibleCell++) {
+            int cell = visibleCells.indexes[visibleCell];
+            visibleVertexCount += vertexStarts[level][cell + 1] - vertexStarts[level][cell];
+        }
+        if (visibleVertexCount <= MAXIMUM_DETAILED_VERTICES) {
+            paintVertices(g2d, viewport, level, clip, worldClip);
+        } else {
+            paintCells(g2d, viewport, level, clip);
+        }
+    }
+
+    // Draw vertices in visible cells one by one, with their edges.
+    private void paintVertices(Graphics2D g2d, Viewport viewport, int level, Rectangle clip, Rectangle2D worldClip) {
+        double diameter = Vertex.VERTEX_DIAMETER * viewport.getScale();
+        boolean labeled = diameter >= Vertex.MINIMUM_LABELED_DIAMETER;
+        FontMetrics fontMetrics = g2d.getFontMetrics();
+
+        // Draw edges of visible vertices. An edge between two visible vertices is drawn from its lower vertex.
+        g2d.setColor(Color.WHITE);
+        g2d.setStroke(new BasicStroke(labeled ? 2.0F : 1.0F));
+        int drawnEdgeCount = 0;
+        for (int visibleCell = 0; visibleCell < visibleCells.count; visibleCell++) {
+            int cell = visibleCells.indexes[visibleCell];
+            for (int position = vertexStarts[level][cell]; position < vertexStarts[level][cell + 1]; position++) {
+                int vertex = sortedVertices[position];
+                if (!worldClip.contains(xs[vertex], ys[vertex])) {
+                    continue;
+                }
+                for (int slot = snapshot.getEdgeStart(vertex); (slot < snapshot.getEdgeEnd(vertex)) && (drawnEdgeCount < MAXIMUM_DRAWN_EDGES); slot++) {
+                    int target = snapshot.getTarget(slot);
+                    if ((target == vertex) || ((target < vertex) && worldClip.contains(xs[target], ys[target]))) {
+                        continue;
+                    }
+                    int startX = (int) viewport.toScreenX(xs[vertex]);
+                    int startY = (int) viewport.toScreenY(ys[vertex]);
+                    int endX = (int) viewport.toScreenX(xs[target]);
+                    int endY = (int) viewport.toScreenY(ys[target]);
+                    g2d.drawLine(startX, startY, endX, endY);
+                    if (labeled && clip.contains((startX + endX) / 2, (startY + endY) / 2)) {
+                        g2d.drawString(String.valueOf(snapshot.getWeight(slot)), (startX + endX) / 2 + 5, (startY + endY) / 2 - 5);
+                    }
+                    drawnEdgeCount++;
+                }
+            }
+        }
+
+        // Draw vertices over edges: circles with centered ids once large enough, dots otherwise.
+        int radius = (int) (diameter / 2);
+        for (int visibleCell = 0; visibleCell < visibleCells.count; visibleCell++) {
+            int cell = visibleCells.indexes[visibleCell];
+            for (int position = vertexStarts[level][cell]; position < vertexStarts[level][cell + 1]; position++) {
+                int vertex = sortedVertices[position];
+                int centerX = (int) viewport.toScreenX(xs[vertex]);
+                int centerY = (int) viewport.toScreenY(ys[vertex]);
+                g2d.setColor(Color.WHITE);
+                if (diameter < Vertex.MINIMUM_CIRCLE_DIAMETER) {
+                    g2d.fillRect(centerX - DOT_PIXELS / 2, centerY - DOT_PIXELS / 2, DOT_PIXELS, DOT_PIXELS);
+                    continue;
+                }
+                g2d.fillOval(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+                if (labeled) {
+                    String vertexId = snapshot.getVertexId(vertex);
+                    g2d.setColor(Color.BLACK);
+                    g2d.drawString(vertexId, centerX - fontMetrics.stringWidth(vertexId) / 2, centerY + (fontMetrics.getAscent() - fontMetrics.getDescent()) / 2);
+                }
+            }
+        }
+    }
+
+    // Draw visible cells as dots and the heaviest cell pairs in view as lines, brighter for more vertices or
+    // edges, straight into pixel buffer.
+    private void paintCells(Graphics2D g2d, Viewport viewport, int level, Rectangle clip) {
+        // Reuse pixel buffer while it is large enough for clip.
+        if ((image == null) || (image.getWidth() < clip.width) || (image.getHeight() < clip.height)) {
+            int width = Math.max(clip.width, (image != null) ? image.getWidth() : 0);
+            int height = Math.max(clip.height, (image != null) ? image.getHeight() : 0);
+            image = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        int stride = image.getWidth();
+        for (int row = 0; row < clip.height; row++) {
+            Arrays.fill(pixels, row * stride, row * stride + clip.width, 0);
+        }
+
+        // Draw heaviest cell pairs touching clip, until line or pixel limit is reached.
+        double cellSize = size / (1 << level);
+        long[] levelEdgeCells = edgeCells[level];
+        int[] levelEdgeCounts = edgeCounts[level];
+        int drawnEdgeCount = 0;
+        int drawnPixelCount = 0;
+        for (int pair = 0; (pair < levelEdgeCells.length) && (drawnEdgeCount < MAXIMUM_DRAWN_EDGES) && (drawnPixelCount < MAXIMUM_EDGE_PIXELS); pair++) {
+            int startCell = (int) (levelEdgeCells[pair] >>> 32);
+            int endCell = (int) levelEdgeCells[pair];
+            double startX = viewport.toScreenX(originX + (getGridX(startCell) + 0.5) * cellSize) - clip.x;
+            double startY = viewport.toScreenY(originY + (getGridY(startCell) + 0.5) * cellSize) - clip.y;
+            double endX = viewport.toScreenX(originX + (getGridX(endCell) + 0.5) * cellSize) - clip.x;
+            double endY = viewport.toScreenY(originY + (getGridY(endCell) + 0.5) * cellSize) - clip.y;
+            if ((Math.max(startX, endX) < 0) || (Math.min(startX, endX) >= clip.width)
+                    || (Math.max(startY, endY) < 0) || (Math.min(startY, endY) >= clip.height)) {
+                continue;
+            }
+            drawnPixelCount += drawLine(startX, startY, endX, endY, clip.width, clip.height, getShade(levelEdgeCounts[pair], 48));
+            drawnEdgeCount++;
+        }
+
+        // Draw one dot per visible cell over lines.
+        int[] levelCells = cells[level];
+        for (int visibleCell = 0; visibleCell < visibleCells.count; visibleCell++) {
+            int cell = visibleCells.indexes[visibleCell];
+            int dotX = (int) (viewport.toScreenX(originX + (getGridX(levelCells[cell]) + 0.5) * cellSize) - clip.x) - DOT_PIXELS / 2;
+            int dotY = (int) (viewport.toScreenY(originY + (getGridY(levelCells[cell]) + 0.5) * cellSize) - clip.y) - DOT_PIXELS / 2;
+            int shade = getShade(vertexStarts[level][cell + 1] - vertexStarts[level][cell], 128);
+            for (int y = Math.max(0, dotY); y < Math.min(clip.height, dotY + DOT_PIXELS); y++) {
+                for (int x = Math.max(0, dotX); x < Math.min(clip.width, dotX + DOT_PIXELS); x++) {
+                    pixels[y * stride + x] = Math.max(pixels[y * stride + x], shade);
+                }
+            }
+        }
+
+        g2d.drawImage(image, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, 0, 0, clip.width, clip.height, null);
+    }
+
+    // Get gray that brightens from base with each doubling of count.
+    private static int getShade(int count, int base) {
+        int value = Math.min(255, base + 16 * (31 - Integer.numberOfLeadingZeros(count)));
+        return (value << 16) | (value << 8) | value;
+    }
+
+    // Draw line into pixel buffer, keeping brighter pixels already there. Line is cut to buffer area first.
+    // Returns number of pixels drawn.
+    private int drawLine(double startX, double startY, double endX, double endY, int width, int height, int shade) {
+        // Cut line to area, keeping part between parameters low and high.
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double low = 0;
+        double high = 1;
+        double[] directions = {-dx, dx, -dy, dy};
+        double[] distances = {startX, width - 1 - startX, startY, height - 1 - startY};
+        for (int side = 0; side < 4; side++) {
+            if (directions[side] == 0) {
+                if (distances[side] < 0) {
+                    return 0;
+                }
+            } else {
+                double parameter = distances[side] / directions[side];
+                if (directions[side] < 0) {
+                    low = Math.max(low, parameter);
+                } else {
+                    high = Math.min(high, parameter);
+                }
+            }
+        }
+        if (low > high) {
+            return 0;
+        }
+
+        // Step along longer axis one pixel at a time.
+        double fromX = startX + low * dx;
+        double fromY = startY + low * dy;
+        int steps = (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)) * (high - low));
+        double stepX = (steps > 0) ? (dx * (high - low)) / steps : 0;
+        double stepY = (steps > 0) ? (dy * (high - low)) / steps : 0;
+        int stride = image.getWidth();
+        for (int step = 0; step <= steps; step++) {
+            int x = (int) (fromX + step * stepX);
+            int y = (int) (fromY + step * stepY);
+            if ((x >= 0) && (x < width) && (y >= 0) && (y < height)) {
+                pixels[y * stride + x] = Math.max(pixels[y * stride + x], shade);
+            }
+        }
+        return steps + 1;
+    }
+
+    // Find cells on level overlapping world area, walking down from whole grid into overlapping cells only.
+    // Leaves their indexes in visibleCells.
+    private void findCells(int level, Rectangle2D worldArea) {
+        int firstGridX = toGrid(worldArea.getMinX() - originX);
+        int lastGridX = toGrid(worldArea.getMaxX() - originX);
+        int firstGridY = toGrid(worldArea.getMinY() - originY);
+        int lastGridY = toGrid(worldArea.getMaxY() - originY);
+        visibleCells.count = 0;
+        if ((worldArea.getMaxX() < originX) || (worldArea.getMinX() > originX + size) || (worldArea.getMaxY() < originY)
+                || (worldArea.getMinY() > originY + size)) {
+            return;
+        }
+
+        // Whole grid is one cell on level zero.
+        visibleCells.add(0);
+        for (int parentLevel = 0; parentLevel < level; parentLevel++) {
+            int shift = MAXIMUM_LEVEL - parentLevel - 1;
+            nextVisibleCells.count = 0;
+            for (int visibleCell = 0; visibleCell < visibleCells.count; visibleCell++) {
+                int parent = visibleCells.indexes[visibleCell];
+                for (int child = childStarts[parentLevel][parent]; child < childStarts[parentLevel][parent + 1]; child++) {
+                    int gridX = getGridX(cells[parentLevel + 1][child]);
+                    int gridY = getGridY(cells[parentLevel + 1][child]);
+                    if ((gridX >= firstGridX >> shift) && (gridX <= lastGridX >> shift) && (gridY >= firstGridY >> shift) && (gridY <= lastGridY >> shift)) {
+                        nextVisibleCells.add(child);
+                    }
+                }
+            }
+            visibleCells.swap(nextVisibleCells);
+        }
+    }
+
+    // Get finest grid column or row of world offset from grid origin.
+    private int toGrid(double offset) {
+        return (int) Math.max(0, Math.min(GRID_SIZE - 1, Math.floor(offset / size * GRID_SIZE)));
+    }
+
+    // Interleave bits of grid column and row, column first.
+    private static int getMortonCode(int gridX, int gridY) {
+        return spreadBits(gridX) | (spreadBits(gridY) << 1);
+    }
+
+    private static int getGridX(int mortonCode) {
+        return gatherBits(mortonCode);
+    }
+
+    private static int getGridY(int mortonCode) {
+        return gatherBits(mortonCode >>> 1);
+    }
+
+    // Move bit i of value to bit 2i.
+    private static int spreadBits(int value) {
+        value &= 0x0000FFFF;
+        value = (value | (value << 8)) & 0x00FF00FF;
+        value = (value | (value << 4)) & 0x0F0F0F0F;
+        value = (value | (value << 2)) & 0x33333333;
+        return (value | (value << 1)) & 0x55555555;
+    }
+
+    // Move bit 2i of value to bit i.
+    private static int gatherBits(int value) {
+        value &= 0x55555555;
+        value = (value | (value >>> 1)) & 0x33333333;
+        value = (value | (value >>> 2)) & 0x0F0F0F0F;
+        value = (value | (value >>> 4)) & 0x00FF00FF;
+        return (value | (value >>> 8)) & 0x0000FFFF;
+    }
+
+    // Growable list of cell indexes.
+    private static class CellList {
+        private int[] indexes = new int[64];
+        private int count;
+
+        void add(int index) {
+            if (count == indexes.length) {
+                indexes = Arrays.copyOf(indexes, 2 * count);
+            }
+            indexes[count++] = index;
+        }
+
+        void swap(CellList other) {
+            int[] swappedIndexes = indexes;
+            int swappedCount = count;
+            indexes = other.indexes;
+            count = other.count;
+            other.indexes = swappedIndexes;
+            other.count = swappedCount;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package visualizer;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.io.File;
 
 public class MainFrame extends JFrame {
     public static final int APP_WIDTH = 800;
@@ -16,6 +19,9 @@ public class MainFrame extends JFrame {
 
     private static final String MENU_FILE = "File";
     private static final String MENU_ITEM_NEW = "New";
+    private static final String MENU_ITEM_OPEN = "Open";
+    private static final String MENU_ITEM_SAVE = "Save";
+    private static final String MENU_ITEM_IMPORT = "Import";
     private static final String MENU_ITEM_EXIT = "Exit";
 
     private static final String MENU_MODE = "Mode";
@@ -34,13 +40,36 @@ public class MainFrame extends JFrame {
         }
     }
 
+    private static final String MENU_VIEW = "View";
+    private static final String MENU_ITEM_SINGLE_CANVAS = "Single Canvas Rendering";
+    private static final String MENU_ITEM_RESULTS = "Results";
+    private static final String MENU_ITEM_RESET_ZOOM = "Reset Zoom";
+    private static final String MENU_ITEM_AUTO_LAYOUT = "Auto Layout";
+
     private static final String MENU_ALGORITHMS = "Algorithms";
+    private static final String MENU_ITEM_LIVE_SHORTEST_PATHS = "Live Shortest Paths";
+    private static final String MENU_ITEM_DELTA_STEPPING = "Parallel Dijkstra (Delta-Stepping)";
+    private static final String MENU_ITEM_DISTANCE_MATRIX = "All-Pairs Distance Matrix";
+    private static final String MENU_ITEM_DRAMATIC_PAUSE = "Dramatic Pause";
+    private static final String MENU_ITEM_ANIMATE = "Animate Traversal";
+    private static final String MENU_ANIMATION_FRAME_RATE = "Animation Frame Rate";
+    private static final String MENU_ITEM_CANCEL = "Cancel";
+
+    private static final int PROGRESS_WIDTH = 100;
+    private static final int PROGRESS_REFRESH_MILLISECONDS = 100;
+
+    private static final int[] ANIMATION_FRAME_RATES = {2, 5, 10, 30, 60};
+    private static final int DEFAULT_ANIMATION_FRAME_RATE = 10;
+
+    // Information display shows at most this many rows of results. The results window has all of them.
+    private static final int INFORMATION_RESULT_ROW_LIMIT = 100;
 
     public enum Algorithm {
         DEPTH_FIRST_SEARCH("Depth-First Search", "DFS"),
         BREADTH_FIRST_SEARCH("Breadth-First Search", "BFS"),
         DIJKSTRAS_ALGORITHM("Dijkstra's Algorithm", "DA"),
         PRIMS_ALGORITHM("Prim's Algorithm", "PA"),
+        MINIMUM_SPANNING_FOREST("Minimum Spanning Forest", "MSF"),
         NONE("None", "NONE");
 
         public final String name;
@@ -62,6 +91,22 @@ public class MainFrame extends JFrame {
 
     private final JLabel informationLabel = new JLabel();
 
+    private final JProgressBar progressBar = new JProgressBar(0, 100);
+
+    private final Timer progressTimer = new Timer(PROGRESS_REFRESH_MILLISECONDS, null);
+
+    private final JCheckBoxMenuItem liveShortestPathsMenuItem = new JCheckBoxMenuItem(MENU_ITEM_LIVE_SHORTEST_PATHS, false);
+
+    private final JCheckBoxMenuItem dramaticPauseMenuItem = new JCheckBoxMenuItem(MENU_ITEM_DRAMATIC_PAUSE, true);
+
+    private final JCheckBoxMenuItem animateMenuItem = new JCheckBoxMenuItem(MENU_ITEM_ANIMATE, false);
+
+    // Latest traversal results, or null if there are none yet.
+    private TraversalResult latestResults;
+
+    // Results window, or null until it is first opened.
+    private ResultsWindow resultsWindow;
+
     // Initialize main frame.
     public MainFrame() {
         super("Graph-Algorithms Visualizer");
@@ -101,6 +146,12 @@ public class MainFrame extends JFrame {
         informationLabel.setHorizontalAlignment(JLabel.CENTER);
         informationLabel.setForeground(Color.BLACK);
         informationPanel.add(informationLabel);
+
+        progressBar.setName("Progress");
+        progressBar.setBounds(APP_WIDTH - PROGRESS_WIDTH - 5, 4, PROGRESS_WIDTH, INFORMATION_HEIGHT - 8);
+        progressBar.setVisible(false);
+        informationPanel.add(progressBar);
+        informationPanel.setComponentZOrder(progressBar, 0);
         add(informationPanel);
         updateInformationLabel("");
 
@@ -138,11 +189,26 @@ public class MainFrame extends JFrame {
         newMenuItem.setName(MENU_ITEM_NEW);
         newMenuItem.addActionListener(new FileMenuActionListener(MENU_ITEM_NEW));
 
+        JMenuItem openMenuItem = new JMenuItem(MENU_ITEM_OPEN);
+        openMenuItem.setName(MENU_ITEM_OPEN);
+        openMenuItem.addActionListener(new FileMenuActionListener(MENU_ITEM_OPEN));
+
+        JMenuItem saveMenuItem = new JMenuItem(MENU_ITEM_SAVE);
+        saveMenuItem.setName(MENU_ITEM_SAVE);
+        saveMenuItem.addActionListener(new FileMenuActionListener(MENU_ITEM_SAVE));
+
+        JMenuItem importMenuItem = new JMenuItem(MENU_ITEM_IMPORT);
+        importMenuItem.setName(MENU_ITEM_IMPORT);
+        importMenuItem.addActionListener(new FileMenuActionListener(MENU_ITEM_IMPORT));
+
         JMenuItem exitMenuItem = new JMenuItem(MENU_ITEM_EXIT);
         exitMenuItem.setName(MENU_ITEM_EXIT);
         exitMenuItem.addActionListener(new FileMenuActionListener(MENU_ITEM_EXIT));
 
         fileMenu.add(newMenuItem);
+        fileMenu.add(openMenuItem);
+        fileMenu.add(saveMenuItem);
+        fileMenu.add(importMenuItem);
         fileMenu.add(exitMenuItem);
         menuBar.add(fileMenu);
 
@@ -177,6 +243,33 @@ public class MainFrame extends JFrame {
         modeMenu.add(noneMenuItem);
         menuBar.add(modeMenu);
 
+        // View menu.
+        JMenu viewMenu = new JMenu(MENU_VIEW);
+        viewMenu.setName(MENU_VIEW);
+
+        JCheckBoxMenuItem singleCanvasMenuItem = new JCheckBoxMenuItem(MENU_ITEM_SINGLE_CANVAS, false);
+        singleCanvasMenuItem.setName(MENU_ITEM_SINGLE_CANVAS);
+        singleCanvasMenuItem.addActionListener(e -> graphPanel.setRenderMode(
+                singleCanvasMenuItem.isSelected() ? Graph.RenderMode.CANVAS : Graph.RenderMode.COMPONENTS));
+
+        JMenuItem resultsMenuItem = new JMenuItem(MENU_ITEM_RESULTS);
+        resultsMenuItem.setName(MENU_ITEM_RESULTS);
+        resultsMenuItem.addActionListener(e -> showResultsWindow());
+
+        JMenuItem resetZoomMenuItem = new JMenuItem(MENU_ITEM_RESET_ZOOM);
+        resetZoomMenuItem.setName(MENU_ITEM_RESET_ZOOM);
+        resetZoomMenuItem.addActionListener(e -> graphPanel.resetZoom());
+
+        JMenuItem autoLayoutMenuItem = new JMenuItem(MENU_ITEM_AUTO_LAYOUT);
+        autoLayoutMenuItem.setName(MENU_ITEM_AUTO_LAYOUT);
+        autoLayoutMenuItem.addActionListener(e -> graphPanel.layoutGraph());
+
+        viewMenu.add(singleCanvasMenuItem);
+        viewMenu.add(resetZoomMenuItem);
+        viewMenu.add(autoLayoutMenuItem);
+        viewMenu.add(resultsMenuItem);
+        menuBar.add(viewMenu);
+
         // Algorithms menu.
         JMenu algorithmsMenu = new JMenu(MENU_ALGORITHMS);
         algorithmsMenu.setName(MENU_ALGORITHMS);
@@ -197,10 +290,62 @@ public class MainFrame extends JFrame {
         primsAlgorithmMenuItem.setName(Algorithm.PRIMS_ALGORITHM.name);
         primsAlgorithmMenuItem.addActionListener(new AlgorithmsMenuActionListener(Algorithm.PRIMS_ALGORITHM));
 
+        JMenuItem minimumSpanningForestMenuItem = new JMenuItem(Algorithm.MINIMUM_SPANNING_FOREST.name);
+        minimumSpanningForestMenuItem.setName(Algorithm.MINIMUM_SPANNING_FOREST.name);
+        minimumSpanningForestMenuItem.addActionListener(new AlgorithmsMenuActionListener(Algorithm.MINIMUM_SPANNING_FOREST));
+
+        JMenuItem distanceMatrixMenuItem = new JMenuItem(MENU_ITEM_DISTANCE_MATRIX);
+        distanceMatrixMenuItem.setName(MENU_ITEM_DISTANCE_MATRIX);
+        distanceMatrixMenuItem.addActionListener(e -> writeDistanceMatrix());
+
+        liveShortestPathsMenuItem.setName(MENU_ITEM_LIVE_SHORTEST_PATHS);
+        liveShortestPathsMenuItem.addActionListener(e -> {
+            if (!liveShortestPathsMenuItem.isSelected()) {
+                graphPanel.stopLiveShortestPaths();
+            }
+        });
+
+        JCheckBoxMenuItem deltaSteppingMenuItem = new JCheckBoxMenuItem(MENU_ITEM_DELTA_STEPPING, false);
+        deltaSteppingMenuItem.setName(MENU_ITEM_DELTA_STEPPING);
+        deltaSteppingMenuItem.addActionListener(e -> graphPanel.setShortestPathEngine(
+                deltaSteppingMenuItem.isSelected() ? Traversal.ShortestPathEngine.DELTA_STEPPING : Traversal.ShortestPathEngine.HEAP));
+
+        dramaticPauseMenuItem.setName(MENU_ITEM_DRAMATIC_PAUSE);
+
+        animateMenuItem.setName(MENU_ITEM_ANIMATE);
+
+        // Frame rate choices for traversal animation.
+        JMenu animationFrameRateMenu = new JMenu(MENU_ANIMATION_FRAME_RATE);
+        animationFrameRateMenu.setName(MENU_ANIMATION_FRAME_RATE);
+        ButtonGroup animationFrameRateGroup = new ButtonGroup();
+        for (int frameRate : ANIMATION_FRAME_RATES) {
+            String label = String.format("%d Frames per Second", frameRate);
+            JRadioButtonMenuItem frameRateMenuItem = new JRadioButtonMenuItem(label, frameRate == DEFAULT_ANIMATION_FRAME_RATE);
+            frameRateMenuItem.setName(label);
+            frameRateMenuItem.addActionListener(e -> graphPanel.setPlaybackFrameRate(frameRate));
+            animationFrameRateGroup.add(frameRateMenuItem);
+            animationFrameRateMenu.add(frameRateMenuItem);
+        }
+        graphPanel.setPlaybackFrameRate(DEFAULT_ANIMATION_FRAME_RATE);
+
+        JMenuItem cancelMenuItem = new JMenuItem(MENU_ITEM_CANCEL);
+        cancelMenuItem.setName(MENU_ITEM_CANCEL);
+        cancelMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0));
+        cancelMenuItem.addActionListener(e -> cancelAlgorithm());
+
         algorithmsMenu.add(depthFirstSearchMenuItem);
         algorithmsMenu.add(breadthFirstSearchMenuItem);
         algorithmsMenu.add(dijkstrasAlgorithmMenuItem);
         algorithmsMenu.add(primsAlgorithmMenuItem);
+        algorithmsMenu.add(minimumSpanningForestMenuItem);
+        algorithmsMenu.add(distanceMatrixMenuItem);
+        algorithmsMenu.addSeparator();
+        algorithmsMenu.add(liveShortestPathsMenuItem);
+        algorithmsMenu.add(deltaSteppingMenuItem);
+        algorithmsMenu.add(dramaticPauseMenuItem);
+        algorithmsMenu.add(animateMenuItem);
+        algorithmsMenu.add(animationFrameRateMenu);
+        algorithmsMenu.add(cancelMenuItem);
         menuBar.add(algorithmsMenu);
 
         setJMenuBar(menuBar);
@@ -222,11 +367,12 @@ public class MainFrame extends JFrame {
                     currentMode = Mode.ADD_VERTEX;
                     updateModeLabel();
                     turnOffCurrentAlgorithm();
-                    // Reset graph panel.
+                    // Reset graph panel and its vertex adjacency list.
                     graphPanel.resetPanel();
-                    // Reset vertex adjacency list.
-                    Traversal.resetAdjacencyList();
                 }
+                case MENU_ITEM_OPEN -> openGraph();
+                case MENU_ITEM_SAVE -> saveGraph();
+                case MENU_ITEM_IMPORT -> importGraph();
                 case MENU_ITEM_EXIT -> {
                     // Exit application.
                     setVisible(false);
@@ -277,13 +423,176 @@ public class MainFrame extends JFrame {
             }
             currentAlgorithm = algorithm;
 
+            // Does algorithm cover whole graph? (No starting vertex needed.)
+            if (algorithm == Algorithm.MINIMUM_SPANNING_FOREST) {
+                graphPanel.performAlgorithm(algorithm, "");
+                return;
+            }
+
+            // Is graph too large to draw? (Ask user to type starting vertex.)
+            if (graphPanel.isSceneOmitted()) {
+                String startVertexId = JOptionPane.showInputDialog(MainFrame.this, "Enter the starting Vertex ID:", algorithm.name,
+                        JOptionPane.INFORMATION_MESSAGE);
+                if ((startVertexId == null) || startVertexId.isBlank()) {
+                    turnOffCurrentAlgorithm();
+                    return;
+                }
+                graphPanel.performAlgorithm(algorithm, startVertexId.trim());
+                return;
+            }
+
             // Ask user to choose starting vertex.
             updateInformationLabel("Please choose a starting vertex");
         }
     }
 
+    // Ask user for snapshot file and open it in place of current graph.
+    private void openGraph() {
+        JFileChooser fileChooser = createSnapshotFileChooser(MENU_ITEM_OPEN);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        currentMode = Mode.NONE;
+        updateModeLabel();
+        currentAlgorithm = Algorithm.NONE;
+        graphPanel.openGraph(fileChooser.getSelectedFile().toPath());
+    }
+
+    // Ask user for snapshot file and save current graph to it.
+    private void saveGraph() {
+        JFileChooser fileChooser = createSnapshotFileChooser(MENU_ITEM_SAVE);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        // Add extension if user left it off.
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            file = new File(file.getParentFile(), file.getName() + "." + GraphSnapshotFile.FILE_EXTENSION);
+        }
+        graphPanel.saveGraph(file.toPath());
+    }
+
+    private JFileChooser createSnapshotFileChooser(String title) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(title);
+        fileChooser.setFileFilter(new FileNameExtensionFilter(String.format("Graph snapshots (*.%s)", GraphSnapshotFile.FILE_EXTENSION), GraphSnapshotFile.FILE_EXTENSION));
+        return fileChooser;
+    }
+
+    // Ask user for CSV file and write shortest path distances between all vertices to it.
+    private void writeDistanceMatrix() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(MENU_ITEM_DISTANCE_MATRIX);
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        // Add extension if user left it off.
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            file = new File(file.getParentFile(), file.getName() + ".csv");
+        }
+        currentAlgorithm = Algorithm.NONE;
+        graphPanel.writeDistanceMatrix(file.toPath());
+    }
+
+    // Ask user for CSV file and write traversal results to it.
+    public void exportResults(TraversalResult results) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(MENU_ITEM_RESULTS);
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        if (fileChooser.showSaveDialog(resultsWindow) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        // Add extension if user left it off.
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            file = new File(file.getParentFile(), file.getName() + ".csv");
+        }
+        graphPanel.exportResults(results, file.toPath());
+    }
+
+    // Ask user for graph file and import it in place of current graph.
+    private void importGraph() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(MENU_ITEM_IMPORT);
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Edge lists (*.txt, *.edges, *.el)", "txt", "edges", "el"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("DIMACS graphs (*.gr)", "gr"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        currentMode = Mode.NONE;
+        updateModeLabel();
+        currentAlgorithm = Algorithm.NONE;
+        graphPanel.importGraph(fileChooser.getSelectedFile().toPath(), GraphFileReader.Format.forFileName(fileChooser.getSelectedFile().getName()));
+    }
+
+    // Should Dijkstra's Algorithm keep its results up to date while graph is edited?
+    public boolean isLiveShortestPathsEnabled() {
+        return liveShortestPathsMenuItem.isSelected();
+    }
+
+    // Is pause before displaying algorithm results turned on?
+    public boolean isDramaticPauseEnabled() {
+        return dramaticPauseMenuItem.isSelected();
+    }
+
+    // Should traversals be played back on the graph step by step?
+    public boolean isAnimationEnabled() {
+        return animateMenuItem.isSelected();
+    }
+
+    // Cancel running algorithm or import.
+    private void cancelAlgorithm() {
+        if (graphPanel.cancelAlgorithm()) {
+            turnOffCurrentAlgorithm();
+            updateInformationLabel("Cancelled");
+        }
+    }
+
+    // Show progress of running algorithm until hideProgress is called.
+    public void showProgress(TraversalMonitor monitor) {
+        for (ActionListener listener : progressTimer.getActionListeners()) {
+            progressTimer.removeActionListener(listener);
+        }
+        progressTimer.addActionListener(e -> progressBar.setValue(monitor.getPercentComplete()));
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        progressTimer.start();
+    }
+
+    // Hide progress of algorithm.
+    public void hideProgress() {
+        progressTimer.stop();
+        progressBar.setVisible(false);
+    }
+
     // Update information display label.
     public void updateInformationLabel(String text) {
         informationLabel.setText(text);
     }
+
+    // Display traversal results, cut short in information display label and in full in results window.
+    public void showResults(TraversalResult results) {
+        latestResults = results;
+        updateInformationLabel(results.format(INFORMATION_RESULT_ROW_LIMIT));
+        if (resultsWindow != null) {
+            resultsWindow.setResults(results);
+        }
+    }
+
+    // Open results window on latest traversal results.
+    private void showResultsWindow() {
+        if (resultsWindow == null) {
+            resultsWindow = new ResultsWindow(this);
+        }
+        resultsWindow.setResults(latestResults);
+        resultsWindow.setVisible(true);
+    }
 }
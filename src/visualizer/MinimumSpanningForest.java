@@ -0,0 +1,136 @@
+package visualizer;
+
+import java.util.Arrays;
+
+// Edges of a minimum spanning forest: one minimum spanning tree for each connected component of a snapshot.
+// Vertices are numbered like in the snapshot.
+//
+// Edges are taken as undirected, so a directed edge joins its two vertices either way. Edges are compared by
+// weight and then by snapshot slot. That order has no ties, which makes the forest unique, so every engine
+// finds exactly the same edges.
+public class MinimumSpanningForest {
+    private final AdjacencySnapshot snapshot;
+    private final int[] fromVertices;
+    private final int[] toVertices;
+    private final int[] weights;
+    private final int edgeCount;
+    private final long totalWeight;
+
+    MinimumSpanningForest(AdjacencySnapshot snapshot, int[] fromVertices, int[] toVertices, int[] weights, int edgeCount) {
+        this.snapshot = snapshot;
+        this.fromVertices = fromVertices;
+        this.toVertices = toVertices;
+        this.weights = weights;
+        this.edgeCount = edgeCount;
+
+        long totalWeight = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            totalWeight += weights[edge];
+        }
+        this.totalWeight = totalWeight;
+    }
+
+    // Get ordering key of edge in slot: weight in the high half and slot in the low half.
+    static long getEdgeKey(AdjacencySnapshot snapshot, int slot) {
+        return ((long) snapshot.getWeight(slot) << 32) | slot;
+    }
+
+    // Get vertex whose edges include slot.
+    static int getSlotSource(AdjacencySnapshot snapshot, int slot) {
+        // Find last vertex whose edges start at or before slot.
+        int low = 0;
+        int high = snapshot.getVertexCount() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (snapshot.getEdgeStart(middle) <= slot) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    public AdjacencySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getFromVertex(int edge) {
+        return fromVertices[edge];
+    }
+
+    public int getToVertex(int edge) {
+        return toVertices[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    // Get sum of edge weights.
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    // Get number of trees, isolated vertices included.
+    public int getTreeCount() {
+        return snapshot.getVertexCount() - edgeCount;
+    }
+
+    // Get parent of each vertex, with each tree hanging from its vertex with the lowest id. Roots get -1.
+    public int[] getParentVertices() {
+        int vertexCount = snapshot.getVertexCount();
+
+        // Lay out forest edges in both directions, grouped by vertex.
+        int[] offsets = new int[vertexCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            offsets[fromVertices[edge] + 1]++;
+            offsets[toVertices[edge] + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] += offsets[vertex];
+        }
+        int[] neighbors = new int[2 * edgeCount];
+        int[] positions = Arrays.copyOf(offsets, vertexCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            neighbors[positions[fromVertices[edge]]++] = toVertices[edge];
+            neighbors[positions[toVertices[edge]]++] = fromVertices[edge];
+        }
+
+        // Walk each tree from its lowest vertex id, in vertex id order.
+        int[] parentVertices = new int[vertexCount];
+        boolean[] visitedVertices = new boolean[vertexCount];
+        int[] stack = new int[vertexCount];
+        for (int rank = 0; rank < vertexCount; rank++) {
+            int rootVertex = snapshot.getVertexByRank(rank);
+            if (visitedVertices[rootVertex]) {
+                continue;
+            }
+            visitedVertices[rootVertex] = true;
+            parentVertices[rootVertex] = -1;
+            int stackSize = 0;
+            stack[stackSize++] = rootVertex;
+            while (stackSize > 0) {
+                int vertex = stack[--stackSize];
+                for (int position = offsets[vertex]; position < offsets[vertex + 1]; position++) {
+                    int neighborVertex = neighbors[position];
+                    if (!visitedVertices[neighborVertex]) {
+                        visitedVertices[neighborVertex] = true;
+                        parentVertices[neighborVertex] = vertex;
+                        stack[stackSize++] = neighborVertex;
+                    }
+                }
+            }
+        }
+        return parentVertices;
+    }
+
+    // Get results for display, formatted as "b=a, c=b" child parent pairs when asked for.
+    public TraversalResult toResult() {
+        return ChildParentResult.of(snapshot, getParentVertices());
+    }
+}
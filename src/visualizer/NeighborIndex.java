@@ -0,0 +1,105 @@
+package visualizer;
+
+import java.util.Arrays;
+
+// Open addressing hash table from neighbor vertex to where the edge to that neighbor is stored, for the edges
+// of one vertex.
+//
+// Neighbors and locations are plain ints, probed linearly. Removal shifts later entries of the probe run back
+// instead of leaving tombstones, so lookups never slow down as edges come and go.
+class NeighborIndex {
+    static final int ABSENT = Integer.MIN_VALUE;
+
+    private static final int EMPTY = -1;
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private int[] neighbors;
+    private int[] locations;
+    private int size;
+
+    NeighborIndex(int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity *= 2;
+        }
+        neighbors = new int[capacity];
+        locations = new int[capacity];
+        Arrays.fill(neighbors, EMPTY);
+    }
+
+    // Get location of edge to neighbor, or ABSENT if there is none.
+    int get(int neighbor) {
+        int mask = neighbors.length - 1;
+        for (int position = hash(neighbor) & mask; neighbors[position] != EMPTY; position = (position + 1) & mask) {
+            if (neighbors[position] == neighbor) {
+                return locations[position];
+            }
+        }
+        return ABSENT;
+    }
+
+    // Set location of edge to neighbor, adding neighbor if it is not there yet.
+    void put(int neighbor, int location) {
+        // Grow table before it gets more than half full.
+        if (2 * (size + 1) > neighbors.length) {
+            resize(neighbors.length * 2);
+        }
+
+        int mask = neighbors.length - 1;
+        int position = hash(neighbor) & mask;
+        while (neighbors[position] != EMPTY) {
+            if (neighbors[position] == neighbor) {
+                locations[position] = location;
+                return;
+            }
+            position = (position + 1) & mask;
+        }
+        neighbors[position] = neighbor;
+        locations[position] = location;
+        size++;
+    }
+
+    // Remove neighbor if it is there.
+    void remove(int neighbor) {
+        int mask = neighbors.length - 1;
+        int position = hash(neighbor) & mask;
+        while (neighbors[position] != neighbor) {
+            if (neighbors[position] == EMPTY) {
+                return;
+            }
+            position = (position + 1) & mask;
+        }
+
+        // Move later entries of probe run into gap if gap lies between their home position and them.
+        int gap = position;
+        for (position = (gap + 1) & mask; neighbors[position] != EMPTY; position = (position + 1) & mask) {
+            int home = hash(neighbors[position]) & mask;
+            if (((position - home) & mask) >= ((position - gap) & mask)) {
+                neighbors[gap] = neighbors[position];
+                locations[gap] = locations[position];
+                gap = position;
+            }
+        }
+        neighbors[gap] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        int[] oldNeighbors = neighbors;
+        int[] oldLocations = locations;
+        neighbors = new int[capacity];
+        locations = new int[capacity];
+        Arrays.fill(neighbors, EMPTY);
+        size = 0;
+        for (int position = 0; position < oldNeighbors.length; position++) {
+            if (oldNeighbors[position] != EMPTY) {
+                put(oldNeighbors[position], oldLocations[position]);
+            }
+        }
+    }
+
+    private static int hash(int neighbor) {
+        int hash = neighbor * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
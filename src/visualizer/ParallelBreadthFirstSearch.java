@@ -0,0 +1,243 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// Direction optimizing breadth first search, run level by level on the common fork/join pool.
+//
+// A top-down step splits the frontier into chunks. Each worker follows the edges of its chunk and claims
+// unvisited neighbors with a compare-and-set on the visited bitset, so every vertex gets exactly one parent.
+// Once the frontier holds many of the edges not yet explored, a bottom-up step is cheaper: each worker takes a
+// range of unvisited vertices and looks through their incoming edges for any frontier vertex, stopping at the
+// first one. Bottom-up ranges cover whole bitset words, so no two workers share a word. Incoming edges come
+// from the transpose of the snapshot, which is only built if a bottom-up step is taken.
+//
+// The switch between directions follows Beamer, Asanovic and Patterson: go bottom-up when a growing frontier
+// has more than 1/TOP_DOWN_FACTOR of the unexplored edges, and back top-down when a shrinking frontier drops
+// below 1/BOTTOM_UP_FACTOR of the vertices.
+class ParallelBreadthFirstSearch {
+    private static final int TOP_DOWN_FACTOR = 14;
+    private static final int BOTTOM_UP_FACTOR = 24;
+    private static final int TOP_DOWN_CHUNK_SIZE = 1024;
+    private static final int BOTTOM_UP_CHUNK_WORDS = 64;
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+    private final AdjacencySnapshot snapshot;
+    private AdjacencySnapshot transpose;
+    private final int vertexCount;
+    private final int wordCount;
+
+    private final int[] levels;
+    private final int[] parentVertices;
+    private final AtomicLongArray visitedVertices;
+
+    // Frontier as vertex list for top-down steps.
+    private int[] frontier;
+    private int[] nextFrontier;
+    private int frontierSize;
+    private final AtomicInteger nextFrontierSize = new AtomicInteger();
+
+    // Frontier as bitset for bottom-up steps.
+    private long[] frontierBits;
+    private long[] nextFrontierBits;
+
+    private ParallelBreadthFirstSearch(AdjacencySnapshot snapshot) {
+        this.snapshot = snapshot;
+        vertexCount = snapshot.getVertexCount();
+        wordCount = (vertexCount + Long.SIZE - 1) / Long.SIZE;
+        levels = new int[vertexCount];
+        parentVertices = new int[vertexCount];
+        visitedVertices = new AtomicLongArray(wordCount);
+        frontier = new int[vertexCount];
+        nextFrontier = new int[vertexCount];
+    }
+
+    // Search snapshot from start vertex, which may be -1 if start vertex id is not in snapshot.
+    static BreadthFirstSearchTree search(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor) {
+        return new ParallelBreadthFirstSearch(snapshot).search(startVertex, monitor);
+    }
+
+    private BreadthFirstSearchTree search(int startVertex, TraversalMonitor monitor) {
+        Arrays.fill(levels, -1);
+        Arrays.fill(parentVertices, -1);
+        if (startVertex == -1) {
+            return new BreadthFirstSearchTree(snapshot, startVertex, levels, parentVertices, 0, 0);
+        }
+
+        // Mark bits past last vertex as visited, so bottom-up steps never look at them.
+        if ((vertexCount % Long.SIZE) != 0) {
+            visitedVertices.set(wordCount - 1, -1L << vertexCount);
+        }
+
+        // Start from start vertex.
+        levels[startVertex] = 0;
+        visitedVertices.set(startVertex / Long.SIZE, visitedVertices.get(startVertex / Long.SIZE) | (1L << startVertex));
+        frontier[0] = startVertex;
+        frontierSize = 1;
+        long frontierEdgeCount = getDegree(startVertex);
+        long unexploredEdgeCount = snapshot.getEdgeCount() - frontierEdgeCount;
+        int reachedVertexCount = 1;
+        int previousFrontierSize = 0;
+        boolean bottomUp = false;
+
+        int level = 0;
+        while (frontierSize > 0) {
+            monitor.updateNow(reachedVertexCount, vertexCount);
+
+            // Switch direction if the other one looks cheaper for next level.
+            if (!bottomUp && (frontierSize > previousFrontierSize) && (frontierEdgeCount > unexploredEdgeCount / TOP_DOWN_FACTOR)) {
+                convertFrontierToBits();
+                bottomUp = true;
+            } else if (bottomUp && (frontierSize < previousFrontierSize) && (frontierSize < vertexCount / BOTTOM_UP_FACTOR)) {
+                convertFrontierToList();
+                bottomUp = false;
+            }
+
+            // Expand frontier by one level.
+            previousFrontierSize = frontierSize;
+            level++;
+            frontierEdgeCount = bottomUp ? expandBottomUp(level) : expandTopDown(level);
+            unexploredEdgeCount -= frontierEdgeCount;
+            reachedVertexCount += frontierSize;
+        }
+        return new BreadthFirstSearchTree(snapshot, startVertex, levels, parentVertices, reachedVertexCount, level - 1);
+    }
+
+    // Expand frontier list top-down. Returns edge count of new frontier.
+    private long expandTopDown(int level) {
+        nextFrontierSize.set(0);
+        int chunkCount = (frontierSize + TOP_DOWN_CHUNK_SIZE - 1) / TOP_DOWN_CHUNK_SIZE;
+        long frontierEdgeCount = IntStream.range(0, chunkCount).parallel().mapToLong(chunk -> expandTopDown(chunk, level)).sum();
+
+        int[] swappedFrontier = frontier;
+        frontier = nextFrontier;
+        nextFrontier = swappedFrontier;
+        frontierSize = nextFrontierSize.get();
+        return frontierEdgeCount;
+    }
+
+    private long expandTopDown(int chunk, int level) {
+        int[] foundVertices = new int[INITIAL_BUFFER_CAPACITY];
+        int foundVertexCount = 0;
+        long foundEdgeCount = 0;
+
+        // Claim unvisited neighbors of frontier vertices in chunk.
+        int chunkEnd = Math.min(frontierSize, (chunk + 1) * TOP_DOWN_CHUNK_SIZE);
+        for (int position = chunk * TOP_DOWN_CHUNK_SIZE; position < chunkEnd; position++) {
+            int vertex = frontier[position];
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                int neighborVertex = snapshot.getTarget(slot);
+                if (!claimVertex(neighborVertex)) {
+                    continue;
+                }
+                levels[neighborVertex] = level;
+                parentVertices[neighborVertex] = vertex;
+                if (foundVertexCount == foundVertices.length) {
+                    foundVertices = Arrays.copyOf(foundVertices, foundVertices.length * 2);
+                }
+                foundVertices[foundVertexCount++] = neighborVertex;
+                foundEdgeCount += getDegree(neighborVertex);
+            }
+        }
+
+        // Copy found vertices into next frontier in one block.
+        int nextFrontierPosition = nextFrontierSize.getAndAdd(foundVertexCount);
+        System.arraycopy(foundVertices, 0, nextFrontier, nextFrontierPosition, foundVertexCount);
+        return foundEdgeCount;
+    }
+
+    // Mark vertex as visited. Returns false if it already was.
+    private boolean claimVertex(int vertex) {
+        int word = vertex / Long.SIZE;
+        long bit = 1L << vertex;
+        while (true) {
+            long visitedWord = visitedVertices.get(word);
+            if ((visitedWord & bit) != 0) {
+                return false;
+            }
+            if (visitedVertices.compareAndSet(word, visitedWord, visitedWord | bit)) {
+                return true;
+            }
+        }
+    }
+
+    // Expand frontier bitset bottom-up. Returns edge count of new frontier.
+    private long expandBottomUp(int level) {
+        nextFrontierSize.set(0);
+        int chunkCount = (wordCount + BOTTOM_UP_CHUNK_WORDS - 1) / BOTTOM_UP_CHUNK_WORDS;
+        long frontierEdgeCount = IntStream.range(0, chunkCount).parallel().mapToLong(chunk -> expandBottomUp(chunk, level)).sum();
+
+        long[] swappedFrontierBits = frontierBits;
+        frontierBits = nextFrontierBits;
+        nextFrontierBits = swappedFrontierBits;
+        frontierSize = nextFrontierSize.get();
+        return frontierEdgeCount;
+    }
+
+    private long expandBottomUp(int chunk, int level) {
+        int foundVertexCount = 0;
+        long foundEdgeCount = 0;
+
+        int chunkEnd = Math.min(wordCount, (chunk + 1) * BOTTOM_UP_CHUNK_WORDS);
+        for (int word = chunk * BOTTOM_UP_CHUNK_WORDS; word < chunkEnd; word++) {
+            long foundBits = 0;
+
+            // Look for a frontier vertex among incoming neighbors of each unvisited vertex in word.
+            long unvisitedBits = ~visitedVertices.get(word);
+            while (unvisitedBits != 0) {
+                int vertex = word * Long.SIZE + Long.numberOfTrailingZeros(unvisitedBits);
+                unvisitedBits &= unvisitedBits - 1;
+                for (int slot = transpose.getEdgeStart(vertex); slot < transpose.getEdgeEnd(vertex); slot++) {
+                    int neighborVertex = transpose.getTarget(slot);
+                    if ((frontierBits[neighborVertex / Long.SIZE] & (1L << neighborVertex)) != 0) {
+                        levels[vertex] = level;
+                        parentVertices[vertex] = neighborVertex;
+                        foundBits |= 1L << vertex;
+                        foundVertexCount++;
+                        foundEdgeCount += getDegree(vertex);
+                        break;
+                    }
+                }
+            }
+
+            // Word belongs to this chunk alone, so it can be written without compare-and-set.
+            nextFrontierBits[word] = foundBits;
+            if (foundBits != 0) {
+                visitedVertices.set(word, visitedVertices.get(word) | foundBits);
+            }
+        }
+
+        nextFrontierSize.addAndGet(foundVertexCount);
+        return foundEdgeCount;
+    }
+
+    private void convertFrontierToBits() {
+        if (transpose == null) {
+            transpose = snapshot.getTranspose();
+            frontierBits = new long[wordCount];
+            nextFrontierBits = new long[wordCount];
+        } else {
+            Arrays.fill(frontierBits, 0);
+        }
+        for (int position = 0; position < frontierSize; position++) {
+            frontierBits[frontier[position] / Long.SIZE] |= 1L << frontier[position];
+        }
+    }
+
+    private void convertFrontierToList() {
+        frontierSize = 0;
+        for (int word = 0; word < wordCount; word++) {
+            long bits = frontierBits[word];
+            while (bits != 0) {
+                frontier[frontierSize++] = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private int getDegree(int vertex) {
+        return snapshot.getEdgeEnd(vertex) - snapshot.getEdgeStart(vertex);
+    }
+}
@@ -0,0 +1,122 @@
+package visualizer;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+
+// Window listing latest traversal results as a table, one row per vertex.
+//
+// The table model reads cells straight from the result, and the table only asks for rows that are scrolled into
+// view, so results of any size open at once. Search jumps to the next row whose vertex id contains the search
+// text. Export writes the whole table to a CSV file in the background.
+public class ResultsWindow extends JDialog {
+    private static final String TITLE = "Results";
+    private static final String FIND = "Find";
+    private static final String EXPORT = "Export";
+
+    private static final int WINDOW_WIDTH = 400;
+    private static final int WINDOW_HEIGHT = 500;
+
+    private final MainFrame mainFrame;
+
+    private final ResultsTableModel tableModel = new ResultsTableModel();
+
+    private final JTable table = new JTable(tableModel);
+
+    private final JTextField searchField = new JTextField();
+
+    private final JLabel rowCountLabel = new JLabel();
+
+    public ResultsWindow(MainFrame mainFrame) {
+        super(mainFrame, TITLE, false);
+        this.mainFrame = mainFrame;
+        setName(TITLE);
+        setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
+        setLocationRelativeTo(mainFrame);
+        setLayout(new BorderLayout());
+
+        // Add search bar.
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchField.setName("Search");
+        searchField.addActionListener(e -> findNextRow());
+        JButton findButton = new JButton(FIND);
+        findButton.setName(FIND);
+        findButton.addActionListener(e -> findNextRow());
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        searchPanel.add(findButton, BorderLayout.EAST);
+        add(searchPanel, BorderLayout.NORTH);
+
+        // Add results table.
+        table.setName("Results Table");
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        // Add row count and export button.
+        JPanel exportPanel = new JPanel(new BorderLayout(5, 0));
+        rowCountLabel.setName("Row Count");
+        JButton exportButton = new JButton(EXPORT);
+        exportButton.setName(EXPORT);
+        exportButton.addActionListener(e -> {
+            if (tableModel.results != null) {
+                mainFrame.exportResults(tableModel.results);
+            }
+        });
+        exportPanel.add(rowCountLabel, BorderLayout.CENTER);
+        exportPanel.add(exportButton, BorderLayout.EAST);
+        add(exportPanel, BorderLayout.SOUTH);
+
+        setResults(null);
+    }
+
+    // Show given results, or none if null.
+    public void setResults(TraversalResult results) {
+        tableModel.setResults(results);
+        rowCountLabel.setText((results != null) ? String.format("%d rows", results.getRowCount()) : "No results");
+    }
+
+    // Select next row after selected one whose vertex id contains search text.
+    private void findNextRow() {
+        TraversalResult results = tableModel.results;
+        if ((results == null) || searchField.getText().isEmpty()) {
+            return;
+        }
+
+        int row = results.findRow(searchField.getText(), table.getSelectedRow() + 1);
+        if (row == -1) {
+            Toolkit.getDefaultToolkit().beep();
+            return;
+        }
+        table.setRowSelectionInterval(row, row);
+        table.scrollRectToVisible(table.getCellRect(row, 0, true));
+    }
+
+    // Table model reading cells from traversal results as they are shown.
+    private static class ResultsTableModel extends AbstractTableModel {
+        private TraversalResult results;
+
+        void setResults(TraversalResult results) {
+            this.results = results;
+            fireTableStructureChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return (results != null) ? results.getRowCount() : 0;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return (results != null) ? results.getColumnCount() : 0;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return results.getColumnName(column);
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return results.getValue(row, column);
+        }
+    }
+}
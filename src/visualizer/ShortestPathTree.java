@@ -0,0 +1,106 @@
+package visualizer;
+
+import java.util.Arrays;
+
+// Distances and predecessors found by Dijkstra's Algorithm. Vertices are numbered like in the snapshot
+// searched.
+//
+// The predecessor of a vertex is the vertex before it on a shortest path from the start vertex. Following
+// predecessors from any reached vertex leads back to the start vertex.
+public class ShortestPathTree {
+    private final AdjacencySnapshot snapshot;
+    private final int startVertex;
+    private final int[] distances;
+    private final int[] predecessorVertices;
+
+    ShortestPathTree(AdjacencySnapshot snapshot, int startVertex, int[] distances, int[] predecessorVertices) {
+        this.snapshot = snapshot;
+        this.startVertex = startVertex;
+        this.distances = distances;
+        this.predecessorVertices = predecessorVertices;
+    }
+
+    // Find predecessors for distances found without them. Predecessors are picked along edges whose weight
+    // makes up the whole distance difference, breadth first from start vertex, so zero weight cycles cannot
+    // close into predecessor loops.
+    static int[] findPredecessors(AdjacencySnapshot snapshot, int startVertex, int[] distances) {
+        int[] predecessorVertices = new int[snapshot.getVertexCount()];
+        Arrays.fill(predecessorVertices, -1);
+        if (startVertex == -1) {
+            return predecessorVertices;
+        }
+
+        int[] verticesToProcessQueue = new int[snapshot.getVertexCount()];
+        int queueHead = 0;
+        int queueTail = 0;
+        verticesToProcessQueue[queueTail++] = startVertex;
+        predecessorVertices[startVertex] = startVertex;
+        while (queueHead < queueTail) {
+            int vertex = verticesToProcessQueue[queueHead++];
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                // Is edge on a shortest path to a vertex without predecessor yet?
+                int neighborVertex = snapshot.getTarget(slot);
+                if ((predecessorVertices[neighborVertex] == -1) && ((long) distances[vertex] + snapshot.getWeight(slot) == distances[neighborVertex])) {
+                    predecessorVertices[neighborVertex] = vertex;
+                    verticesToProcessQueue[queueTail++] = neighborVertex;
+                }
+            }
+        }
+        predecessorVertices[startVertex] = -1;
+        return predecessorVertices;
+    }
+
+    public AdjacencySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Get start vertex, or -1 if start vertex id is not in snapshot.
+    public int getStartVertex() {
+        return startVertex;
+    }
+
+    // Get distance from start vertex to vertex, or Integer.MAX_VALUE if it cannot be reached.
+    public int getDistance(int vertex) {
+        return distances[vertex];
+    }
+
+    // Get vertex before vertex on its shortest path, or -1 for start vertex and vertices that cannot be
+    // reached.
+    public int getPredecessor(int vertex) {
+        return predecessorVertices[vertex];
+    }
+
+    // Get copy of distances, indexed by vertex.
+    public int[] getDistances() {
+        return Arrays.copyOf(distances, distances.length);
+    }
+
+    // Get copy of predecessors, indexed by vertex.
+    public int[] getPredecessors() {
+        return Arrays.copyOf(predecessorVertices, predecessorVertices.length);
+    }
+
+    // Get vertices on shortest path from start vertex to vertex, both included. Returns an empty path if vertex
+    // cannot be reached.
+    public int[] getPath(int vertex) {
+        if (distances[vertex] == Integer.MAX_VALUE) {
+            return new int[0];
+        }
+
+        // Count path vertices, then fill them in from the end.
+        int pathLength = 1;
+        for (int pathVertex = vertex; predecessorVertices[pathVertex] != -1; pathVertex = predecessorVertices[pathVertex]) {
+            pathLength++;
+        }
+        int[] path = new int[pathLength];
+        for (int position = pathLength - 1, pathVertex = vertex; position >= 0; position--, pathVertex = predecessorVertices[pathVertex]) {
+            path[position] = pathVertex;
+        }
+        return path;
+    }
+
+    // Get results for display, formatted as "b=3, c=4" cost pairs when asked for.
+    public TraversalResult toResult() {
+        return CostPairResult.of(snapshot, distances);
+    }
+}
@@ -0,0 +1,226 @@
+package visualizer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Dijkstra's Algorithm from many source vertices at once, run on a pool of worker threads.
+//
+// Each worker takes the next source vertex, fills its own distance array, formats one row of results and
+// hands it over. Distance arrays, processed vertex lists, heaps and row buffers are allocated once per worker
+// and reused for every source it takes. The calling thread writes rows strictly in source order as soon as
+// they are ready. Workers may run at most a window of rows ahead of the writer, so memory stays bounded no
+// matter how many sources there are.
+public class ShortestPathsBatch {
+    public enum Format {
+        // Start vertex id, a tab and the cost pairs Dijkstra's Algorithm displays.
+        COST_PAIRS,
+        // Comma separated matrix with a header row of vertex ids in id order and one row of distances per
+        // source vertex. Unreachable vertices get an empty cell.
+        DISTANCE_MATRIX
+    }
+
+    private static final int ROWS_PER_WORKER = 4;
+
+    private final AdjacencySnapshot snapshot;
+    private final List<String> sourceVertexIds;
+    private final int[] sourceVertices;
+    private final Format format;
+    private final int workerCount;
+
+    // Rows computed but not written yet, in a ring indexed by source position.
+    private final String[] pendingRows;
+    private int nextRowToWrite;
+    private Throwable workerFailure;
+
+    // Cancels workers when writer stops early.
+    private final TraversalMonitor workerMonitor = new TraversalMonitor();
+    private final AtomicInteger nextSourcePosition = new AtomicInteger();
+
+    // Source vertex ids the snapshot does not have get a row of unreachable vertices.
+    public ShortestPathsBatch(AdjacencySnapshot snapshot, List<String> sourceVertexIds, Format format, int workerCount) {
+        // Throw exception if there would be nobody to do the work.
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be at least one.");
+        }
+
+        this.snapshot = snapshot;
+        this.sourceVertexIds = sourceVertexIds;
+        this.format = format;
+        this.workerCount = Math.min(workerCount, Math.max(1, sourceVertexIds.size()));
+        sourceVertices = new int[sourceVertexIds.size()];
+        for (int position = 0; position < sourceVertices.length; position++) {
+            sourceVertices[position] = snapshot.indexOf(sourceVertexIds.get(position));
+        }
+        pendingRows = new String[this.workerCount * ROWS_PER_WORKER];
+    }
+
+    // Get id of every vertex in snapshot, in vertex id order.
+    public static List<String> getAllVertexIds(AdjacencySnapshot snapshot) {
+        List<String> vertexIds = new ArrayList<>(snapshot.getVertexCount());
+        for (int rank = 0; rank < snapshot.getVertexCount(); rank++) {
+            vertexIds.add(snapshot.getVertexId(snapshot.getVertexByRank(rank)));
+        }
+        return vertexIds;
+    }
+
+    // Write one row per source vertex, in source order. Monitor progress counts rows written.
+    public void write(Writer writer, TraversalMonitor monitor) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "Shortest paths worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int worker = 0; worker < workerCount; worker++) {
+                workers.execute(this::runWorker);
+            }
+
+            if (format == Format.DISTANCE_MATRIX) {
+                writer.write(formatMatrixHeader());
+            }
+            for (int position = 0; position < sourceVertices.length; position++) {
+                writer.write(takeRow(position));
+                monitor.updateNow(position + 1, sourceVertices.length);
+            }
+            writer.flush();
+        } finally {
+            // Stop workers that are still busy if writing failed or was cancelled.
+            workerMonitor.cancel();
+            synchronized (this) {
+                notifyAll();
+            }
+            workers.shutdownNow();
+        }
+    }
+
+    // Wait for row of given source position and free its slot for workers.
+    private synchronized String takeRow(int position) {
+        int slot = position % pendingRows.length;
+        while (pendingRows[slot] == null) {
+            rethrowWorkerFailure();
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Traversal was cancelled.");
+            }
+        }
+
+        String row = pendingRows[slot];
+        pendingRows[slot] = null;
+        nextRowToWrite = position + 1;
+        notifyAll();
+        return row;
+    }
+
+    private void rethrowWorkerFailure() {
+        if (workerFailure instanceof RuntimeException e) {
+            throw e;
+        } else if (workerFailure instanceof Error e) {
+            throw e;
+        }
+    }
+
+    private void runWorker() {
+        try {
+            // Allocate scratch space once for all sources this worker takes.
+            int[] vertexDistances = new int[snapshot.getVertexCount()];
+            BitSet processedVerticesList = new BitSet(snapshot.getVertexCount());
+            IndexedMinHeap unprocessedVerticesHeap = new IndexedMinHeap(snapshot.getVertexCount());
+            StringBuilder row = new StringBuilder();
+
+            int position;
+            while ((position = nextSourcePosition.getAndIncrement()) < sourceVertices.length) {
+                Traversal.findDijkstrasAlgorithmDistances(snapshot, sourceVertices[position], vertexDistances, null, processedVerticesList,
+                        unprocessedVerticesHeap, workerMonitor, TraversalEventBuffer.NONE);
+                row.setLength(0);
+                appendRow(row, sourceVertexIds.get(position), vertexDistances);
+                if (!putRow(position, row.toString())) {
+                    return;
+                }
+            }
+        } catch (CancellationException e) {
+            // Writer stopped early. Nobody is waiting for more rows.
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                workerFailure = e;
+                notifyAll();
+            }
+        }
+    }
+
+    // Hand row over to writer, waiting while it is too far behind. Returns false if writer stopped early.
+    private synchronized boolean putRow(int position, String row) {
+        while (position >= nextRowToWrite + pendingRows.length) {
+            if (workerMonitor.isCancelled()) {
+                return false;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+
+        pendingRows[position % pendingRows.length] = row;
+        notifyAll();
+        return true;
+    }
+
+    private String formatMatrixHeader() {
+        StringBuilder header = new StringBuilder("source");
+        for (int rank = 0; rank < snapshot.getVertexCount(); rank++) {
+            header.append(',');
+            appendCsvField(header, snapshot.getVertexId(snapshot.getVertexByRank(rank)));
+        }
+        return header.append(System.lineSeparator()).toString();
+    }
+
+    private void appendRow(StringBuilder row, String sourceVertexId, int[] vertexDistances) {
+        if (format == Format.COST_PAIRS) {
+            row.append(sourceVertexId).append('\t');
+            Traversal.appendCostPairs(row, snapshot, vertexDistances);
+        } else {
+            appendCsvField(row, sourceVertexId);
+            for (int rank = 0; rank < snapshot.getVertexCount(); rank++) {
+                row.append(',');
+                int distance = vertexDistances[snapshot.getVertexByRank(rank)];
+                if (distance != Integer.MAX_VALUE) {
+                    row.append(distance);
+                }
+            }
+        }
+        row.append(System.lineSeparator());
+    }
+
+    // Append field to CSV line, quoted if it holds a comma, quote or line break (RFC 4180). Quotes inside are
+    // doubled.
+    static void appendCsvField(StringBuilder line, String field) {
+        boolean quoted = false;
+        for (int i = 0; (i < field.length()) && !quoted; i++) {
+            char character = field.charAt(i);
+            quoted = (character == ',') || (character == '"') || (character == '\n') || (character == '\r');
+        }
+        if (!quoted) {
+            line.append(field);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char character = field.charAt(i);
+            if (character == '"') {
+                line.append('"');
+            }
+            line.append(character);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,41 @@
+package visualizer;
+
+import java.util.Arrays;
+
+// Minimum spanning tree found by Prim's Algorithm, as the parent of each vertex. Vertices are numbered like in
+// the snapshot searched.
+public class SpanningTree {
+    private final AdjacencySnapshot snapshot;
+    private final int startVertex;
+    private final int[] parentVertices;
+
+    SpanningTree(AdjacencySnapshot snapshot, int startVertex, int[] parentVertices) {
+        this.snapshot = snapshot;
+        this.startVertex = startVertex;
+        this.parentVertices = parentVertices;
+    }
+
+    public AdjacencySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Get start vertex, which is the root of the tree, or -1 if start vertex id is not in snapshot.
+    public int getStartVertex() {
+        return startVertex;
+    }
+
+    // Get parent of vertex, or -1 for start vertex and vertices outside the tree.
+    public int getParent(int vertex) {
+        return parentVertices[vertex];
+    }
+
+    // Get copy of parents, indexed by vertex.
+    public int[] getParentVertices() {
+        return Arrays.copyOf(parentVertices, parentVertices.length);
+    }
+
+    // Get results for display, formatted as "b=a, c=b" child parent pairs when asked for.
+    public TraversalResult toResult() {
+        return ChildParentResult.of(snapshot, parentVertices);
+    }
+}
@@ -0,0 +1,147 @@
+package visualizer;
+
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Uniform grid over the graph panel for finding items near a point.
+//
+// Each item is filed under every cell its bounds (or line segment) touch, so a point lookup only has to look
+// at the few items in one cell. Callers must remove an item with the same bounds or segment it was added
+// with.
+public class SpatialGrid<T> {
+    private final int cellSize;
+    private final HashMap<Long, ArrayList<T>> cells = new HashMap<>();
+
+    public SpatialGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    // Remove all items.
+    public void clear() {
+        cells.clear();
+    }
+
+    // Add item covering rectangle.
+    public void add(T item, Rectangle bounds) {
+        for (int cellY = toCell(bounds.y); cellY <= toCell(bounds.y + bounds.height); cellY++) {
+            for (int cellX = toCell(bounds.x); cellX <= toCell(bounds.x + bounds.width); cellX++) {
+                cells.computeIfAbsent(cellKey(cellX, cellY), key -> new ArrayList<>(4)).add(item);
+            }
+        }
+    }
+
+    // Remove item covering rectangle.
+    public void remove(T item, Rectangle bounds) {
+        for (int cellY = toCell(bounds.y); cellY <= toCell(bounds.y + bounds.height); cellY++) {
+            for (int cellX = toCell(bounds.x); cellX <= toCell(bounds.x + bounds.width); cellX++) {
+                removeFromCell(item, cellX, cellY);
+            }
+        }
+    }
+
+    // Add item covering line segment widened by margin on each side. Only cells the widened segment passes
+    // through get the item, so long diagonal edges do not fill their whole bounding box.
+    public void add(T item, Line2D segment, int margin) {
+        Rectangle bounds = getSegmentBounds(segment, margin);
+        for (int cellY = toCell(bounds.y); cellY <= toCell(bounds.y + bounds.height); cellY++) {
+            for (int cellX = toCell(bounds.x); cellX <= toCell(bounds.x + bounds.width); cellX++) {
+                if (segmentTouchesCell(segment, margin, cellX, cellY)) {
+                    cells.computeIfAbsent(cellKey(cellX, cellY), key -> new ArrayList<>(4)).add(item);
+                }
+            }
+        }
+    }
+
+    // Remove item covering line segment widened by margin on each side.
+    public void remove(T item, Line2D segment, int margin) {
+        Rectangle bounds = getSegmentBounds(segment, margin);
+        for (int cellY = toCell(bounds.y); cellY <= toCell(bounds.y + bounds.height); cellY++) {
+            for (int cellX = toCell(bounds.x); cellX <= toCell(bounds.x + bounds.width); cellX++) {
+                if (segmentTouchesCell(segment, margin, cellX, cellY)) {
+                    removeFromCell(item, cellX, cellY);
+                }
+            }
+        }
+    }
+
+    // Get items that may include point. Callers still have to test each candidate exactly.
+    public List<T> getCandidates(int x, int y) {
+        ArrayList<T> cell = cells.get(cellKey(toCell(x), toCell(y)));
+        return (cell != null) ? cell : Collections.emptyList();
+    }
+
+    // Get items filed under cells that overlap area. Callers still have to test each item exactly.
+    public LinkedHashSet<T> getItemsIn(Rectangle area) {
+        LinkedHashSet<T> items = new LinkedHashSet<>();
+        int firstCellX = toCell(area.x);
+        int lastCellX = toCell(area.x + area.width);
+        int firstCellY = toCell(area.y);
+        int lastCellY = toCell(area.y + area.height);
+
+        // Walk occupied cells instead of area cells when area spans more cells than are occupied.
+        long areaCellCount = (long) (lastCellX - firstCellX + 1) * (lastCellY - firstCellY + 1);
+        if (areaCellCount > cells.size()) {
+            for (Map.Entry<Long, ArrayList<T>> cellEntry : cells.entrySet()) {
+                int cellX = (int) (cellEntry.getKey() >> 32);
+                int cellY = (int) (long) cellEntry.getKey();
+                if ((cellX >= firstCellX) && (cellX <= lastCellX) && (cellY >= firstCellY) && (cellY <= lastCellY)) {
+                    items.addAll(cellEntry.getValue());
+                }
+            }
+            return items;
+        }
+
+        for (int cellY = firstCellY; cellY <= lastCellY; cellY++) {
+            for (int cellX = firstCellX; cellX <= lastCellX; cellX++) {
+                ArrayList<T> cell = cells.get(cellKey(cellX, cellY));
+                if (cell != null) {
+                    items.addAll(cell);
+                }
+            }
+        }
+        return items;
+    }
+
+    private void removeFromCell(T item, int cellX, int cellY) {
+        long key = cellKey(cellX, cellY);
+        ArrayList<T> cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+
+        // Swap last item into removed position. Order within a cell does not matter.
+        int position = cell.indexOf(item);
+        if (position != -1) {
+            int lastPosition = cell.size() - 1;
+            cell.set(position, cell.get(lastPosition));
+            cell.remove(lastPosition);
+        }
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private boolean segmentTouchesCell(Line2D segment, int margin, int cellX, int cellY) {
+        return segment.intersects(cellX * cellSize - margin, cellY * cellSize - margin, cellSize + 2 * margin, cellSize + 2 * margin);
+    }
+
+    private static Rectangle getSegmentBounds(Line2D segment, int margin) {
+        Rectangle bounds = segment.getBounds();
+        bounds.grow(margin, margin);
+        return bounds;
+    }
+
+    private int toCell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -1,277 +1,641 @@
 package visualizer;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
-
+import java.util.function.Function;
+
+// Traversal engine for one graph.
+//
+// Edits lock the engine. Each query takes an immutable snapshot of the adjacency list under the lock and then
+// runs on it without locking, keeping its own scratch state, so any number of queries can run at once from
+// different threads while the graph is being edited.
+//
+// Query results are cached by query, start vertex and graph version. Every edit bumps the version, so repeated
+// queries on an unchanged graph are answered from the cache and queries after an edit are always run again.
+//
+// Shortest paths from one start vertex can also be tracked. They are then repaired along with every edit
+// instead of being recomputed, see DynamicShortestPaths.
 public class Traversal {
-    private static TreeMap<String, TreeSet<Map.Entry<String, Integer>>> vertexAdjacencyList = new TreeMap<>();
+    public static final int DEFAULT_RESULT_CACHE_CAPACITY = 64;
+
+    // Ways of running Dijkstra's Algorithm. Both give the same cost pairs.
+    public enum ShortestPathEngine {
+        // Binary heap on the calling thread.
+        HEAP,
+        // Delta-stepping on the common fork/join pool. Falls back to the heap when a weight is negative.
+        DELTA_STEPPING
+    }
+
+    // Ways of finding a minimum spanning forest. Both find the same edges.
+    public enum SpanningForestEngine {
+        // Boruvka's algorithm, picking cheapest edges on the common fork/join pool.
+        BORUVKA,
+        // Kruskal's algorithm, sorting edges on the common fork/join pool.
+        KRUSKAL
+    }
+
+    // At most this many result array elements are cached, so big results cannot take over the heap.
+    private static final long MAXIMUM_CACHED_RESULT_SIZE = Runtime.getRuntime().maxMemory() / 64;
+
+    private AdjacencyStore vertexAdjacencyList = new AdjacencyStore();
+    private long graphVersion;
+    private final TraversalResultCache resultCache;
+
+    private volatile ShortestPathEngine shortestPathEngine = ShortestPathEngine.HEAP;
+    private volatile int deltaSteppingDelta;
+
+    // Shortest paths kept up to date through edits, or null if none are tracked.
+    private DynamicShortestPaths trackedShortestPaths;
+
+    public Traversal() {
+        this(DEFAULT_RESULT_CACHE_CAPACITY);
+    }
 
-    private static LinkedHashSet<String> processedVerticesList = new LinkedHashSet<>();
-    private static final StringBuilder results = new StringBuilder();
+    // Create engine caching up to given number of query results. Zero turns caching off.
+    public Traversal(int resultCacheCapacity) {
+        if (resultCacheCapacity < 0) {
+            throw new IllegalArgumentException("Result cache capacity cannot be negative.");
+        }
+        resultCache = new TraversalResultCache(resultCacheCapacity, MAXIMUM_CACHED_RESULT_SIZE);
+    }
 
     // Reset vertex adjacency list.
-    public static void resetAdjacencyList() {
-        vertexAdjacencyList = new TreeMap<>();
+    public synchronized void resetAdjacencyList() {
+        vertexAdjacencyList = new AdjacencyStore();
+        graphVersion++;
+        resultCache.clear();
+        trackedShortestPaths = null;
+    }
+
+    // Replace vertex adjacency list, for example with one loaded from a file.
+    public synchronized void replaceAdjacencyList(AdjacencyStore adjacencyList) {
+        vertexAdjacencyList = adjacencyList;
+        graphVersion++;
+        resultCache.clear();
+        trackedShortestPaths = null;
     }
 
     // Add adjacency list entry.
-    public static void addAdjacentVertex(String fromVertexId, String toVertexId, int weight) {
-        // Add from vertex to adjacency list if it does not yet exist.
-        if (!vertexAdjacencyList.containsKey(fromVertexId)) {
-            // Configure comparator to sort entries in from vertex list by weight.
-            vertexAdjacencyList.put(fromVertexId, new TreeSet<>(
-                    new Comparator<>() {
-                        @Override
-                        public int compare(Map.Entry<String, Integer> e1, Map.Entry<String, Integer> e2) {
-                            int e1Value = e1.getValue();
-                            int e2Value = e2.getValue();
-                            if (e1Value < e2Value) {
-                                return -1;
-                            } else if (e1Value > e2Value) {
-                                return 1;
-                            } else {
-                                return e1.getKey().compareTo(e2.getKey());
-                            }
-                        }
-                    }));
+    public synchronized void addAdjacentVertex(String fromVertexId, String toVertexId, int weight) {
+        boolean added = vertexAdjacencyList.addEdge(fromVertexId, toVertexId, weight);
+        graphVersion++;
+
+        // Let tracked shortest paths know about edge addition.
+        if ((trackedShortestPaths != null) && added) {
+            while (trackedShortestPaths.getVertexCount() < vertexAdjacencyList.getVertexCount()) {
+                trackedShortestPaths.addVertex(vertexAdjacencyList.getVertexId(trackedShortestPaths.getVertexCount()));
+            }
+            trackedShortestPaths.addEdge(vertexAdjacencyList.indexOf(fromVertexId), vertexAdjacencyList.indexOf(toVertexId), weight);
         }
-
-        // Add to vertex to from vertex list.
-        TreeSet<Map.Entry<String, Integer>> fromVertexList = vertexAdjacencyList.get(fromVertexId);
-        fromVertexList.add(new AbstractMap.SimpleEntry<>(toVertexId, weight));
     }
 
     // Remove adjacency list entry.
-    public static void removeAdjacentVertex(String fromVertexId, String toVertexId) {
-        // Throw exception if from vertex is not in adjacency list.
-        if (!vertexAdjacencyList.containsKey(fromVertexId)) {
-            throw new IllegalArgumentException("From vertex id is not in adjacency list.");
+    public synchronized void removeAdjacentVertex(String fromVertexId, String toVertexId) {
+        int weight = vertexAdjacencyList.removeEdge(fromVertexId, toVertexId);
+        graphVersion++;
+
+        // Let tracked shortest paths know about edge removal.
+        if (trackedShortestPaths != null) {
+            trackedShortestPaths.removeEdge(vertexAdjacencyList.indexOf(fromVertexId), vertexAdjacencyList.indexOf(toVertexId), weight);
         }
+    }
 
-        // Remove to vertex from from vertex list.
-        TreeSet<Map.Entry<String, Integer>> fromVertexList = vertexAdjacencyList.get(fromVertexId);
-        Map.Entry<String, Integer> entryToDelete = null;
-        for (Map.Entry<String, Integer> fromVertexListEntry : fromVertexList) {
-            if (fromVertexListEntry.getKey().equals(toVertexId)) {
-                entryToDelete = fromVertexListEntry;
-                break;
-            }
+    public ShortestPathEngine getShortestPathEngine() {
+        return shortestPathEngine;
+    }
+
+    // Choose how Dijkstra's Algorithm is run. A delta of zero lets delta-stepping pick one from the weights.
+    public void setShortestPathEngine(ShortestPathEngine shortestPathEngine, int deltaSteppingDelta) {
+        if (deltaSteppingDelta < 0) {
+            throw new IllegalArgumentException("Delta cannot be negative.");
         }
-        if (entryToDelete != null) {
-            fromVertexList.remove(entryToDelete);
-        } else {
-            // Throw exception if to vertex is not in from vertex list.
-            throw new IllegalArgumentException("To vertex id is not in from vertex list.");
+        this.shortestPathEngine = shortestPathEngine;
+        this.deltaSteppingDelta = deltaSteppingDelta;
+    }
+
+    // Get read-only view of adjacency list for a query.
+    public synchronized AdjacencySnapshot getSnapshot() {
+        return vertexAdjacencyList.snapshot();
+    }
+
+    // Start tracking shortest paths from start vertex, replacing any tracked before. Returns Dijkstra's
+    // Algorithm cost pair results for it.
+    public CostPairResult trackShortestPaths(String startVertexId, TraversalMonitor monitor) {
+        while (true) {
+            AdjacencySnapshot snapshot;
+            long snapshotVersion;
+            synchronized (this) {
+                snapshot = vertexAdjacencyList.snapshot();
+                snapshotVersion = graphVersion;
+            }
+
+            // Build tree without lock. Start over if graph was edited meanwhile.
+            DynamicShortestPaths shortestPaths = new DynamicShortestPaths(snapshot, startVertexId, monitor);
+            synchronized (this) {
+                if (snapshotVersion == graphVersion) {
+                    trackedShortestPaths = shortestPaths;
+                    break;
+                }
+            }
         }
+        return getTrackedShortestPathResult(monitor);
     }
 
-    // Get depth first search order results.
-    public static String getDepthFirstSearchOrder(String searchAbbreviation, String startVertexId) {
-        // Reset processed vertices list.
-        processedVerticesList = new LinkedHashSet<>();
+    public synchronized void stopTrackingShortestPaths() {
+        trackedShortestPaths = null;
+    }
 
-        // Reset results.
-        results.setLength(0);
+    public synchronized boolean isTrackingShortestPaths() {
+        return trackedShortestPaths != null;
+    }
 
-        // Process vertices.
-        processDepthFirstSearchVertex(startVertexId);
-        return String.format("%s : %s", searchAbbreviation, results);
+    // Are tracked distances on hold for negative weights? Their results then take a full run of Dijkstra's
+    // Algorithm, which is better kept off the event dispatch thread.
+    public synchronized boolean areTrackedShortestPathsOnHold() {
+        return (trackedShortestPaths != null) && trackedShortestPaths.hasNegativeWeights();
     }
 
-    private static void processDepthFirstSearchVertex(String vertexId) {
-        // Exit if vertex was already processed.
-        if (processedVerticesList.contains(vertexId)) {
-            return;
+    // Get Dijkstra's Algorithm cost pair results for tracked start vertex.
+    public String getTrackedShortestPathCostPairs() {
+        return getTrackedShortestPathResult().format();
+    }
+
+    public CostPairResult getTrackedShortestPathResult() {
+        return getTrackedShortestPathResult(TraversalMonitor.NONE);
+    }
+
+    public CostPairResult getTrackedShortestPathResult(TraversalMonitor monitor) {
+        String startVertexId;
+        synchronized (this) {
+            // Throw exception if no shortest paths are tracked.
+            if (trackedShortestPaths == null) {
+                throw new IllegalStateException("No shortest paths are tracked.");
+            }
+            if (!trackedShortestPaths.hasNegativeWeights()) {
+                return trackedShortestPaths.getCostPairs();
+            }
+            startVertexId = trackedShortestPaths.getStartVertexId();
         }
 
-        // Add vertex id to results.
-        if (!results.isEmpty()) {
-            results.append(" -> ");
+        // Run full algorithm without lock if tracked distances are on hold for negative weights.
+        return (CostPairResult) getQueryResults("Dijkstra", startVertexId, snapshot -> findDijkstrasAlgorithmResult(snapshot, startVertexId, monitor));
+    }
+
+    // Get cached query results, or run query on a snapshot of current graph and cache its results.
+    private TraversalResult getQueryResults(String query, String startVertexId, Function<AdjacencySnapshot, TraversalResult> search) {
+        AdjacencySnapshot snapshot;
+        long snapshotVersion;
+        synchronized (this) {
+            TraversalResult cachedResults = resultCache.get(query, startVertexId, graphVersion);
+            if (cachedResults != null) {
+                return cachedResults;
+            }
+            snapshot = vertexAdjacencyList.snapshot();
+            snapshotVersion = graphVersion;
         }
-        results.append(vertexId);
 
-        // Mark vertex as processed.
-        processedVerticesList.add(vertexId);
+        // Run query without lock. A cancelled query throws and caches nothing.
+        TraversalResult results = search.apply(snapshot);
 
-        // Loop through connected vertices.
-        for (Map.Entry<String, Integer> vertexAdjacencyListEntry : vertexAdjacencyList.get(vertexId)) {
-            // Process vertex.
-            processDepthFirstSearchVertex(vertexAdjacencyListEntry.getKey());
+        // Cache results unless graph was edited meanwhile, in which case nobody could be served them.
+        synchronized (this) {
+            if (snapshotVersion == graphVersion) {
+                resultCache.put(query, startVertexId, snapshotVersion, results);
+            }
         }
+        return results;
     }
 
-    // Get breadth first search order results.
-    public static String getBreadthFirstSearchOrder(String searchAbbreviation, String startVertexId) {
-        // Reset processed vertices list.
-        processedVerticesList = new LinkedHashSet<>();
+    // Get depth first search order results.
+    public String getDepthFirstSearchOrder(String searchAbbreviation, String startVertexId) {
+        return getDepthFirstSearchOrder(searchAbbreviation, startVertexId, TraversalMonitor.NONE);
+    }
 
-        // Reset results.
-        results.setLength(0);
+    public String getDepthFirstSearchOrder(String searchAbbreviation, String startVertexId, TraversalMonitor monitor) {
+        return getDepthFirstSearchResult(searchAbbreviation, startVertexId, monitor).format();
+    }
 
-        // Reset queue.
-        ArrayDeque<String> verticesToProcessQueue = new ArrayDeque<>();
+    public TraversalResult getDepthFirstSearchResult(String searchAbbreviation, String startVertexId, TraversalMonitor monitor) {
+        return getQueryResults("DFS " + searchAbbreviation, startVertexId, snapshot -> findDepthFirstSearchVisitOrder(snapshot, snapshot.indexOf(startVertexId), monitor)
+                .toResult(searchAbbreviation, startVertexId));
+    }
 
-        String vertexId = startVertexId;
-        while (true) {
-            // Process vertex.
-            processBreadthFirstSearchVertex(vertexId, verticesToProcessQueue);
-            // Exit if queue is empty.
-            if (verticesToProcessQueue.isEmpty()) {
-                break;
+    // Get depth first search visiting order as vertex numbers, without formatting or caching anything.
+    public VisitOrder getDepthFirstSearchVisitOrder(String startVertexId) {
+        return getDepthFirstSearchVisitOrder(startVertexId, TraversalMonitor.NONE);
+    }
+
+    public VisitOrder getDepthFirstSearchVisitOrder(String startVertexId, TraversalMonitor monitor) {
+        AdjacencySnapshot snapshot = getSnapshot();
+        return findDepthFirstSearchVisitOrder(snapshot, snapshot.indexOf(startVertexId), monitor);
+    }
+
+    // Find depth first search visiting order on snapshot. Start vertex may be -1, in which case nothing is
+    // visited.
+    public static VisitOrder findDepthFirstSearchVisitOrder(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor) {
+        return findDepthFirstSearchVisitOrder(snapshot, startVertex, monitor, TraversalEventBuffer.NONE);
+    }
+
+    // Find depth first search visiting order, recording a visit event for each vertex descended into.
+    public static VisitOrder findDepthFirstSearchVisitOrder(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor,
+                                                            TraversalEventBuffer events) {
+        // Exit if vertex has no edges.
+        if (startVertex == -1) {
+            return new VisitOrder(snapshot, startVertex, new int[0], 0);
+        }
+
+        // Initialize processed vertices list and results.
+        BitSet processedVerticesList = new BitSet(snapshot.getVertexCount());
+        int[] processedVertices = new int[snapshot.getVertexCount()];
+
+        // Reset stack. Each stack frame holds a vertex and the slot of the next edge to follow from it, which
+        // is where the recursive version would resume. Each vertex is pushed at most once, so arrays the size of
+        // the vertex count are enough.
+        int[] vertexStack = new int[snapshot.getVertexCount()];
+        int[] slotStack = new int[snapshot.getVertexCount()];
+        int stackSize = 0;
+        int processedVertexCount = 1;
+
+        // Process start vertex.
+        processedVerticesList.set(startVertex);
+        processedVertices[0] = startVertex;
+        events.visit(startVertex, startVertex);
+        vertexStack[stackSize] = startVertex;
+        slotStack[stackSize] = snapshot.getEdgeStart(startVertex);
+        stackSize++;
+
+        while (stackSize > 0) {
+            // Pop vertex if all its connected vertices were followed.
+            int vertex = vertexStack[stackSize - 1];
+            int slot = slotStack[stackSize - 1];
+            if (slot == snapshot.getEdgeEnd(vertex)) {
+                stackSize--;
+                continue;
+            }
+            slotStack[stackSize - 1] = slot + 1;
+
+            // Descend into connected vertex if it was not processed yet.
+            int neighborVertex = snapshot.getTarget(slot);
+            if (!processedVerticesList.get(neighborVertex)) {
+                processedVerticesList.set(neighborVertex);
+                processedVertices[processedVertexCount++] = neighborVertex;
+                events.visit(vertex, neighborVertex);
+                monitor.update(processedVertexCount, snapshot.getVertexCount());
+                vertexStack[stackSize] = neighborVertex;
+                slotStack[stackSize] = snapshot.getEdgeStart(neighborVertex);
+                stackSize++;
             }
-            // Get next vertex from queue.
-            vertexId = verticesToProcessQueue.remove();
         }
-        return String.format("%s : %s", searchAbbreviation, results);
+        return new VisitOrder(snapshot, startVertex, processedVertices, processedVertexCount);
     }
 
-    private static void processBreadthFirstSearchVertex(String vertexId, ArrayDeque<String> verticesToProcessQueue) {
-        // Exit if vertex was already processed.
-        if (processedVerticesList.contains(vertexId)) {
-            return;
-        }
+    // Get breadth first search order results.
+    public String getBreadthFirstSearchOrder(String searchAbbreviation, String startVertexId) {
+        return getBreadthFirstSearchOrder(searchAbbreviation, startVertexId, TraversalMonitor.NONE);
+    }
+
+    public String getBreadthFirstSearchOrder(String searchAbbreviation, String startVertexId, TraversalMonitor monitor) {
+        return getBreadthFirstSearchResult(searchAbbreviation, startVertexId, monitor).format();
+    }
+
+    public TraversalResult getBreadthFirstSearchResult(String searchAbbreviation, String startVertexId, TraversalMonitor monitor) {
+        return getQueryResults("BFS " + searchAbbreviation, startVertexId, snapshot -> findBreadthFirstSearchVisitOrder(snapshot, snapshot.indexOf(startVertexId), monitor)
+                .toResult(searchAbbreviation, startVertexId));
+    }
+
+    // Get breadth first search visiting order as vertex numbers, without formatting or caching anything.
+    public VisitOrder getBreadthFirstSearchVisitOrder(String startVertexId) {
+        return getBreadthFirstSearchVisitOrder(startVertexId, TraversalMonitor.NONE);
+    }
 
-        // Add vertex id to results.
-        if (!results.isEmpty()) {
-            results.append(" -> ");
+    public VisitOrder getBreadthFirstSearchVisitOrder(String startVertexId, TraversalMonitor monitor) {
+        AdjacencySnapshot snapshot = getSnapshot();
+        return findBreadthFirstSearchVisitOrder(snapshot, snapshot.indexOf(startVertexId), monitor);
+    }
+
+    // Find breadth first search visiting order on snapshot. Start vertex may be -1, in which case nothing is
+    // visited.
+    public static VisitOrder findBreadthFirstSearchVisitOrder(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor) {
+        return findBreadthFirstSearchVisitOrder(snapshot, startVertex, monitor, TraversalEventBuffer.NONE);
+    }
+
+    // Find breadth first search visiting order, recording a visit event for each vertex queued and a settle
+    // event for each vertex taken from the queue.
+    public static VisitOrder findBreadthFirstSearchVisitOrder(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor,
+                                                              TraversalEventBuffer events) {
+        // Exit if vertex has no edges.
+        if (startVertex == -1) {
+            return new VisitOrder(snapshot, startVertex, new int[0], 0);
         }
-        results.append(vertexId);
 
-        // Mark vertex as processed.
-        processedVerticesList.add(vertexId);
+        // Initialize processed vertices list.
+        BitSet processedVerticesList = new BitSet(snapshot.getVertexCount());
+
+        // Reset queue. Each vertex is queued at most once, so an array the size of the vertex count is enough.
+        // Vertices stay in the queue once processed, which leaves it holding the results.
+        int[] verticesToProcessQueue = new int[snapshot.getVertexCount()];
+        int queueHead = 0;
+        int queueTail = 0;
+        verticesToProcessQueue[queueTail++] = startVertex;
+        processedVerticesList.set(startVertex);
+        events.visit(startVertex, startVertex);
 
-        // Loop through connected vertices.
-        for (Map.Entry<String, Integer> vertexAdjacencyListEntry : vertexAdjacencyList.get(vertexId)) {
-            // Add to queue.
-            verticesToProcessQueue.add(vertexAdjacencyListEntry.getKey());
+        while (queueHead < queueTail) {
+            // Get next vertex from queue.
+            int vertex = verticesToProcessQueue[queueHead++];
+            monitor.update(queueHead, snapshot.getVertexCount());
+            events.settle(vertex, vertex);
+
+            // Loop through connected vertices.
+            for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+                // Add to queue if vertex was not queued before.
+                int neighborVertex = snapshot.getTarget(slot);
+                if (!processedVerticesList.get(neighborVertex)) {
+                    processedVerticesList.set(neighborVertex);
+                    verticesToProcessQueue[queueTail++] = neighborVertex;
+                    events.visit(vertex, neighborVertex);
+                }
+            }
         }
+        return new VisitOrder(snapshot, startVertex, verticesToProcessQueue, queueTail);
+    }
+
+    // Get breadth first search levels and parents, expanding each level in parallel.
+    public BreadthFirstSearchTree getBreadthFirstSearchTree(String startVertexId) {
+        return getBreadthFirstSearchTree(startVertexId, TraversalMonitor.NONE);
+    }
+
+    public BreadthFirstSearchTree getBreadthFirstSearchTree(String startVertexId, TraversalMonitor monitor) {
+        AdjacencySnapshot snapshot = getSnapshot();
+        return ParallelBreadthFirstSearch.search(snapshot, snapshot.indexOf(startVertexId), monitor);
     }
 
     // Get Dijkstra's Algorithm cost pair results.
-    public static String getDijkstrasAlgorithmCostPairs(String startVertexId) {
-        // Reset processed vertices list.
-        processedVerticesList = new LinkedHashSet<>();
-
-        // Reset results.
-        results.setLength(0);
-
-        // Initialize distance to source map.
-        HashMap<String, Integer> vertexDistanceMap = new HashMap<>();
-        for (Map.Entry<String, TreeSet<Map.Entry<String, Integer>>> vertexAdjacencyListEntry : vertexAdjacencyList.entrySet()) {
-            String vertexId = vertexAdjacencyListEntry.getKey();
-            vertexDistanceMap.put(vertexId, Integer.MAX_VALUE);
+    public String getDijkstrasAlgorithmCostPairs(String startVertexId) {
+        return getDijkstrasAlgorithmCostPairs(startVertexId, TraversalMonitor.NONE);
+    }
+
+    public String getDijkstrasAlgorithmCostPairs(String startVertexId, TraversalMonitor monitor) {
+        return getDijkstrasAlgorithmResult(startVertexId, monitor).format();
+    }
+
+    public TraversalResult getDijkstrasAlgorithmResult(String startVertexId, TraversalMonitor monitor) {
+        // Run delta-stepping if chosen, unless negative weights rule it out.
+        if (shortestPathEngine == ShortestPathEngine.DELTA_STEPPING) {
+            int delta = deltaSteppingDelta;
+            return getQueryResults("Dijkstra", startVertexId, snapshot -> {
+                int[] vertexDistances = DeltaSteppingShortestPaths.search(snapshot, snapshot.indexOf(startVertexId), delta, monitor);
+                return (vertexDistances != null) ? CostPairResult.of(snapshot, vertexDistances)
+                        : findDijkstrasAlgorithmResult(snapshot, startVertexId, monitor);
+            });
         }
-        vertexDistanceMap.put(startVertexId, 0);
+        return getQueryResults("Dijkstra", startVertexId, snapshot -> findDijkstrasAlgorithmResult(snapshot, startVertexId, monitor));
+    }
 
-        // Loop until all vertices are processed.
-        while (true) {
-            // Find unprocessed vertex with smallest distance.
-            String smallestDistanceVertexId = null;
-            int smallestDistance = Integer.MAX_VALUE;
-            for (Map.Entry<String, Integer> vertexDistanceMapEntry : vertexDistanceMap.entrySet()) {
-                String vertexId = vertexDistanceMapEntry.getKey();
-                int distance = vertexDistanceMapEntry.getValue();
-                if (!processedVerticesList.contains(vertexId)) {
-                    if (distance < smallestDistance) {
-                        smallestDistanceVertexId = vertexId;
-                        smallestDistance = distance;
-                    }
-                }
-            }
+    private static CostPairResult findDijkstrasAlgorithmResult(AdjacencySnapshot snapshot, String startVertexId, TraversalMonitor monitor) {
+        int[] vertexDistances = new int[snapshot.getVertexCount()];
+        findDijkstrasAlgorithmDistances(snapshot, snapshot.indexOf(startVertexId), vertexDistances, null, new BitSet(snapshot.getVertexCount()),
+                new IndexedMinHeap(snapshot.getVertexCount()), monitor, TraversalEventBuffer.NONE);
+        return CostPairResult.of(snapshot, vertexDistances);
+    }
+
+    // Get shortest path distances and predecessors as vertex numbers, without formatting or caching anything.
+    public ShortestPathTree getShortestPathTree(String startVertexId) {
+        return getShortestPathTree(startVertexId, TraversalMonitor.NONE);
+    }
 
-            // Are there no unprocessed vertices?
-            if (smallestDistanceVertexId == null) {
-                break;
+    public ShortestPathTree getShortestPathTree(String startVertexId, TraversalMonitor monitor) {
+        AdjacencySnapshot snapshot = getSnapshot();
+        int startVertex = snapshot.indexOf(startVertexId);
+
+        // Run delta-stepping if chosen, unless negative weights rule it out. It finds distances only.
+        if (shortestPathEngine == ShortestPathEngine.DELTA_STEPPING) {
+            int[] vertexDistances = DeltaSteppingShortestPaths.search(snapshot, startVertex, deltaSteppingDelta, monitor);
+            if (vertexDistances != null) {
+                return new ShortestPathTree(snapshot, startVertex, vertexDistances, ShortestPathTree.findPredecessors(snapshot, startVertex, vertexDistances));
             }
+        }
+        return findShortestPathTree(snapshot, startVertex, monitor);
+    }
+
+    // Find shortest path distances and predecessors on snapshot with Dijkstra's Algorithm. Start vertex may be
+    // -1, in which case nothing is reached.
+    public static ShortestPathTree findShortestPathTree(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor) {
+        return findShortestPathTree(snapshot, startVertex, monitor, TraversalEventBuffer.NONE);
+    }
+
+    // Find shortest path distances and predecessors, recording a relax event for each distance lowered and a
+    // settle event through its predecessor for each vertex taken from the heap.
+    public static ShortestPathTree findShortestPathTree(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor,
+                                                        TraversalEventBuffer events) {
+        int[] vertexDistances = new int[snapshot.getVertexCount()];
+        int[] predecessorVertices = new int[snapshot.getVertexCount()];
+        findDijkstrasAlgorithmDistances(snapshot, startVertex, vertexDistances, predecessorVertices, new BitSet(snapshot.getVertexCount()),
+                new IndexedMinHeap(snapshot.getVertexCount()), monitor, events);
+        return new ShortestPathTree(snapshot, startVertex, vertexDistances, predecessorVertices);
+    }
+
+    // Fill distance to source array for start vertex, which may be -1 if start vertex id is not in snapshot.
+    // Predecessor array is filled too unless it is null. Processed vertices list and heap are scratch space
+    // that callers may reuse across searches. The heap is left empty.
+    static void findDijkstrasAlgorithmDistances(AdjacencySnapshot snapshot, int startVertex, int[] vertexDistances, int[] predecessorVertices,
+                                                BitSet processedVerticesList, IndexedMinHeap unprocessedVerticesHeap, TraversalMonitor monitor,
+                                                TraversalEventBuffer events) {
+        // Initialize processed vertices list, distance to source array and predecessor array.
+        processedVerticesList.clear();
+        Arrays.fill(vertexDistances, Integer.MAX_VALUE);
+        if (predecessorVertices != null) {
+            Arrays.fill(predecessorVertices, -1);
+        }
+
+        // Seed heap with start vertex.
+        if (startVertex != -1) {
+            vertexDistances[startVertex] = 0;
+            unprocessedVerticesHeap.insert(startVertex, 0);
+        }
+
+        // Loop until no reachable vertices remain unprocessed.
+        int processedVertexCount = 0;
+        while (!unprocessedVerticesHeap.isEmpty()) {
+            // Take unprocessed vertex with smallest distance.
+            int smallestDistanceVertex = unprocessedVerticesHeap.removeMin();
+            monitor.update(++processedVertexCount, snapshot.getVertexCount());
+            events.settle(((predecessorVertices != null) && (predecessorVertices[smallestDistanceVertex] != -1))
+                    ? predecessorVertices[smallestDistanceVertex] : smallestDistanceVertex, smallestDistanceVertex);
 
             // Process neighbors for unprocessed vertex with smallest distance.
-            TreeSet<Map.Entry<String, Integer>> fromVertexList = vertexAdjacencyList.get(smallestDistanceVertexId);
-            for (Map.Entry<String, Integer> fromVertexListEntry : fromVertexList) {
-                processDijkstrasAlgorithmNeighborVertex(smallestDistanceVertexId, fromVertexListEntry.getKey(), fromVertexListEntry.getValue(), vertexDistanceMap);
+            for (int slot = snapshot.getEdgeStart(smallestDistanceVertex); slot < snapshot.getEdgeEnd(smallestDistanceVertex); slot++) {
+                processDijkstrasAlgorithmNeighborVertex(smallestDistanceVertex, snapshot.getTarget(slot), snapshot.getWeight(slot), vertexDistances,
+                        predecessorVertices, processedVerticesList, unprocessedVerticesHeap, events);
             }
 
             // Mark vertex as processed.
-            processedVerticesList.add(smallestDistanceVertexId);
+            processedVerticesList.set(smallestDistanceVertex);
         }
+    }
 
-        // Return output string.
-        for (Map.Entry<String, Integer> vertexDistanceMapEntry : vertexDistanceMap.entrySet()) {
+    static void appendCostPairs(StringBuilder results, AdjacencySnapshot snapshot, int[] vertexDistances) {
+        int resultsStart = results.length();
+        for (int rank = 0; rank < snapshot.getVertexCount(); rank++) {
             // Are we not on start vertex?
-            int distance = vertexDistanceMapEntry.getValue();
+            int vertex = snapshot.getVertexByRank(rank);
+            int distance = vertexDistances[vertex];
             if (!(distance == 0)) {
-                if (!results.isEmpty()) {
+                if (results.length() > resultsStart) {
                     results.append(", ");
                 }
-                results.append(String.format("%s=%d", vertexDistanceMapEntry.getKey(), distance));
+                results.append(snapshot.getVertexId(vertex)).append('=').append(distance);
             }
         }
-        return results.toString();
     }
 
-    private static void processDijkstrasAlgorithmNeighborVertex(String fromVertexId, String neighborVertexId, int weight, HashMap<String, Integer> vertexDistanceMap) {
+    // Run Dijkstra's Algorithm from each source vertex on a pool of worker threads and write one row of
+    // results per source, in source order.
+    public void writeShortestPaths(List<String> sourceVertexIds, ShortestPathsBatch.Format format, int workerCount, Writer writer,
+                                   TraversalMonitor monitor) throws IOException {
+        new ShortestPathsBatch(getSnapshot(), sourceVertexIds, format, workerCount).write(writer, monitor);
+    }
+
+    private static void processDijkstrasAlgorithmNeighborVertex(int fromVertex, int neighborVertex, int weight, int[] vertexDistances,
+                                                                int[] predecessorVertices, BitSet processedVerticesList,
+                                                                IndexedMinHeap unprocessedVerticesHeap, TraversalEventBuffer events) {
         // Exit if neighbor vertex was already processed.
-        if (processedVerticesList.contains(neighborVertexId)) {
+        if (processedVerticesList.get(neighborVertex)) {
             return;
         }
 
-        // Update neighbor distance if from vertex provides shorter distance to source.
-        int fromToNeighborDistance = vertexDistanceMap.get(fromVertexId) + weight;
-        if (fromToNeighborDistance < vertexDistanceMap.get(neighborVertexId)) {
-            vertexDistanceMap.put(neighborVertexId, fromToNeighborDistance);
+        // Update neighbor distance if from vertex provides shorter distance to source. Distances that do not fit
+        // below the unreachable mark leave neighbor vertex unreachable.
+        long fromToNeighborDistance = (long) vertexDistances[fromVertex] + weight;
+        if (fromToNeighborDistance < vertexDistances[neighborVertex]) {
+            vertexDistances[neighborVertex] = (int) fromToNeighborDistance;
+            if (predecessorVertices != null) {
+                predecessorVertices[neighborVertex] = fromVertex;
+            }
+            events.relax(fromVertex, neighborVertex);
+            unprocessedVerticesHeap.insertOrDecreaseKey(neighborVertex, fromToNeighborDistance);
         }
     }
 
     // Get Prim's Algorithm child parent pair results.
-    public static String getPrimsAlgorithmChildParentPairs(String startVertexId) {
-        // Reset results.
-        results.setLength(0);
+    public String getPrimsAlgorithmChildParentPairs(String startVertexId) {
+        return getPrimsAlgorithmChildParentPairs(startVertexId, TraversalMonitor.NONE);
+    }
 
-        // Initialize minimum spanning tree map.
-        TreeMap<String, String> minimumSpanningTree = new TreeMap<>();
-        minimumSpanningTree.put(startVertexId, null);
+    public String getPrimsAlgorithmChildParentPairs(String startVertexId, TraversalMonitor monitor) {
+        return getPrimsAlgorithmResult(startVertexId, monitor).format();
+    }
 
-        // Loop until all vertices are processed.
-        while (true) {
-            // Find not yet processed neighbor of vertex in minimum spanning tree with smallest minimum weight.
-            String parentVertexId = null;
-            Map.Entry<String, Integer> childVertexListEntry = null;
-            int minimumWeight = Integer.MAX_VALUE;
-            // Loop through minimum spanning tree map.
-            for (Map.Entry<String, String> minimumSpanningTreeEntry : minimumSpanningTree.entrySet()) {
-                // Loop through adjacency list for vertex.
-                TreeSet<Map.Entry<String, Integer>> fromVertexList = vertexAdjacencyList.get(minimumSpanningTreeEntry.getKey());
-                for (Map.Entry<String, Integer> fromVertexListEntry : fromVertexList) {
-                    // Is neighbor not already in minimum spanning tree map?
-                    if (!minimumSpanningTree.containsKey(fromVertexListEntry.getKey())) {
-                        int weight = fromVertexListEntry.getValue();
-                        if (weight < minimumWeight) {
-                            parentVertexId = minimumSpanningTreeEntry.getKey();
-                            childVertexListEntry = fromVertexListEntry;
-                            minimumWeight = weight;
-                        }
-                    }
-                }
-            }
+    public TraversalResult getPrimsAlgorithmResult(String startVertexId, TraversalMonitor monitor) {
+        return getQueryResults("Prim", startVertexId, snapshot -> findPrimsAlgorithmTree(snapshot, snapshot.indexOf(startVertexId), monitor).toResult());
+    }
 
-            // Are there no unprocessed vertices?
-            if (childVertexListEntry == null) {
-                break;
-            }
+    // Get Prim's Algorithm minimum spanning tree as parent vertex numbers, without formatting or caching
+    // anything.
+    public SpanningTree getPrimsAlgorithmTree(String startVertexId) {
+        return getPrimsAlgorithmTree(startVertexId, TraversalMonitor.NONE);
+    }
+
+    public SpanningTree getPrimsAlgorithmTree(String startVertexId, TraversalMonitor monitor) {
+        AdjacencySnapshot snapshot = getSnapshot();
+        return findPrimsAlgorithmTree(snapshot, snapshot.indexOf(startVertexId), monitor);
+    }
 
-            // Add neighbor to minimum spanning tree.
-            minimumSpanningTree.put(childVertexListEntry.getKey(), parentVertexId);
+    // Find Prim's Algorithm minimum spanning tree on snapshot. Start vertex may be -1, in which case the tree is
+    // empty.
+    public static SpanningTree findPrimsAlgorithmTree(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor) {
+        return findPrimsAlgorithmTree(snapshot, startVertex, monitor, TraversalEventBuffer.NONE);
+    }
+
+    // Find Prim's Algorithm minimum spanning tree, recording a relax event for each cheaper crossing edge found
+    // and a settle event for each edge joining the tree.
+    public static SpanningTree findPrimsAlgorithmTree(AdjacencySnapshot snapshot, int startVertex, TraversalMonitor monitor,
+                                                      TraversalEventBuffer events) {
+        // Initialize processed vertices list. Here processed vertices are the ones in minimum spanning tree.
+        BitSet processedVerticesList = new BitSet(snapshot.getVertexCount());
+
+        // Initialize minimum spanning tree parent array.
+        int[] parentVertices = new int[snapshot.getVertexCount()];
+        Arrays.fill(parentVertices, -1);
+
+        // Heap of vertices next to minimum spanning tree keyed by cheapest crossing edge. Heap elements are
+        // vertex ranks and keys hold the edge weight in the high half and the parent rank in the low half, so
+        // ties go to the lowest parent and then the lowest child, the same as scanning the tree in vertex id
+        // order.
+        IndexedMinHeap crossingEdgesHeap = new IndexedMinHeap(snapshot.getVertexCount());
+
+        // Add start vertex to minimum spanning tree.
+        if (startVertex != -1) {
+            events.settle(startVertex, startVertex);
+            addPrimsAlgorithmTreeVertex(snapshot, startVertex, processedVerticesList, crossingEdgesHeap, events);
         }
 
-        // Return output string.
-        for (Map.Entry<String, String> minimumSpanningTreeEntry : minimumSpanningTree.entrySet()) {
-            // Are we not on start vertex?
-            String parentVertexId = minimumSpanningTreeEntry.getValue();
-            if (!(parentVertexId == null)) {
-                if (!results.isEmpty()) {
-                    results.append(", ");
-                }
-                results.append(String.format("%s=%s", minimumSpanningTreeEntry.getKey(), parentVertexId));
+        // Loop until no neighbors of minimum spanning tree remain.
+        int treeVertexCount = 1;
+        while (!crossingEdgesHeap.isEmpty()) {
+            monitor.update(++treeVertexCount, snapshot.getVertexCount());
+
+            // Add neighbor with smallest crossing edge to minimum spanning tree.
+            int childVertexRank = crossingEdgesHeap.peekMin();
+            long crossingEdgeKey = crossingEdgesHeap.getKey(childVertexRank);
+            crossingEdgesHeap.removeMin();
+            int childVertex = snapshot.getVertexByRank(childVertexRank);
+            parentVertices[childVertex] = snapshot.getVertexByRank((int) crossingEdgeKey);
+            events.settle(parentVertices[childVertex], childVertex);
+            addPrimsAlgorithmTreeVertex(snapshot, childVertex, processedVerticesList, crossingEdgesHeap, events);
+        }
+
+        return new SpanningTree(snapshot, startVertex, parentVertices);
+    }
+
+    private static void addPrimsAlgorithmTreeVertex(AdjacencySnapshot snapshot, int vertex, BitSet processedVerticesList, IndexedMinHeap crossingEdgesHeap,
+                                                    TraversalEventBuffer events) {
+        // Mark vertex as in minimum spanning tree.
+        processedVerticesList.set(vertex);
+
+        // Loop through adjacency list for vertex.
+        for (int slot = snapshot.getEdgeStart(vertex); slot < snapshot.getEdgeEnd(vertex); slot++) {
+            // Is neighbor not already in minimum spanning tree?
+            int neighborVertex = snapshot.getTarget(slot);
+            if (processedVerticesList.get(neighborVertex)) {
+                continue;
+            }
+
+            // Does vertex offer a cheaper crossing edge to neighbor?
+            int neighborVertexRank = snapshot.getRank(neighborVertex);
+            long crossingEdgeKey = ((long) snapshot.getWeight(slot) << 32) | snapshot.getRank(vertex);
+            if (!crossingEdgesHeap.contains(neighborVertexRank)) {
+                crossingEdgesHeap.insert(neighborVertexRank, crossingEdgeKey);
+                events.relax(vertex, neighborVertex);
+            } else if (crossingEdgeKey < crossingEdgesHeap.getKey(neighborVertexRank)) {
+                crossingEdgesHeap.decreaseKey(neighborVertexRank, crossingEdgeKey);
+                events.relax(vertex, neighborVertex);
             }
         }
-        return results.toString();
+    }
+
+    // Get minimum spanning forest of whole graph, one tree per connected component.
+    public MinimumSpanningForest getMinimumSpanningForest(SpanningForestEngine engine) {
+        return getMinimumSpanningForest(engine, TraversalMonitor.NONE);
+    }
+
+    public MinimumSpanningForest getMinimumSpanningForest(SpanningForestEngine engine, TraversalMonitor monitor) {
+        AdjacencySnapshot snapshot = getSnapshot();
+        return (engine == SpanningForestEngine.KRUSKAL) ? KruskalMinimumSpanningForest.search(snapshot, monitor)
+                : BoruvkaMinimumSpanningForest.search(snapshot, monitor);
+    }
+
+    // Get minimum spanning forest child parent pair results, with each tree hanging from its lowest vertex id.
+    public String getMinimumSpanningForestChildParentPairs() {
+        return getMinimumSpanningForestChildParentPairs(TraversalMonitor.NONE);
+    }
+
+    public String getMinimumSpanningForestChildParentPairs(TraversalMonitor monitor) {
+        return getMinimumSpanningForestResult(monitor).format();
+    }
+
+    public TraversalResult getMinimumSpanningForestResult(TraversalMonitor monitor) {
+        return getQueryResults("MSF", "", snapshot -> BoruvkaMinimumSpanningForest.search(snapshot, monitor).toResult());
     }
 }
@@ -0,0 +1,129 @@
+package visualizer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded ring buffer of traversal events, filled by one algorithm thread and drained by one playback thread.
+//
+// An event is packed into a long: its type in the top two bits, then the vertex it came from and the vertex it
+// concerns, 31 bits each, so recording allocates nothing. The recording thread never waits. When the buffer is
+// full, new events are dropped and counted, and playback simply shows less. Head and tail are published with
+// release stores only, so recording costs an array store and an ordered counter store.
+public class TraversalEventBuffer {
+    // Buffer for traversals nobody animates. It records nothing.
+    public static final TraversalEventBuffer NONE = new TraversalEventBuffer();
+
+    // Vertex was reached, through an edge from another vertex unless both vertices are the same.
+    public static final int VISIT = 0;
+    // Edge lowered distance or crossing edge cost of its end vertex.
+    public static final int RELAX = 1;
+    // Vertex got its final distance or joined the spanning tree, through an edge unless both vertices are the
+    // same.
+    public static final int SETTLE = 2;
+
+    private static final int VERTEX_BITS = 31;
+    private static final long VERTEX_MASK = (1L << VERTEX_BITS) - 1;
+
+    private final boolean recording;
+    private final long[] events;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // Head as last seen by recording thread. Only read again when buffer looks full.
+    private long recordedHead;
+
+    private volatile long droppedEventCount;
+    private volatile boolean finished;
+
+    // Create buffer holding at least given number of events.
+    public TraversalEventBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Event buffer capacity must be positive.");
+        }
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        recording = true;
+        events = new long[length];
+        mask = length - 1;
+    }
+
+    private TraversalEventBuffer() {
+        recording = false;
+        events = new long[0];
+        mask = 0;
+    }
+
+    public void visit(int fromVertex, int toVertex) {
+        record(VISIT, fromVertex, toVertex);
+    }
+
+    public void relax(int fromVertex, int toVertex) {
+        record(RELAX, fromVertex, toVertex);
+    }
+
+    public void settle(int fromVertex, int toVertex) {
+        record(SETTLE, fromVertex, toVertex);
+    }
+
+    private void record(int type, int fromVertex, int toVertex) {
+        if (!recording) {
+            return;
+        }
+
+        // Drop event if playback has not caught up with a full buffer.
+        long position = tail.get();
+        if (position - recordedHead == events.length) {
+            recordedHead = head.get();
+            if (position - recordedHead == events.length) {
+                droppedEventCount++;
+                return;
+            }
+        }
+        events[(int) position & mask] = ((long) type << (2 * VERTEX_BITS)) | ((long) fromVertex << VERTEX_BITS) | toVertex;
+        tail.lazySet(position + 1);
+    }
+
+    // Mark traversal as done. No events are recorded after this.
+    public void finish() {
+        finished = true;
+    }
+
+    // Has traversal finished and has every recorded event been drained?
+    public boolean isDrained() {
+        return finished && (head.get() == tail.get());
+    }
+
+    // Get number of events recorded so far, dropped ones included.
+    public long getEventCount() {
+        return tail.get() + droppedEventCount;
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEventCount;
+    }
+
+    // Move up to given number of waiting events into array. Returns number of events moved.
+    public int drain(long[] drainedEvents, int maximumEventCount) {
+        long position = head.get();
+        int eventCount = (int) Math.min(maximumEventCount, tail.get() - position);
+        for (int event = 0; event < eventCount; event++) {
+            drainedEvents[event] = events[(int) (position + event) & mask];
+        }
+        head.lazySet(position + eventCount);
+        return eventCount;
+    }
+
+    public static int getType(long event) {
+        return (int) (event >>> (2 * VERTEX_BITS));
+    }
+
+    public static int getFromVertex(long event) {
+        return (int) ((event >>> VERTEX_BITS) & VERTEX_MASK);
+    }
+
+    public static int getToVertex(long event) {
+        return (int) (event & VERTEX_MASK);
+    }
+}
@@ -0,0 +1,66 @@
+package visualizer;
+
+import java.util.concurrent.CancellationException;
+
+// Progress and cancellation handle for a running traversal query.
+//
+// Algorithms call update() once per processed vertex. Only every CHECK_INTERVAL-th call records progress and
+// checks for cancellation, so the per-vertex cost is a single branch.
+public class TraversalMonitor {
+    // Monitor for queries nobody watches. It never records progress and is never cancelled.
+    public static final TraversalMonitor NONE = new TraversalMonitor(false);
+
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final boolean reporting;
+    private volatile int completed;
+    private volatile int total;
+    private volatile boolean cancelled;
+
+    public TraversalMonitor() {
+        this(true);
+    }
+
+    private TraversalMonitor(boolean reporting) {
+        this.reporting = reporting;
+    }
+
+    // Record progress of running query. Throws CancellationException if query was cancelled or its thread was
+    // interrupted.
+    public void update(int completed, int total) {
+        if ((completed & (CHECK_INTERVAL - 1)) != 0) {
+            return;
+        }
+        updateNow(completed, total);
+    }
+
+    // Record progress and check for cancellation on every call. For algorithms that report in big steps, such
+    // as once per breadth first search level.
+    public void updateNow(int completed, int total) {
+        if (!reporting) {
+            return;
+        }
+
+        this.completed = completed;
+        this.total = total;
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Traversal was cancelled.");
+        }
+    }
+
+    public void cancel() {
+        if (reporting) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Get completed share of query as a percentage.
+    public int getPercentComplete() {
+        int total = this.total;
+        return (total > 0) ? (int) (100L * completed / total) : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package visualizer;
+
+import javax.swing.Timer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.function.Consumer;
+
+// Plays traversal events back on the graph scene by coloring vertices and edges, one frame at a time.
+//
+// A Swing timer drains the event buffer on the event dispatch thread at the chosen frame rate, so the
+// traversal itself never waits for the animation. Each frame takes at most MAXIMUM_EVENTS_PER_FRAME events.
+// Traversals with more events than fit into MAXIMUM_PLAYBACK_SECONDS get several events per frame, and the
+// repaints of one frame are merged by the graph panel.
+class TraversalPlayback {
+    private static final int MAXIMUM_PLAYBACK_SECONDS = 10;
+    private static final int MAXIMUM_EVENTS_PER_FRAME = 1024;
+
+    private final TraversalEventBuffer events;
+    private final Vertex[] vertices;
+    private final HashMap<Long, Edge> edges;
+    private final Consumer<Vertex> vertexChanged;
+    private final Consumer<Edge> edgeChanged;
+    private final long maximumFrameCount;
+    private final Timer timer;
+
+    // Colors already shown, which later events must not take back.
+    private final boolean[] settledVertices;
+    private final HashSet<Edge> treeEdges = new HashSet<>();
+
+    private final long[] frameEvents = new long[MAXIMUM_EVENTS_PER_FRAME];
+
+    // Create playback of events onto scene vertices, indexed by vertex number, and scene edges, keyed by
+    // getEdgeKey(). Vertices missing from scene are null. Changed vertices and edges are handed to the given
+    // callbacks for repainting.
+    TraversalPlayback(TraversalEventBuffer events, Vertex[] vertices, HashMap<Long, Edge> edges, int frameRate,
+                      Consumer<Vertex> vertexChanged, Consumer<Edge> edgeChanged) {
+        this.events = events;
+        this.vertices = vertices;
+        this.edges = edges;
+        this.vertexChanged = vertexChanged;
+        this.edgeChanged = edgeChanged;
+        maximumFrameCount = (long) frameRate * MAXIMUM_PLAYBACK_SECONDS;
+        settledVertices = new boolean[vertices.length];
+        timer = new Timer(1000 / frameRate, e -> playFrame());
+    }
+
+    // Get key of edge between two vertex numbers, in that direction.
+    static long getEdgeKey(int fromVertex, int toVertex) {
+        return ((long) fromVertex << 32) | toVertex;
+    }
+
+    void start() {
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void playFrame() {
+        // Take enough events for playback to end within its time limit.
+        long eventsPerFrame = (events.getEventCount() + maximumFrameCount - 1) / maximumFrameCount;
+        int eventCount = events.drain(frameEvents, (int) Math.max(1, Math.min(MAXIMUM_EVENTS_PER_FRAME, eventsPerFrame)));
+        for (int event = 0; event < eventCount; event++) {
+            playEvent(frameEvents[event]);
+        }
+
+        // Stop once traversal is done and shown.
+        if (events.isDrained()) {
+            timer.stop();
+        }
+    }
+
+    private void playEvent(long event) {
+        int fromVertex = TraversalEventBuffer.getFromVertex(event);
+        int toVertex = TraversalEventBuffer.getToVertex(event);
+        Vertex vertex = vertices[toVertex];
+        Edge edge = (fromVertex != toVertex) ? edges.get(getEdgeKey(fromVertex, toVertex)) : null;
+
+        switch (TraversalEventBuffer.getType(event)) {
+            case TraversalEventBuffer.VISIT -> {
+                colorVisited(toVertex, vertex);
+                colorTree(edge);
+            }
+            case TraversalEventBuffer.RELAX -> {
+                colorVisited(toVertex, vertex);
+                if ((edge != null) && !treeEdges.contains(edge)) {
+                    edge.setColorRelaxed();
+                    edgeChanged.accept(edge);
+                }
+            }
+            case TraversalEventBuffer.SETTLE -> {
+                settledVertices[toVertex] = true;
+                if (vertex != null) {
+                    vertex.setColorSettled();
+                    vertexChanged.accept(vertex);
+                }
+                colorTree(edge);
+            }
+            default -> throw new IllegalArgumentException("Unknown traversal event type.");
+        }
+    }
+
+    private void colorVisited(int vertexNumber, Vertex vertex) {
+        if ((vertex != null) && !settledVertices[vertexNumber]) {
+            vertex.setColorVisited();
+            vertexChanged.accept(vertex);
+        }
+    }
+
+    private void colorTree(Edge edge) {
+        if (edge != null) {
+            treeEdges.add(edge);
+            edge.setColorTree();
+            edgeChanged.accept(edge);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package visualizer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Result of a traversal query, held as vertex numbers and formatted one row at a time when asked for.
+//
+// The results table only asks for rows scrolled into view, so showing a result with millions of rows costs no
+// more than showing a short one. format() gives the one line text the Traversal string methods return and the
+// information label shows.
+//
+// Vertex ids are looked up in the id array of the store the result was found on. Ids are only ever appended
+// there, so results stay valid after later edits.
+public abstract class TraversalResult {
+    private static final int WRITE_BUFFER_LENGTH = 8192;
+
+    private final String[] vertexIds;
+
+    TraversalResult(String[] vertexIds) {
+        this.vertexIds = vertexIds;
+    }
+
+    public abstract int getRowCount();
+
+    public abstract int getColumnCount();
+
+    public abstract String getColumnName(int column);
+
+    // Get text of one cell, formatting it now.
+    public abstract String getValue(int row, int column);
+
+    // Get id of vertex row is about.
+    public abstract String getRowVertexId(int row);
+
+    // Format whole result as one line.
+    public String format() {
+        return format(Integer.MAX_VALUE);
+    }
+
+    // Format result as one line, cut off with "..." after given number of rows if there are more.
+    public String format(int maximumRowCount) {
+        StringBuilder results = new StringBuilder(getPrefix());
+        int rowCount = Math.min(getRowCount(), maximumRowCount);
+        for (int row = 0; row < rowCount; row++) {
+            if (row > 0) {
+                results.append(getSeparator());
+            }
+            appendRow(results, row);
+        }
+        if (rowCount < getRowCount()) {
+            results.append(getSeparator()).append("...");
+        }
+        return results.toString();
+    }
+
+    // Write whole result as one line, like format() but without building it all in memory.
+    public void writeLine(Writer writer) throws IOException {
+        StringBuilder buffer = new StringBuilder(getPrefix());
+        for (int row = 0; row < getRowCount(); row++) {
+            if (row > 0) {
+                buffer.append(getSeparator());
+            }
+            appendRow(buffer, row);
+            if (buffer.length() >= WRITE_BUFFER_LENGTH) {
+                writer.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        writer.append(buffer);
+    }
+
+    // Write result as comma separated table with a header row of column names. Fields are quoted where needed.
+    public void writeTable(Writer writer, TraversalMonitor monitor) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        for (int column = 0; column < getColumnCount(); column++) {
+            buffer.append((column > 0) ? "," : "");
+            ShortestPathsBatch.appendCsvField(buffer, getColumnName(column));
+        }
+        buffer.append(System.lineSeparator());
+        for (int row = 0; row < getRowCount(); row++) {
+            monitor.update(row, getRowCount());
+            for (int column = 0; column < getColumnCount(); column++) {
+                buffer.append((column > 0) ? "," : "");
+                ShortestPathsBatch.appendCsvField(buffer, getValue(row, column));
+            }
+            buffer.append(System.lineSeparator());
+            if (buffer.length() >= WRITE_BUFFER_LENGTH) {
+                writer.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        writer.append(buffer);
+    }
+
+    // Find first row from given row on whose vertex id contains text, wrapping around to the top. Returns -1 if
+    // no row matches.
+    public int findRow(String text, int fromRow) {
+        int rowCount = getRowCount();
+        for (int i = 0; i < rowCount; i++) {
+            int row = (fromRow + i) % rowCount;
+            if (getRowVertexId(row).contains(text)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Get number of array elements result holds on to. The result cache counts this against its limit.
+    abstract long getRetainedSize();
+
+    String getVertexId(int vertex) {
+        return vertexIds[vertex];
+    }
+
+    String getPrefix() {
+        return "";
+    }
+
+    abstract String getSeparator();
+
+    abstract void appendRow(StringBuilder results, int row);
+}
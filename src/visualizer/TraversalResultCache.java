@@ -0,0 +1,59 @@
+package visualizer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Least recently used cache of traversal query results.
+//
+// Results are keyed by query, start vertex and graph version, so a result computed before an edit is never
+// handed out after it. Stale results are not looked for. They simply stop being used and get evicted first.
+// The cache holds at most a given number of results and at most a given number of result array elements, since
+// a single result on a big graph can run to many megabytes. The cache is not thread safe. Traversal guards it
+// with its own lock.
+class TraversalResultCache {
+    private final LinkedHashMap<Key, TraversalResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maximumResultCount;
+    private final long maximumSize;
+    private long size;
+
+    TraversalResultCache(int maximumResultCount, long maximumSize) {
+        this.maximumResultCount = maximumResultCount;
+        this.maximumSize = maximumSize;
+    }
+
+    // Get cached results, or null if there are none.
+    TraversalResult get(String query, String startVertexId, long graphVersion) {
+        return results.get(new Key(query, startVertexId, graphVersion));
+    }
+
+    // Cache results, evicting least recently used ones as needed.
+    void put(String query, String startVertexId, long graphVersion, TraversalResult queryResults) {
+        // Exit if results would not fit even in an empty cache.
+        if ((maximumResultCount == 0) || (queryResults.getRetainedSize() > maximumSize)) {
+            return;
+        }
+
+        TraversalResult previousResults = results.put(new Key(query, startVertexId, graphVersion), queryResults);
+        size += queryResults.getRetainedSize();
+        if (previousResults != null) {
+            size -= previousResults.getRetainedSize();
+        }
+
+        // Evict least recently used results until cache fits its limits again.
+        Iterator<Map.Entry<Key, TraversalResult>> iterator = results.entrySet().iterator();
+        while ((results.size() > maximumResultCount) || (size > maximumSize)) {
+            size -= iterator.next().getValue().getRetainedSize();
+            iterator.remove();
+        }
+    }
+
+    // Drop all cached results.
+    void clear() {
+        results.clear();
+        size = 0;
+    }
+
+    private record Key(String query, String startVertexId, long graphVersion) {
+    }
+}
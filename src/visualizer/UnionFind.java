@@ -0,0 +1,53 @@
+package visualizer;
+
+// Disjoint sets of dense integer elements in the range [0, count), with path halving and union by size.
+class UnionFind {
+    private final int[] parents;
+    private final int[] sizes;
+
+    UnionFind(int count) {
+        parents = new int[count];
+        sizes = new int[count];
+        for (int element = 0; element < count; element++) {
+            parents[element] = element;
+            sizes[element] = 1;
+        }
+    }
+
+    // Get root of set holding element, pointing elements on the way at their grandparents.
+    int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    // Get root of set holding element without changing anything. Safe to call from several threads at once
+    // while no sets are being joined.
+    int findWithoutCompressing(int element) {
+        while (parents[element] != element) {
+            element = parents[element];
+        }
+        return element;
+    }
+
+    // Join sets holding both elements. Returns false if they already were in the same set.
+    boolean union(int firstElement, int secondElement) {
+        int firstRoot = find(firstElement);
+        int secondRoot = find(secondElement);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+
+        // Hang smaller set under larger one.
+        if (sizes[firstRoot] < sizes[secondRoot]) {
+            int swappedRoot = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = swappedRoot;
+        }
+        parents[secondRoot] = firstRoot;
+        sizes[firstRoot] += sizes[secondRoot];
+        return true;
+    }
+}
@@ -1,15 +1,23 @@
 package visualizer;
 
-import javax.swing.*;
 import java.awt.*;
 import java.util.HashSet;
 
-public class Vertex extends JPanel {
-    private static final int VERTEX_DIAMETER = 50;
+// Vertex of the graph scene. Holds position and color only; drawing is done either by the graph panel
+// directly or by a VertexComponent.
+public class Vertex {
+    public static final int VERTEX_DIAMETER = 50;
+
+    // Smallest on-screen diameters at which vertices are drawn as circles rather than dots, and with their ids
+    // and edge weights.
+    public static final int MINIMUM_CIRCLE_DIAMETER = 6;
+    public static final int MINIMUM_LABELED_DIAMETER = 24;
+
+    private static final int DOT_SIZE = 2;
 
     private final String vertexId;
-    private final int centerX;
-    private final int centerY;
+    private int centerX;
+    private int centerY;
     private final int radius;
     private Color color;
 
@@ -20,19 +28,7 @@ public class Vertex extends JPanel {
         this.centerX = centerX;
         this.centerY = centerY;
         this.radius = Vertex.VERTEX_DIAMETER / 2;
-        int left = centerX - radius;
-        int top = centerY - radius;
         setColorNormal();
-
-        setName(String.format("Vertex %s", vertexId));
-        setBounds(left, top, VERTEX_DIAMETER, VERTEX_DIAMETER);
-        setBackground(Color.BLACK);
-        setOpaque(false);
-        setLayout(new GridBagLayout());
-
-        JLabel label = new JLabel(vertexId);
-        label.setName(String.format("VertexLabel %s", vertexId));
-        add(label);
     }
 
     public String getVertexId() {
@@ -47,6 +43,16 @@ public class Vertex extends JPanel {
         return centerY;
     }
 
+    // Move vertex. Whoever files vertex or its edges by position has to re-file them.
+    public void setCenter(int centerX, int centerY) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
     public void setColorNormal() {
         this.color = Color.WHITE;
     }
@@ -55,6 +61,16 @@ public class Vertex extends JPanel {
         this.color = Color.GREEN;
     }
 
+    // Color vertex as reached by a playing traversal.
+    public void setColorVisited() {
+        this.color = Color.YELLOW;
+    }
+
+    // Color vertex as done with by a playing traversal.
+    public void setColorSettled() {
+        this.color = Color.ORANGE;
+    }
+
     public HashSet<Edge> getEdgeList() {
         return edgeList;
     }
@@ -67,6 +83,11 @@ public class Vertex extends JPanel {
         edgeList.remove(edge);
     }
 
+    // Get area covered by vertex circle.
+    public Rectangle getBounds() {
+        return new Rectangle(centerX - radius, centerY - radius, VERTEX_DIAMETER, VERTEX_DIAMETER);
+    }
+
     // Does vertex include point?
     public boolean includesPoint(int x, int y) {
         // Calculate distance between point and center of vertex.
@@ -75,11 +96,23 @@ public class Vertex extends JPanel {
         return (distance <= radius);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+    // Draw vertex circle in world coordinates, with id if labeled.
+    public void draw(Graphics2D g2d, boolean labeled) {
+        g2d.setColor(color);
+        g2d.fillOval(centerX - radius, centerY - radius, VERTEX_DIAMETER, VERTEX_DIAMETER);
+        if (!labeled) {
+            return;
+        }
+
+        // Center id in circle.
+        FontMetrics fontMetrics = g2d.getFontMetrics();
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(vertexId, centerX - fontMetrics.stringWidth(vertexId) / 2, centerY + (fontMetrics.getAscent() - fontMetrics.getDescent()) / 2);
+    }
 
-        g.setColor(color);
-        g.fillOval(0, 0, VERTEX_DIAMETER, VERTEX_DIAMETER);
+    // Draw vertex as a dot in screen coordinates of viewport, for when circles would be too small to tell apart.
+    public void drawDot(Graphics2D g2d, Viewport viewport) {
+        g2d.setColor(color);
+        g2d.fillRect((int) viewport.toScreenX(centerX) - DOT_SIZE / 2, (int) viewport.toScreenY(centerY) - DOT_SIZE / 2, DOT_SIZE, DOT_SIZE);
     }
 }
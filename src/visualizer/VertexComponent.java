@@ -0,0 +1,32 @@
+package visualizer;
+
+import javax.swing.*;
+import java.awt.*;
+
+// Named Swing component for a vertex, used when the graph panel renders with one component per vertex and
+// edge. The testing robot finds vertices by these component names.
+public class VertexComponent extends JPanel {
+    private final Vertex vertex;
+
+    public VertexComponent(Vertex vertex) {
+        this.vertex = vertex;
+
+        setName(String.format("Vertex %s", vertex.getVertexId()));
+        setBounds(vertex.getBounds());
+        setBackground(Color.BLACK);
+        setOpaque(false);
+        setLayout(new GridBagLayout());
+
+        JLabel label = new JLabel(vertex.getVertexId());
+        label.setName(String.format("VertexLabel %s", vertex.getVertexId()));
+        add(label);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        g.setColor(vertex.getColor());
+        g.fillOval(0, 0, Vertex.VERTEX_DIAMETER, Vertex.VERTEX_DIAMETER);
+    }
+}
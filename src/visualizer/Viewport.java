@@ -0,0 +1,87 @@
+package visualizer;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+// World to screen transform of the graph panel: a uniform scale followed by an offset.
+//
+// Vertices keep their positions in world coordinates. Zooming and panning only change the transform, so
+// nothing in the scene moves or needs to be re-indexed.
+public class Viewport {
+    public static final double MINIMUM_SCALE = 1e-6;
+    public static final double MAXIMUM_SCALE = 64;
+
+    private double scale = 1;
+    private double offsetX;
+    private double offsetY;
+
+    public double getScale() {
+        return scale;
+    }
+
+    // Go back to drawing world one to one.
+    public void reset() {
+        scale = 1;
+        offsetX = 0;
+        offsetY = 0;
+    }
+
+    public double toScreenX(double worldX) {
+        return worldX * scale + offsetX;
+    }
+
+    public double toScreenY(double worldY) {
+        return worldY * scale + offsetY;
+    }
+
+    public double toWorldX(double screenX) {
+        return (screenX - offsetX) / scale;
+    }
+
+    public double toWorldY(double screenY) {
+        return (screenY - offsetY) / scale;
+    }
+
+    // Get world area shown in screen area.
+    public Rectangle2D toWorld(Rectangle screenArea) {
+        return new Rectangle2D.Double(toWorldX(screenArea.x), toWorldY(screenArea.y), screenArea.width / scale, screenArea.height / scale);
+    }
+
+    // Get smallest screen area covering world area.
+    public Rectangle toScreen(Rectangle2D worldArea) {
+        int x = (int) Math.floor(toScreenX(worldArea.getMinX()));
+        int y = (int) Math.floor(toScreenY(worldArea.getMinY()));
+        return new Rectangle(x, y, (int) Math.ceil(toScreenX(worldArea.getMaxX())) - x + 1, (int) Math.ceil(toScreenY(worldArea.getMaxY())) - y + 1);
+    }
+
+    public AffineTransform getTransform() {
+        return new AffineTransform(scale, 0, 0, scale, offsetX, offsetY);
+    }
+
+    // Zoom by factor, keeping world point under screen point in place.
+    public void zoom(double factor, double screenX, double screenY) {
+        double newScale = Math.max(MINIMUM_SCALE, Math.min(MAXIMUM_SCALE, scale * factor));
+        double worldX = toWorldX(screenX);
+        double worldY = toWorldY(screenY);
+        scale = newScale;
+        offsetX = screenX - worldX * scale;
+        offsetY = screenY - worldY * scale;
+    }
+
+    // Move world by given number of screen pixels.
+    public void pan(double screenDeltaX, double screenDeltaY) {
+        offsetX += screenDeltaX;
+        offsetY += screenDeltaY;
+    }
+
+    // Show all of world area centered in screen of given size, with margin pixels to spare on each side.
+    public void fit(Rectangle2D worldArea, int screenWidth, int screenHeight, int margin) {
+        double worldWidth = Math.max(worldArea.getWidth(), 1);
+        double worldHeight = Math.max(worldArea.getHeight(), 1);
+        scale = Math.max(MINIMUM_SCALE, Math.min(MAXIMUM_SCALE,
+                Math.min((screenWidth - 2.0 * margin) / worldWidth, (screenHeight - 2.0 * margin) / worldHeight)));
+        offsetX = screenWidth / 2.0 - worldArea.getCenterX() * scale;
+        offsetY = screenHeight / 2.0 - worldArea.getCenterY() * scale;
+    }
+}
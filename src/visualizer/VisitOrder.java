@@ -0,0 +1,54 @@
+package visualizer;
+
+import java.util.Arrays;
+
+// Vertices in the order a depth or breadth first search visited them. Vertices are numbered like in the
+// snapshot searched.
+public class VisitOrder {
+    private final AdjacencySnapshot snapshot;
+    private final int startVertex;
+    private final int[] visitedVertices;
+    private final int visitedVertexCount;
+
+    VisitOrder(AdjacencySnapshot snapshot, int startVertex, int[] visitedVertices, int visitedVertexCount) {
+        this.snapshot = snapshot;
+        this.startVertex = startVertex;
+        this.visitedVertices = visitedVertices;
+        this.visitedVertexCount = visitedVertexCount;
+    }
+
+    public AdjacencySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Get start vertex, or -1 if start vertex id is not in snapshot.
+    public int getStartVertex() {
+        return startVertex;
+    }
+
+    // Get number of vertices visited, start vertex included.
+    public int getVisitedVertexCount() {
+        return visitedVertexCount;
+    }
+
+    // Get vertex visited at given step, starting from 0 for start vertex.
+    public int getVisitedVertex(int step) {
+        return visitedVertices[step];
+    }
+
+    // Get copy of visited vertices in visiting order.
+    public int[] getVisitedVertices() {
+        return Arrays.copyOf(visitedVertices, visitedVertexCount);
+    }
+
+    // Get results for display, formatted as "<search abbreviation> : a -> b -> c" when asked for.
+    public TraversalResult toResult(String searchAbbreviation) {
+        return toResult(searchAbbreviation, (startVertex != -1) ? snapshot.getVertexId(startVertex) : "");
+    }
+
+    // Get results for display, naming start vertex by id if it is not in snapshot.
+    TraversalResult toResult(String searchAbbreviation, String startVertexId) {
+        return new VisitOrderResult(snapshot.getVertexIds(), searchAbbreviation, startVertexId, (startVertex != -1) ? visitedVertices : null,
+                visitedVertexCount);
+    }
+}
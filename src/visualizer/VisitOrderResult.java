@@ -0,0 +1,68 @@
+package visualizer;
+
+// Depth or breadth first search result: vertices in the order they were visited.
+public class VisitOrderResult extends TraversalResult {
+    private final String searchAbbreviation;
+    private final String startVertexId;
+    private final int[] visitedVertices;
+    private final int visitedVertexCount;
+
+    // Create result for vertices visited from start vertex. Visited vertices are null if start vertex is not in
+    // graph, in which case it is its own result.
+    VisitOrderResult(String[] vertexIds, String searchAbbreviation, String startVertexId, int[] visitedVertices, int visitedVertexCount) {
+        super(vertexIds);
+        this.searchAbbreviation = searchAbbreviation;
+        this.startVertexId = startVertexId;
+        this.visitedVertices = visitedVertices;
+        this.visitedVertexCount = visitedVertexCount;
+    }
+
+    public String getSearchAbbreviation() {
+        return searchAbbreviation;
+    }
+
+    @Override
+    public int getRowCount() {
+        return (visitedVertices != null) ? visitedVertexCount : 1;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return (column == 0) ? "Step" : "Vertex";
+    }
+
+    @Override
+    public String getValue(int row, int column) {
+        return (column == 0) ? String.valueOf(row + 1) : getRowVertexId(row);
+    }
+
+    @Override
+    public String getRowVertexId(int row) {
+        return (visitedVertices != null) ? getVertexId(visitedVertices[row]) : startVertexId;
+    }
+
+    @Override
+    long getRetainedSize() {
+        return (visitedVertices != null) ? visitedVertices.length : 0;
+    }
+
+    @Override
+    String getPrefix() {
+        return searchAbbreviation + " : ";
+    }
+
+    @Override
+    String getSeparator() {
+        return " -> ";
+    }
+
+    @Override
+    void appendRow(StringBuilder results, int row) {
+        results.append(getRowVertexId(row));
+    }
+}
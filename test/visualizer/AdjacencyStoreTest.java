@@ -0,0 +1,66 @@
+package visualizer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Checks of the adjacency store that need no user interface.
+//
+// Usage:
+//   java -cp out visualizer.AdjacencyStoreTest
+public class AdjacencyStoreTest {
+    private static final int RANDOM_ID_COUNT = 2000;
+    private static final int RANDOM_ID_LENGTH = 6;
+
+    public static void main(String[] args) {
+        checkVertexIdOrder(new String[]{"\u0200a", "\u0100b"});
+        checkVertexIdOrder(new String[]{"\u00FFz", "\u00FF", "\u0100a", "\u00FEz", "ab\u0101c", "ab\u0100d", "ab\u00FF", "ab"});
+
+        // Mix Latin-1 and higher characters, the kind of ids a UTF-8 edge list yields, and keep ids sharing
+        // characters so that long runs need sorting past the first prefix.
+        char[] alphabet = {'a', 'b', '\u00E9', '\u00FF', '\u0100', '\u0416', '\u4E2D', '\uFF5E'};
+        Random random = new Random(1);
+        String[] vertexIds = new String[RANDOM_ID_COUNT];
+        for (int vertex = 0; vertex < RANDOM_ID_COUNT; vertex++) {
+            String vertexId;
+            do {
+                char[] characters = new char[1 + random.nextInt(RANDOM_ID_LENGTH)];
+                for (int i = 0; i < characters.length; i++) {
+                    characters[i] = alphabet[random.nextInt(alphabet.length)];
+                }
+                vertexId = new String(characters);
+            } while (Arrays.asList(vertexIds).subList(0, vertex).contains(vertexId));
+            vertexIds[vertex] = vertexId;
+        }
+        checkVertexIdOrder(vertexIds);
+
+        System.out.println("All checks passed.");
+    }
+
+    // Check that vertices are ranked like their ids compare and that every vertex is found by id.
+    private static void checkVertexIdOrder(String[] vertexIds) {
+        int vertexCount = vertexIds.length;
+        AdjacencySnapshot snapshot = AdjacencyStore.fromEdgeList(vertexIds.clone(), vertexCount, new int[0], new int[0], new int[0], 0, true)
+                .snapshot();
+
+        for (int rank = 1; rank < vertexCount; rank++) {
+            String previousId = snapshot.getVertexId(snapshot.getVertexByRank(rank - 1));
+            String vertexId = snapshot.getVertexId(snapshot.getVertexByRank(rank));
+            if (previousId.compareTo(vertexId) >= 0) {
+                throw new AssertionError(String.format("Vertex %s is ranked before %s.", escape(previousId), escape(vertexId)));
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (snapshot.indexOf(vertexIds[vertex]) != vertex) {
+                throw new AssertionError(String.format("Vertex %s is not found by id.", escape(vertexIds[vertex])));
+            }
+        }
+    }
+
+    private static String escape(String vertexId) {
+        StringBuilder escaped = new StringBuilder();
+        for (char character : vertexId.toCharArray()) {
+            escaped.append((character < 0x80) ? String.valueOf(character) : String.format("\\u%04X", (int) character));
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package visualizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+
+// Checks of the graph file parser.
+//
+// Usage:
+//   java -cp out visualizer.GraphFileReaderTest
+public class GraphFileReaderTest {
+    public static void main(String[] args) throws IOException {
+        // A well formed DIMACS file has each vertex once.
+        GraphFileReader reader = read(GraphFileReader.Format.DIMACS, "c comment\np sp 3 2\na 1 2 5\na 1 3 1\n");
+        if ((reader.getVertexCount() != 3) || (reader.getEdgeCount() != 2)) {
+            throw new AssertionError(String.format("DIMACS file gave %d vertices and %d edges.", reader.getVertexCount(), reader.getEdgeCount()));
+        }
+        HashSet<String> vertexIds = new HashSet<>();
+        for (int vertex = 0; vertex < reader.getVertexCount(); vertex++) {
+            if (!vertexIds.add(reader.getVertexId(vertex))) {
+                throw new AssertionError(String.format("DIMACS file gave vertex %s twice.", reader.getVertexId(vertex)));
+            }
+        }
+
+        // Problem lines must come once, before the arcs, and announce a vertex count that fits an array.
+        checkRejected(GraphFileReader.Format.DIMACS, "p sp 3 2\na 1 2 5\np sp 3 2\na 1 3 1\n");
+        checkRejected(GraphFileReader.Format.DIMACS, "p sp 3 2\np sp 3 2\n");
+        checkRejected(GraphFileReader.Format.DIMACS, "a 1 2 5\np sp 3 2\n");
+        checkRejected(GraphFileReader.Format.DIMACS, "p sp 2147483647 1\na 1 2 5\n");
+        checkRejected(GraphFileReader.Format.DIMACS, "p sp -1 1\n");
+        checkRejected(GraphFileReader.Format.DIMACS, "p sp 3 -1\n");
+
+        System.out.println("All checks passed.");
+    }
+
+    private static void checkRejected(GraphFileReader.Format format, String contents) throws IOException {
+        try {
+            read(format, contents);
+        } catch (IOException e) {
+            return;
+        }
+        throw new AssertionError(String.format("File was read although it is malformed:%n%s", contents));
+    }
+
+    private static GraphFileReader read(GraphFileReader.Format format, String contents) throws IOException {
+        Path path = Files.createTempFile("graph", ".txt");
+        try {
+            Files.writeString(path, contents);
+            return GraphFileReader.read(path, format, TraversalMonitor.NONE);
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package visualizer;
+
+import java.util.Random;
+
+// Checks that delta-stepping finds the same cost pairs as the heap.
+//
+// Usage:
+//   java -cp out visualizer.ShortestPathsTest
+public class ShortestPathsTest {
+    private static final int[] DELTAS = {0, 1, 7, 1000};
+    private static final int RANDOM_GRAPH_COUNT = 20;
+    private static final int MAXIMUM_RANDOM_VERTEX_COUNT = 3000;
+
+    public static void main(String[] args) {
+        // Paths longer than the largest int leave their end vertices unreachable.
+        String[] vertexIds = {"a", "b", "c"};
+        int[] from = {0, 1};
+        int[] to = {1, 2};
+        int[] weights = {2_000_000_000, 2_000_000_000};
+        checkSameCostPairs(vertexIds, from, to, weights, 2, "a", "b=2000000000, c=2147483647");
+
+        // Random graphs, with small weights and with weights big enough for paths to run past the largest int.
+        Random random = new Random(1);
+        for (int graph = 0; graph < RANDOM_GRAPH_COUNT; graph++) {
+            int vertexCount = 1 + random.nextInt(MAXIMUM_RANDOM_VERTEX_COUNT);
+            int edgeCount = random.nextInt(3 * vertexCount);
+            int maximumWeight = (graph % 2 == 0) ? 100 : Integer.MAX_VALUE;
+            vertexIds = new String[vertexCount];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                vertexIds[vertex] = "v" + vertex;
+            }
+            from = new int[edgeCount];
+            to = new int[edgeCount];
+            weights = new int[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                from[edge] = random.nextInt(vertexCount);
+                to[edge] = random.nextInt(vertexCount);
+                weights[edge] = random.nextInt(maximumWeight);
+            }
+            checkSameCostPairs(vertexIds, from, to, weights, edgeCount, "v0", null);
+        }
+
+        System.out.println("All checks passed.");
+    }
+
+    // Check that every delta gives the heap's cost pairs, and that they are the expected ones if given.
+    private static void checkSameCostPairs(String[] vertexIds, int[] from, int[] to, int[] weights, int edgeCount, String startVertexId,
+                                           String expectedCostPairs) {
+        String heapCostPairs = findCostPairs(vertexIds, from, to, weights, edgeCount, startVertexId, Traversal.ShortestPathEngine.HEAP, 0);
+        if ((expectedCostPairs != null) && !heapCostPairs.equals(expectedCostPairs)) {
+            throw new AssertionError(String.format("Heap found %s instead of %s.", heapCostPairs, expectedCostPairs));
+        }
+        for (int delta : DELTAS) {
+            String deltaSteppingCostPairs = findCostPairs(vertexIds, from, to, weights, edgeCount, startVertexId,
+                    Traversal.ShortestPathEngine.DELTA_STEPPING, delta);
+            if (!deltaSteppingCostPairs.equals(heapCostPairs)) {
+                throw new AssertionError(String.format("Delta-stepping with delta %d on %d vertices disagrees with heap.", delta, vertexIds.length));
+            }
+        }
+    }
+
+    private static String findCostPairs(String[] vertexIds, int[] from, int[] to, int[] weights, int edgeCount, String startVertexId,
+                                        Traversal.ShortestPathEngine engine, int delta) {
+        Traversal traversal = new Traversal();
+        traversal.replaceAdjacencyList(AdjacencyStore.fromEdgeList(vertexIds.clone(), vertexIds.length, from, to, weights, edgeCount, true));
+        traversal.setShortestPathEngine(engine, delta);
+        return traversal.getDijkstrasAlgorithmCostPairs(startVertexId);
+    }
+}